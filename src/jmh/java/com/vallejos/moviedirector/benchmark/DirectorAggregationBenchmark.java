@@ -0,0 +1,138 @@
+package com.vallejos.moviedirector.benchmark;
+
+import com.vallejos.moviedirector.client.MovieApiClient;
+import com.vallejos.moviedirector.configuration.MovieStoreProperties;
+import com.vallejos.moviedirector.domain.DirectorIndex;
+import com.vallejos.moviedirector.dto.MovieDto;
+import com.vallejos.moviedirector.dto.MoviePageDto;
+import com.vallejos.moviedirector.mapper.MovieMapper;
+import com.vallejos.moviedirector.metrics.DirectorMetrics;
+import com.vallejos.moviedirector.service.IncrementalDirectorAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the director aggregation pipeline on synthetic catalogs: counting the movies of every director
+ * while pages stream in, building the threshold index, and answering a threshold query. Encoding the
+ * columnar movie store is measured on its own, so it does not blur the counting numbers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DirectorAggregationBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int movies;
+
+    @Param({"UNIFORM", "ZIPF"})
+    public SyntheticCatalog.Skew skew;
+
+    @Param({"2"})
+    public int threshold;
+
+    private final MovieMapper movieMapper = Mappers.getMapper(MovieMapper.class);
+    private final DirectorMetrics metrics = new DirectorMetrics(new SimpleMeterRegistry());
+    private final MovieStoreProperties storeDisabled = new MovieStoreProperties();
+    private final MovieStoreProperties storeEnabled = new MovieStoreProperties();
+
+    private List<MoviePageDto> pages;
+    private Map<String, Long> directorCounts;
+    private DirectorIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        storeDisabled.setEnabled(false);
+        String[] directors = SyntheticCatalog.directors(movies, Math.max(10, movies / 20), skew);
+        pages = SyntheticCatalog.pages(directors, 100);
+        directorCounts = Arrays.stream(directors)
+                .collect(Collectors.groupingBy(director -> director, Collectors.counting()));
+        index = DirectorIndex.of(directorCounts);
+    }
+
+    /**
+     * Full crawl aggregation as run by a refresh: every page is new, so every movie is mapped and counted.
+     */
+    @Benchmark
+    public DirectorIndex aggregateCatalog() {
+        IncrementalDirectorAggregator aggregator =
+                new IncrementalDirectorAggregator(new PagesClient(pages), movieMapper, metrics, storeDisabled);
+        return aggregator.refresh().block();
+    }
+
+    /**
+     * The same full crawl with the columnar movie store enabled, so every movie is also encoded into its
+     * page segment; the difference with {@link #aggregateCatalog()} is the cost of the store.
+     */
+    @Benchmark
+    public DirectorIndex aggregateCatalogWithStore() {
+        IncrementalDirectorAggregator aggregator =
+                new IncrementalDirectorAggregator(new PagesClient(pages), movieMapper, metrics, storeEnabled);
+        return aggregator.refresh().block();
+    }
+
+    /**
+     * Building the per-version threshold index from the director counts.
+     */
+    @Benchmark
+    public DirectorIndex buildIndex() {
+        return DirectorIndex.of(directorCounts);
+    }
+
+    /**
+     * Answering a threshold from the index.
+     */
+    @Benchmark
+    public List<String> thresholdFromIndex() {
+        return index.directorsWithMoreMoviesThan(threshold);
+    }
+
+    /**
+     * Answering a threshold by filtering and sorting the counts, as done before the index existed.
+     */
+    @Benchmark
+    public List<String> thresholdFromCounts() {
+        return directorCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() > threshold)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Client that replays pre-built pages.
+     */
+    private static final class PagesClient implements MovieApiClient {
+
+        private final List<MoviePageDto> pages;
+
+        PagesClient(List<MoviePageDto> pages) {
+            this.pages = pages;
+        }
+
+        @Override
+        public Flux<MovieDto> fetchAllMovies() {
+            return Flux.fromIterable(pages).flatMapIterable(MoviePageDto::getMovies);
+        }
+
+        @Override
+        public Flux<MoviePageDto> fetchAllPages(Map<Integer, String> knownFingerprints) {
+            return Flux.fromIterable(pages);
+        }
+    }
+}
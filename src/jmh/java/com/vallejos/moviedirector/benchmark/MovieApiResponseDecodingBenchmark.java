@@ -0,0 +1,78 @@
+package com.vallejos.moviedirector.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vallejos.moviedirector.client.codec.MovieApiResponseProjectionDecoder;
+import com.vallejos.moviedirector.dto.MovieApiResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding an upstream page with the default Jackson decoder used by
+ * {@code bodyToMono(MovieApiResponseDto.class)} against the token-level projection decoder.
+ * Both decoders are fed the body as 8 KiB network-sized buffers. The projection decoder keeps the fields
+ * of {@code movie.api.projected-fields}, as configured in {@code application.properties}, or the director only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MovieApiResponseDecodingBenchmark {
+
+    private static final int CHUNK_BYTES = 8 * 1024;
+    private static final ResolvableType TYPE = ResolvableType.forClass(MovieApiResponseDto.class);
+
+    @Param({"10", "100", "1000", "10000"})
+    public int moviesPerPage;
+
+    @Param({"Director,Year,Rated,Released,Runtime,Genre", "Director"})
+    public String projectedFields;
+
+    private final Decoder<Object> jacksonDecoder = new Jackson2JsonDecoder(new ObjectMapper());
+    private MovieApiResponseProjectionDecoder projectionDecoder;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        projectionDecoder = new MovieApiResponseProjectionDecoder(Set.of(projectedFields.split(",")));
+        body = new ObjectMapper().writeValueAsBytes(SyntheticCatalog.responsePage(moviesPerPage));
+        jacksonDecoder.decodeToMono(buffers(), TYPE, MediaType.APPLICATION_JSON, null).block();
+    }
+
+    @Benchmark
+    public Object fullJacksonDecode() {
+        return jacksonDecoder.decodeToMono(buffers(), TYPE, MediaType.APPLICATION_JSON, null).block();
+    }
+
+    @Benchmark
+    public MovieApiResponseDto projectionDecode() {
+        return projectionDecoder.decodeToMono(buffers(), TYPE, MediaType.APPLICATION_JSON, null).block();
+    }
+
+    private Flux<DataBuffer> buffers() {
+        return Flux.range(0, (body.length + CHUNK_BYTES - 1) / CHUNK_BYTES)
+                .map(chunk -> {
+                    int offset = chunk * CHUNK_BYTES;
+                    int length = Math.min(CHUNK_BYTES, body.length - offset);
+                    DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(length);
+                    buffer.write(body, offset, length);
+                    return buffer;
+                });
+    }
+}
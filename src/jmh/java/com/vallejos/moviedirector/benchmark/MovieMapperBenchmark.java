@@ -0,0 +1,43 @@
+package com.vallejos.moviedirector.benchmark;
+
+import com.vallejos.moviedirector.domain.Movie;
+import com.vallejos.moviedirector.dto.MovieDto;
+import com.vallejos.moviedirector.mapper.MovieMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link MovieMapper#toDomain(MovieDto)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MovieMapperBenchmark {
+
+    private static final int MOVIES = 1024;
+
+    private final MovieMapper movieMapper = Mappers.getMapper(MovieMapper.class);
+    private final MovieDto[] dtos = new MovieDto[MOVIES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < MOVIES; i++) {
+            dtos[i] = SyntheticCatalog.movie(i, "Director " + (i % 64));
+        }
+    }
+
+    @Benchmark
+    public Movie toDomain() {
+        next = (next + 1) & (MOVIES - 1);
+        return movieMapper.toDomain(dtos[next]);
+    }
+}
@@ -0,0 +1,143 @@
+package com.vallejos.moviedirector.benchmark;
+
+import com.vallejos.moviedirector.dto.MovieApiResponseDto;
+import com.vallejos.moviedirector.dto.MovieDto;
+import com.vallejos.moviedirector.dto.MoviePageDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic movie catalogs for the benchmarks.
+ */
+public final class SyntheticCatalog {
+
+    /**
+     * How movies are distributed over directors.
+     */
+    public enum Skew {
+        /**
+         * Every director is equally likely.
+         */
+        UNIFORM,
+        /**
+         * Director popularity follows a Zipf distribution (exponent 1.1): a few directors have most movies.
+         */
+        ZIPF
+    }
+
+    private static final long SEED = 42L;
+
+    private SyntheticCatalog() {
+    }
+
+    /**
+     * Draws the director of every movie in a catalog.
+     *
+     * @param movies    Number of movies in the catalog.
+     * @param directors Number of distinct directors to draw from.
+     * @param skew      The director distribution.
+     * @return The director name of each movie; names are shared between movies of the same director.
+     */
+    public static String[] directors(int movies, int directors, Skew skew) {
+        String[] names = new String[directors];
+        for (int i = 0; i < directors; i++) {
+            names[i] = "Director " + i;
+        }
+
+        double[] cumulative = new double[directors];
+        double total = 0;
+        for (int i = 0; i < directors; i++) {
+            total += skew == Skew.ZIPF ? 1.0 / Math.pow(i + 1, 1.1) : 1.0;
+            cumulative[i] = total;
+        }
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        String[] catalog = new String[movies];
+        for (int i = 0; i < movies; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            catalog[i] = names[Math.min(directors - 1, index >= 0 ? index : -index - 1)];
+        }
+        return catalog;
+    }
+
+    /**
+     * Builds a fully populated movie, as the upstream would return it.
+     *
+     * @param index    A number used to vary the field values.
+     * @param director The director of the movie.
+     * @return The movie.
+     */
+    public static MovieDto movie(int index, String director) {
+        MovieDto movie = new MovieDto();
+        movie.setTitle("Movie Title " + index);
+        movie.setYear(String.valueOf(2010 + index % 14));
+        movie.setRated(index % 3 == 0 ? "PG-13" : "R");
+        movie.setReleased((1 + index % 28) + " Jun " + (2010 + index % 14));
+        movie.setRuntime((80 + index % 90) + " min");
+        movie.setGenre("Drama, Romance, Comedy");
+        movie.setDirector(director);
+        movie.setWriter("Writer " + index + ", Another Writer");
+        movie.setActors("First Actor, Second Actor, Third Actor, Fourth Actor");
+        return movie;
+    }
+
+    /**
+     * Splits a catalog into upstream pages carrying the fields kept by the projection decoder (director, year,
+     * rating, release date, runtime and genres), with the values of {@link #movie(int, String)}.
+     *
+     * @param directors The director of each movie.
+     * @param perPage   Number of movies per page.
+     * @return The pages, each with a distinct fingerprint.
+     */
+    public static List<MoviePageDto> pages(String[] directors, int perPage) {
+        int totalPages = (directors.length + perPage - 1) / perPage;
+        List<MoviePageDto> pages = new ArrayList<>(totalPages);
+        for (int page = 0; page < totalPages; page++) {
+            List<MovieDto> movies = new ArrayList<>(perPage);
+            for (int i = page * perPage; i < Math.min(directors.length, (page + 1) * perPage); i++) {
+                movies.add(projected(movie(i, directors[i])));
+            }
+            pages.add(new MoviePageDto(page + 1, totalPages, "sha256:" + page, false, movies));
+        }
+        return pages;
+    }
+
+    /**
+     * Keeps the fields of the default {@code movie.api.projected-fields}. The values repeat across the
+     * catalog, so they are interned to keep catalogs of millions of movies within the benchmark heap.
+     */
+    private static MovieDto projected(MovieDto movie) {
+        MovieDto projected = new MovieDto();
+        projected.setDirector(movie.getDirector());
+        projected.setYear(movie.getYear().intern());
+        projected.setRated(movie.getRated().intern());
+        projected.setReleased(movie.getReleased().intern());
+        projected.setRuntime(movie.getRuntime().intern());
+        projected.setGenre(movie.getGenre().intern());
+        return projected;
+    }
+
+    /**
+     * Builds a fully populated upstream page.
+     *
+     * @param movies Number of movies on the page.
+     * @return The page.
+     */
+    public static MovieApiResponseDto responsePage(int movies) {
+        String[] directors = directors(movies, Math.max(1, movies / 4), Skew.ZIPF);
+        List<MovieDto> data = new ArrayList<>(movies);
+        for (int i = 0; i < movies; i++) {
+            data.add(movie(i, directors[i]));
+        }
+        MovieApiResponseDto response = new MovieApiResponseDto();
+        response.setPage(1);
+        response.setPerPage(movies);
+        response.setTotal(movies);
+        response.setTotalPages(1);
+        response.setData(data);
+        return response;
+    }
+}
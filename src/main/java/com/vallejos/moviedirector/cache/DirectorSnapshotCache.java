@@ -0,0 +1,272 @@
+package com.vallejos.moviedirector.cache;
+
+import com.vallejos.moviedirector.client.RequestPriority;
+import com.vallejos.moviedirector.domain.DirectorIndex;
+import com.vallejos.moviedirector.domain.DirectorSnapshot;
+import com.vallejos.moviedirector.domain.MovieTable;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache holding the current {@link DirectorSnapshot}.
+ * <p>
+ * The first caller waits for the initial load. Afterwards every caller is answered from the current
+ * snapshot; once it is older than the configured TTL, a single background refresh is started and the
+ * new snapshot is swapped in atomically when it completes. A failed refresh keeps the previous snapshot.
+ * <p>
+ * Loads are single-flight: callers that need a load while one is already running subscribe to that
+ * in-flight load instead of starting their own crawl. The in-flight entry is cleared as soon as the load
+ * completes or fails, so errors are never cached.
+ * <p>
+ * Background refreshes crawl with {@link RequestPriority#BACKGROUND}, so the upstream budget goes to
+ * requests clients are waiting for first.
+ *
+ * @param <P> What the loader publishes while a load runs, e.g. its progress page by page; see {@link #load()}.
+ */
+@Slf4j
+public class DirectorSnapshotCache<P> {
+
+    private final Duration ttl;
+    private final Supplier<Mono<DirectorIndex>> loader;
+    private final Clock clock;
+    private final Consumer<DirectorSnapshot> onRefresh;
+    private final Supplier<MovieTable> tables;
+    private final Supplier<P> progress;
+
+    private final AtomicReference<DirectorSnapshot> current = new AtomicReference<>();
+    private final AtomicReference<Load<P>> inFlight = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * One load of the cache: the snapshot it builds and what its loader publishes while it runs.
+     *
+     * @param <P> The type of the progress.
+     */
+    @Value
+    public static class Load<P> {
+
+        /**
+         * Emits the snapshot once the load completes; every subscriber shares the same load.
+         */
+        Mono<DirectorSnapshot> snapshot;
+
+        /**
+         * What the progress supplier returned right before this load's loader was subscribed.
+         */
+        P progress;
+    }
+
+    /**
+     * Constructs the cache.
+     *
+     * @param ttl    How long a snapshot is fresh. Zero or negative disables caching.
+     * @param loader Supplies a {@link Mono} that crawls and aggregates the director counts.
+     * @param clock  The clock used to timestamp and expire snapshots.
+     */
+    public DirectorSnapshotCache(Duration ttl, Supplier<Mono<DirectorIndex>> loader, Clock clock) {
+        this(ttl, loader, clock, snapshot -> { });
+    }
+
+    /**
+     * Constructs the cache with a listener notified of every newly loaded snapshot.
+     *
+     * @param ttl       How long a snapshot is fresh. Zero or negative disables caching.
+     * @param loader    Supplies a {@link Mono} that crawls and aggregates the director counts.
+     * @param clock     The clock used to timestamp and expire snapshots.
+     * @param onRefresh Called with each snapshot once it has been swapped in.
+     */
+    public DirectorSnapshotCache(Duration ttl, Supplier<Mono<DirectorIndex>> loader, Clock clock,
+                                 Consumer<DirectorSnapshot> onRefresh) {
+        this(ttl, loader, clock, onRefresh, () -> null);
+    }
+
+    /**
+     * Constructs the cache with a listener notified of every newly loaded snapshot and a source of the movie
+     * table each load was aggregated from.
+     *
+     * @param ttl       How long a snapshot is fresh. Zero or negative disables caching.
+     * @param loader    Supplies a {@link Mono} that crawls and aggregates the director counts.
+     * @param clock     The clock used to timestamp and expire snapshots.
+     * @param onRefresh Called with each snapshot once it has been swapped in.
+     * @param tables    Called right after the loader emitted, to attach the matching {@link MovieTable}
+     *                  to the new snapshot.
+     */
+    public DirectorSnapshotCache(Duration ttl, Supplier<Mono<DirectorIndex>> loader, Clock clock,
+                                 Consumer<DirectorSnapshot> onRefresh, Supplier<MovieTable> tables) {
+        this(ttl, loader, clock, onRefresh, tables, () -> null);
+    }
+
+    /**
+     * Constructs the cache with a listener, a source of the movie table of each load and a source of the
+     * progress each load publishes.
+     *
+     * @param ttl       How long a snapshot is fresh. Zero or negative disables caching.
+     * @param loader    Supplies a {@link Mono} that crawls and aggregates the director counts.
+     * @param clock     The clock used to timestamp and expire snapshots.
+     * @param onRefresh Called with each snapshot once it has been swapped in.
+     * @param tables    Called right after the loader emitted, to attach the matching {@link MovieTable}
+     *                  to the new snapshot.
+     * @param progress  Called right before the loader is subscribed, while no other load runs, to capture
+     *                  what that load is going to publish; see {@link #load()}.
+     */
+    public DirectorSnapshotCache(Duration ttl, Supplier<Mono<DirectorIndex>> loader, Clock clock,
+                                 Consumer<DirectorSnapshot> onRefresh, Supplier<MovieTable> tables,
+                                 Supplier<P> progress) {
+        this.ttl = ttl;
+        this.loader = loader;
+        this.clock = clock;
+        this.onRefresh = onRefresh;
+        this.tables = tables;
+        this.progress = progress;
+    }
+
+    /**
+     * Seeds the cache with a previously persisted snapshot, so requests can be answered right away, and
+     * starts a background refresh to revalidate it against the upstream.
+     *
+     * @param persisted The restored snapshot; its version is replaced by the next version of this cache.
+     */
+    public void restore(DirectorSnapshot persisted) {
+        DirectorSnapshot snapshot = new DirectorSnapshot(versions.incrementAndGet(),
+                persisted.getIndex(), persisted.getTable(), persisted.getCreatedAt());
+        if (current.compareAndSet(null, snapshot)) {
+            refreshInBackground();
+        }
+    }
+
+    /**
+     * Returns the current snapshot, loading it if none exists yet and triggering a background
+     * refresh if it has expired.
+     *
+     * @return A {@link Mono} emitting the snapshot to answer the request with.
+     */
+    public Mono<DirectorSnapshot> get() {
+        DirectorSnapshot snapshot = current.get();
+        if (snapshot == null || !isEnabled()) {
+            return load(RequestPriority.FOREGROUND);
+        }
+        if (snapshot.isExpired(ttl, clock.instant())) {
+            refreshInBackground();
+        }
+        return Mono.just(snapshot);
+    }
+
+    /**
+     * Returns the current snapshot without ever waiting for a load, triggering a background refresh if
+     * it has expired.
+     *
+     * @return A {@link Mono} emitting the current snapshot, or completing empty if none has been loaded yet
+     *         or caching is disabled.
+     */
+    public Mono<DirectorSnapshot> getIfPresent() {
+        DirectorSnapshot snapshot = current.get();
+        if (snapshot == null || !isEnabled()) {
+            return Mono.empty();
+        }
+        if (snapshot.isExpired(ttl, clock.instant())) {
+            refreshInBackground();
+        }
+        return Mono.just(snapshot);
+    }
+
+    /**
+     * Returns a snapshot loaded by this process rather than restored, joining the in-flight load or starting
+     * one regardless of the current snapshot's age, e.g. when a restored snapshot lacks its movie table.
+     *
+     * @return A {@link Mono} emitting the newly loaded snapshot.
+     */
+    public Mono<DirectorSnapshot> reload() {
+        return load(RequestPriority.FOREGROUND);
+    }
+
+    /**
+     * Joins the in-flight load or starts one right away, like a subscription to {@link #reload()}, and returns
+     * it together with its progress, so that both are guaranteed to belong to the same load.
+     *
+     * @return The joined or started load.
+     */
+    public Load<P> load() {
+        return startOrJoin(RequestPriority.FOREGROUND);
+    }
+
+    /**
+     * Checks whether a snapshot served by this cache has outlived its TTL, which is the case while a
+     * refresh is running or refreshes keep failing.
+     *
+     * @param snapshot A snapshot returned by this cache.
+     * @return true if caching is enabled and the snapshot is expired.
+     */
+    public boolean isStale(DirectorSnapshot snapshot) {
+        return isEnabled() && snapshot.isExpired(ttl, clock.instant());
+    }
+
+    private boolean isEnabled() {
+        return ttl != null && !ttl.isZero() && !ttl.isNegative();
+    }
+
+    private void refreshInBackground() {
+        if (inFlight.get() == null) {
+            load(RequestPriority.BACKGROUND).subscribe(
+                    snapshot -> log.debug("Director snapshot refreshed to version {}", snapshot.getVersion()),
+                    error -> log.warn("Director snapshot refresh failed, keeping the previous snapshot", error));
+        }
+    }
+
+    private Mono<DirectorSnapshot> load(RequestPriority priority) {
+        return Mono.defer(() -> startOrJoin(priority).getSnapshot());
+    }
+
+    /**
+     * Joins the in-flight load, or starts one if none is running.
+     * The load runs detached from its callers, so a cancelled request does not abort a crawl others wait on.
+     * Its upstream requests carry the given {@link RequestPriority}.
+     * <p>
+     * Joining is lock-free; starting is serialized, so the progress is captured while no other load runs
+     * and before the loader of this one is subscribed.
+     */
+    private Load<P> startOrJoin(RequestPriority priority) {
+        Load<P> existing = inFlight.get();
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (this) {
+            existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+
+            Sinks.One<DirectorSnapshot> sink = Sinks.one();
+            Load<P> load = new Load<>(sink.asMono(), progress.get());
+            inFlight.set(load);
+            Mono.defer(loader)
+                    .contextWrite(context -> context.put(RequestPriority.CONTEXT_KEY, priority))
+                    .map(index -> new DirectorSnapshot(versions.incrementAndGet(), index, tables.get(),
+                            clock.instant()))
+                    .subscribe(
+                            snapshot -> {
+                                current.set(snapshot);
+                                inFlight.compareAndSet(load, null);
+                                sink.tryEmitValue(snapshot);
+                                onRefresh.accept(snapshot);
+                            },
+                            error -> {
+                                inFlight.compareAndSet(load, null);
+                                sink.tryEmitError(error);
+                            },
+                            () -> {
+                                inFlight.compareAndSet(load, null);
+                                sink.tryEmitEmpty();
+                            });
+            return load;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.vallejos.moviedirector.cache;
+
+import com.vallejos.moviedirector.configuration.DirectorSnapshotProperties;
+import com.vallejos.moviedirector.domain.DirectorIndex;
+import com.vallejos.moviedirector.domain.DirectorSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Persists the director snapshot to a compact binary file so that a restarted instance can answer
+ * requests immediately instead of paying for a cold crawl.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ * int    magic ("MDSN")
+ * short  format version
+ * short  reserved
+ * long   snapshot creation time (epoch millis)
+ * int    number of directors (n)
+ * int    string table size in bytes
+ * ...    string table: n x (int length, UTF-8 bytes)
+ * int[n] movie counts, in string table order
+ * int    CRC32C of everything above
+ * </pre>
+ * The file is written to a temporary sibling and atomically moved into place, and read back through a
+ * memory-mapped {@link FileChannel}. A missing, corrupt or incompatible file is ignored.
+ */
+@Slf4j
+@Component
+public class DirectorSnapshotStore {
+
+    static final int MAGIC = 0x4D44534E;
+    static final short FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 4 + 2 + 2 + 8 + 4 + 4;
+    private static final int CHECKSUM_BYTES = 4;
+
+    private final DirectorSnapshotProperties properties;
+
+    /**
+     * Constructs the store.
+     *
+     * @param properties The snapshot persistence configuration.
+     */
+    public DirectorSnapshotStore(DirectorSnapshotProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Reads the persisted snapshot, if persistence is enabled and a valid file exists.
+     *
+     * @return The persisted snapshot (with version 0), or empty if there is nothing usable to restore.
+     */
+    public Optional<DirectorSnapshot> load() {
+        if (!properties.isEnabled() || !Files.isRegularFile(properties.getFile())) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(read(properties.getFile()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unusable director snapshot file {}: {}", properties.getFile(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the snapshot on a worker thread, if persistence is enabled. Failures are logged and ignored.
+     *
+     * @param snapshot The snapshot to persist.
+     */
+    public void saveInBackground(DirectorSnapshot snapshot) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Mono.fromRunnable(() -> save(snapshot))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, error -> log.warn("Failed to persist director snapshot to {}", properties.getFile(), error));
+    }
+
+    /**
+     * Writes the snapshot to the configured file, replacing any previous one atomically.
+     *
+     * @param snapshot The snapshot to persist.
+     */
+    void save(DirectorSnapshot snapshot) {
+        Path file = properties.getFile();
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer buffer = encode(snapshot);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+                }
+                try {
+                    Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                // No-op once the move succeeded; otherwise keeps failed writes from piling up next to the snapshot
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write director snapshot to " + file, e);
+        }
+    }
+
+    private ByteBuffer encode(DirectorSnapshot snapshot) {
+        DirectorIndex index = snapshot.getIndex();
+        List<byte[]> names = new ArrayList<>(index.size());
+        int[] counts = new int[index.size()];
+        int stringTableBytes = 0;
+        for (int rank = 0; rank < index.size(); rank++) {
+            byte[] name = index.directorAt(rank).getBytes(StandardCharsets.UTF_8);
+            counts[rank] = Math.toIntExact(index.countAt(rank));
+            names.add(name);
+            stringTableBytes += 4 + name.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + stringTableBytes + 4 * counts.length + CHECKSUM_BYTES);
+        buffer.putInt(MAGIC)
+                .putShort(FORMAT_VERSION)
+                .putShort((short) 0)
+                .putLong(snapshot.getCreatedAt().toEpochMilli())
+                .putInt(counts.length)
+                .putInt(stringTableBytes);
+        for (byte[] name : names) {
+            buffer.putInt(name.length).put(name);
+        }
+        for (int count : counts) {
+            buffer.putInt(count);
+        }
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) checksum.getValue());
+        return buffer.flip();
+    }
+
+    private DirectorSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + CHECKSUM_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("unexpected file size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(0, (int) size - CHECKSUM_BYTES));
+            if ((int) checksum.getValue() != buffer.getInt((int) size - CHECKSUM_BYTES)) {
+                throw new IOException("checksum mismatch");
+            }
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("not a director snapshot file");
+            }
+            short version = buffer.getShort();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("incompatible format version " + version);
+            }
+            buffer.getShort();
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+            int directors = buffer.getInt();
+            int stringTableBytes = buffer.getInt();
+            if (directors < 0 || stringTableBytes < 0
+                    || (long) HEADER_BYTES + stringTableBytes + 4L * directors + CHECKSUM_BYTES != size) {
+                throw new IOException("inconsistent header");
+            }
+
+            String[] names = new String[directors];
+            for (int i = 0; i < directors; i++) {
+                byte[] name = new byte[buffer.getInt()];
+                buffer.get(name);
+                names[i] = new String(name, StandardCharsets.UTF_8);
+            }
+            int[] counts = new int[directors];
+            for (int i = 0; i < directors; i++) {
+                counts[i] = buffer.getInt();
+            }
+            return new DirectorSnapshot(0, DirectorIndex.of(names, counts), null, createdAt);
+        }
+    }
+}
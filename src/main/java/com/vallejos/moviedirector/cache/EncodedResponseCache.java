@@ -0,0 +1,122 @@
+package com.vallejos.moviedirector.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Least-recently-used cache of JSON-encoded response bodies, bounded by the total size of the cached bytes.
+ * <p>
+ * Entries are keyed by the entity tag of the body, which identifies the director data and the resource
+ * requested (e.g. the threshold), and belong to a snapshot version: the first lookup made with a newer
+ * version drops every entry of the previous one, and bodies of older versions are never cached.
+ * <p>
+ * Cached arrays are shared between responses and must never be modified by callers.
+ */
+public class EncodedResponseCache {
+
+    /**
+     * Approximate bookkeeping cost of an entry besides its bytes: map node, key string and array headers.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long version = -1;
+    private long sizeInBytes;
+
+    /**
+     * Constructs the cache.
+     *
+     * @param maxBytes     Upper bound of the cached bytes, overhead included. Zero or negative disables caching.
+     * @param objectMapper The mapper used to encode the bodies, the same one the web layer uses.
+     */
+    public EncodedResponseCache(long maxBytes, ObjectMapper objectMapper) {
+        this.maxBytes = maxBytes;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the JSON encoding of a body, computing, encoding and caching it only if it is not cached yet.
+     *
+     * @param etag    Entity tag of the body, or {@code null} if it cannot be cached.
+     * @param version Version of the snapshot the body is computed from.
+     * @param body    Computes the body to encode; not called when the encoding is cached.
+     * @return The encoded body. The array may be shared and must not be modified.
+     */
+    public byte[] encode(String etag, long version, Supplier<?> body) {
+        if (etag == null || maxBytes <= 0) {
+            return write(body.get());
+        }
+        byte[] cached = lookup(etag, version);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] encoded = write(body.get());
+        store(etag, version, encoded);
+        return encoded;
+    }
+
+    /**
+     * @return The number of cached bodies.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The accounted size of the cached bodies in bytes, overhead included.
+     */
+    public synchronized long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    private synchronized byte[] lookup(String etag, long version) {
+        if (version > this.version) {
+            entries.clear();
+            sizeInBytes = 0;
+            this.version = version;
+            return null;
+        }
+        // A request still holding an older snapshot is encoded without touching the newer entries.
+        return version == this.version ? entries.get(etag) : null;
+    }
+
+    private synchronized void store(String etag, long version, byte[] encoded) {
+        long cost = cost(etag, encoded);
+        // A newer version may have been seen while encoding; its entries must not be mixed with older ones.
+        if (version != this.version || cost > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(etag, encoded);
+        if (previous != null) {
+            sizeInBytes -= cost(etag, previous);
+        }
+        sizeInBytes += cost;
+        Iterator<Map.Entry<String, byte[]>> eldest = entries.entrySet().iterator();
+        while (sizeInBytes > maxBytes) {
+            Map.Entry<String, byte[]> entry = eldest.next();
+            sizeInBytes -= cost(entry.getKey(), entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    private byte[] write(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to encode response body", e);
+        }
+    }
+
+    private static long cost(String etag, byte[] encoded) {
+        return encoded.length + 2L * etag.length() + ENTRY_OVERHEAD;
+    }
+}
@@ -1,8 +1,11 @@
 package com.vallejos.moviedirector.client;
 
 import com.vallejos.moviedirector.dto.MovieDto;
+import com.vallejos.moviedirector.dto.MoviePageDto;
 import reactor.core.publisher.Flux;
 
+import java.util.Map;
+
 /**
  * Defines the contract for clients that fetch movie data from an external source.
  * This interface abstracts the underlying implementation of the HTTP client,
@@ -18,4 +21,16 @@ public interface MovieApiClient {
      *         If an error occurs during the API call, the Flux will signal an error.
      */
     Flux<MovieDto> fetchAllMovies();
+
+    /**
+     * Fetches every page of the external API, revalidating pages whose fingerprint is already known.
+     * Pages the upstream confirms as unchanged are emitted as {@link MoviePageDto#isNotModified() not modified}
+     * without movies. When the first page itself is unchanged, the highest known page number is taken as
+     * the page count.
+     *
+     * @param knownFingerprints The fingerprint last seen for each page number; empty for a full crawl.
+     * @return A {@link Flux} that emits one {@link MoviePageDto} per page.
+     *         If an error occurs during the API call, the Flux will signal an error.
+     */
+    Flux<MoviePageDto> fetchAllPages(Map<Integer, String> knownFingerprints);
 }
@@ -0,0 +1,35 @@
+package com.vallejos.moviedirector.client;
+
+import reactor.util.context.ContextView;
+
+/**
+ * Priority of the upstream requests made on behalf of a subscriber, read from the Reactor context.
+ * Requests waiting for the shared upstream budget are served foreground first.
+ */
+public enum RequestPriority {
+
+    /**
+     * A client request is waiting for the result. This is the default when the context carries no priority.
+     */
+    FOREGROUND,
+
+    /**
+     * A refresh no client is waiting for, such as the revalidation of a stale snapshot.
+     */
+    BACKGROUND;
+
+    /**
+     * Context key under which the priority is stored.
+     */
+    public static final String CONTEXT_KEY = RequestPriority.class.getName();
+
+    /**
+     * Reads the priority of a subscriber.
+     *
+     * @param context The subscriber context.
+     * @return The stored priority, or {@link #FOREGROUND} if none is stored.
+     */
+    public static RequestPriority of(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, FOREGROUND);
+    }
+}
@@ -0,0 +1,247 @@
+package com.vallejos.moviedirector.client.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.vallejos.moviedirector.dto.MovieApiResponseDto;
+import com.vallejos.moviedirector.dto.MovieDto;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Token-level {@link Decoder} for upstream {@link MovieApiResponseDto} pages that only materializes
+ * the fields the application actually reads.
+ * <p>
+ * Network buffers are fed into Jackson's non-blocking parser as they arrive, without first joining the
+ * whole body. The page metadata ({@code page}, {@code per_page}, {@code total}, {@code total_pages}) is
+ * always read; for each movie only the configured fields (e.g. {@code Director}) are turned into Strings,
+ * every other value is skipped at the token level.
+ */
+public class MovieApiResponseProjectionDecoder implements Decoder<MovieApiResponseDto> {
+
+    private static final List<MimeType> DECODABLE_MIME_TYPES = List.of(
+            MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+
+    private static final Map<String, BiConsumer<MovieDto, String>> MOVIE_FIELD_SETTERS = Map.of(
+            "Title", MovieDto::setTitle,
+            "Year", MovieDto::setYear,
+            "Rated", MovieDto::setRated,
+            "Released", MovieDto::setReleased,
+            "Runtime", MovieDto::setRuntime,
+            "Genre", MovieDto::setGenre,
+            "Director", MovieDto::setDirector,
+            "Writer", MovieDto::setWriter,
+            "Actors", MovieDto::setActors);
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Map<String, BiConsumer<MovieDto, String>> projectedSetters;
+
+    /**
+     * Constructs the decoder for the given set of movie fields.
+     *
+     * @param projectedFields The JSON names of the movie fields to keep (e.g. {@code Director}).
+     * @throws IllegalArgumentException if a field is not part of the movie schema.
+     */
+    public MovieApiResponseProjectionDecoder(Collection<String> projectedFields) {
+        Map<String, BiConsumer<MovieDto, String>> setters = new HashMap<>();
+        for (String field : projectedFields) {
+            BiConsumer<MovieDto, String> setter = MOVIE_FIELD_SETTERS.get(field);
+            if (setter == null) {
+                throw new IllegalArgumentException("Unknown movie field: " + field);
+            }
+            setters.put(field, setter);
+        }
+        this.projectedSetters = Map.copyOf(setters);
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        if (elementType.toClass() != MovieApiResponseDto.class) {
+            return false;
+        }
+        return mimeType == null || DECODABLE_MIME_TYPES.stream().anyMatch(type -> type.isCompatibleWith(mimeType));
+    }
+
+    @Override
+    public Flux<MovieApiResponseDto> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                                            @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return decodeToMono(inputStream, elementType, mimeType, hints).flux();
+    }
+
+    @Override
+    public Mono<MovieApiResponseDto> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                                                  @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return Mono.using(
+                () -> new PageProjector(jsonFactory.createNonBlockingByteBufferParser(), projectedSetters),
+                projector -> Flux.from(inputStream)
+                        .doOnNext(buffer -> {
+                            try {
+                                projector.feed(buffer);
+                            } finally {
+                                DataBufferUtils.release(buffer);
+                            }
+                        })
+                        .then(Mono.fromCallable(projector::finish)),
+                PageProjector::close);
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return DECODABLE_MIME_TYPES;
+    }
+
+    /**
+     * Incremental state machine that turns the parser's token stream into a projected page.
+     * One instance decodes exactly one response body.
+     */
+    private static final class PageProjector {
+
+        private enum Level { ROOT, RESPONSE, DATA, MOVIE, DONE }
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final Map<String, BiConsumer<MovieDto, String>> projectedSetters;
+
+        private final MovieApiResponseDto response = new MovieApiResponseDto();
+        private final List<MovieDto> movies = new ArrayList<>();
+
+        private Level level = Level.ROOT;
+        private String responseField;
+        private MovieDto movie;
+        private BiConsumer<MovieDto, String> movieFieldSetter;
+        private int skipDepth;
+
+        PageProjector(JsonParser parser, Map<String, BiConsumer<MovieDto, String>> projectedSetters) {
+            this.parser = parser;
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            this.projectedSetters = projectedSetters;
+        }
+
+        void feed(DataBuffer buffer) {
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    feeder.feedInput(iterator.next());
+                    drain();
+                }
+            } catch (IOException ex) {
+                throw new DecodingException("Malformed movie API response: " + ex.getMessage(), ex);
+            }
+        }
+
+        MovieApiResponseDto finish() {
+            try {
+                feeder.endOfInput();
+                drain();
+            } catch (IOException ex) {
+                throw new DecodingException("Malformed movie API response: " + ex.getMessage(), ex);
+            }
+            if (level != Level.DONE) {
+                throw new DecodingException("Incomplete movie API response");
+            }
+            response.setData(movies);
+            return response;
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ex) {
+                // Nothing left to release: the parser does not own the fed buffers.
+            }
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handle(token);
+            }
+        }
+
+        private void handle(JsonToken token) throws IOException {
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                return;
+            }
+
+            switch (level) {
+                case ROOT -> {
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new DecodingException("Movie API response must be a JSON object");
+                    }
+                    level = Level.RESPONSE;
+                }
+                case RESPONSE -> handleResponseToken(token);
+                case DATA -> handleDataToken(token);
+                case MOVIE -> handleMovieToken(token);
+                case DONE -> throw new DecodingException("Unexpected content after movie API response");
+            }
+        }
+
+        private void handleResponseToken(JsonToken token) throws IOException {
+            if (token == JsonToken.FIELD_NAME) {
+                responseField = parser.currentName();
+            } else if (token == JsonToken.END_OBJECT) {
+                level = Level.DONE;
+            } else if (token == JsonToken.START_ARRAY && "data".equals(responseField)) {
+                level = Level.DATA;
+            } else if (token.isStructStart()) {
+                skipDepth = 1;
+            } else if (token == JsonToken.VALUE_NUMBER_INT) {
+                switch (responseField) {
+                    case "page" -> response.setPage(parser.getIntValue());
+                    case "per_page" -> response.setPerPage(parser.getIntValue());
+                    case "total" -> response.setTotal(parser.getIntValue());
+                    case "total_pages" -> response.setTotalPages(parser.getIntValue());
+                    default -> { }
+                }
+            }
+        }
+
+        private void handleDataToken(JsonToken token) {
+            if (token == JsonToken.START_OBJECT) {
+                movie = new MovieDto();
+                level = Level.MOVIE;
+            } else if (token == JsonToken.END_ARRAY) {
+                level = Level.RESPONSE;
+            } else if (token.isStructStart()) {
+                skipDepth = 1;
+            }
+        }
+
+        private void handleMovieToken(JsonToken token) throws IOException {
+            if (token == JsonToken.FIELD_NAME) {
+                movieFieldSetter = projectedSetters.get(parser.currentName());
+            } else if (token == JsonToken.END_OBJECT) {
+                movies.add(movie);
+                movie = null;
+                level = Level.DATA;
+            } else if (token.isStructStart()) {
+                skipDepth = 1;
+            } else if (token == JsonToken.VALUE_STRING && movieFieldSetter != null) {
+                movieFieldSetter.accept(movie, parser.getText());
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.vallejos.moviedirector.client.impl;
+
+import com.vallejos.moviedirector.configuration.MovieApiResilienceProperties;
+import com.vallejos.moviedirector.exception.UpstreamUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Count-based circuit breaker for the page requests sent to one mirror of the movie API.
+ * <ul>
+ *     <li>CLOSED: requests pass; the outcomes of the last {@code slidingWindowSize} requests are recorded, and
+ *     once the share of failed or slow ones reaches the failure rate threshold the circuit opens.</li>
+ *     <li>OPEN: requests fail immediately with {@link UpstreamUnavailableException} until the open duration
+ *     has elapsed, so an outage costs no upstream timeouts.</li>
+ *     <li>HALF_OPEN: a limited number of probe requests pass; a successful probe closes the circuit with a
+ *     fresh window, a failed one opens it again.</li>
+ * </ul>
+ * Every upstream request is recorded, retries and hedges included. Only transient failures (5xx, timeouts,
+ * connection errors) count as failures; a 4xx answer, including 429 Too Many Requests, shows that the
+ * upstream is reachable. A request cancelled after the slow call threshold, by the page timeout or by a
+ * faster hedge, is recorded as a slow call.
+ */
+@Slf4j
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private enum Permission {
+        CALL, PROBE, REJECTED
+    }
+
+    private final String mirror;
+    private final MovieApiResilienceProperties.CircuitBreaker properties;
+    private final Clock clock;
+
+    private final boolean[] failures;
+    private int next;
+    private int recorded;
+    private int failed;
+
+    private State state = State.CLOSED;
+    private Instant openedAt;
+    private int probesInFlight;
+
+    CircuitBreaker(String mirror, MovieApiResilienceProperties.CircuitBreaker properties, Clock clock) {
+        this.mirror = mirror;
+        this.properties = properties;
+        this.clock = clock;
+        this.failures = new boolean[properties.getSlidingWindowSize()];
+    }
+
+    /**
+     * Guards a request with the circuit breaker.
+     *
+     * @param call The request; it is not subscribed while the circuit is open.
+     * @param <T>  The type of the response.
+     * @return The guarded request, failing with {@link UpstreamUnavailableException} while the circuit is open.
+     */
+    <T> Mono<T> protect(Mono<T> call) {
+        if (!properties.isEnabled()) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            Permission permission = acquirePermission();
+            if (permission == Permission.REJECTED) {
+                return Mono.error(new UpstreamUnavailableException("Movie API circuit breaker is open", retryAfter()));
+            }
+            long start = System.nanoTime();
+            return call
+                    .doOnSuccess(result -> onComplete(permission, isSlow(start)))
+                    .doOnError(error -> onComplete(permission, isFailure(error) || isSlow(start)))
+                    .doOnCancel(() -> onCancel(permission, isSlow(start)));
+        });
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return Whether requests are currently rejected without being sent.
+     */
+    synchronized boolean isRejecting() {
+        return properties.isEnabled() && state == State.OPEN && retryAfter().isPositive();
+    }
+
+    private static boolean isFailure(Throwable error) {
+        return PageFetchPolicy.isRetryable(error) && !UpstreamRateLimiter.isThrottled(error);
+    }
+
+    private boolean isSlow(long start) {
+        return System.nanoTime() - start > properties.getSlowCallThreshold().toNanos();
+    }
+
+    private synchronized Permission acquirePermission() {
+        if (state == State.OPEN) {
+            if (retryAfter().isPositive()) {
+                return Permission.REJECTED;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= properties.getHalfOpenProbes()) {
+                return Permission.REJECTED;
+            }
+            probesInFlight++;
+            return Permission.PROBE;
+        }
+        return Permission.CALL;
+    }
+
+    private synchronized void onComplete(Permission permission, boolean failure) {
+        if (permission == Permission.PROBE) {
+            probesInFlight--;
+            if (state == State.HALF_OPEN) {
+                transitionTo(failure ? State.OPEN : State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+
+        if (recorded == failures.length) {
+            failed -= failures[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        failed += failure ? 1 : 0;
+        next = (next + 1) % failures.length;
+
+        if (recorded >= properties.getMinimumCalls()
+                && failed * 100 >= properties.getFailureRateThreshold() * recorded) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private synchronized void onCancel(Permission permission, boolean slow) {
+        if (slow) {
+            onComplete(permission, true);
+        } else if (permission == Permission.PROBE) {
+            probesInFlight--;
+        }
+    }
+
+    private synchronized Duration retryAfter() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.between(clock.instant(), openedAt.plus(properties.getOpenDuration()));
+    }
+
+    private void transitionTo(State target) {
+        log.info("Movie API circuit breaker of {} {} -> {}", mirror, state, target);
+        state = target;
+        if (target == State.OPEN) {
+            openedAt = clock.instant();
+        } else if (target == State.HALF_OPEN) {
+            probesInFlight = 0;
+        } else {
+            next = 0;
+            recorded = 0;
+            failed = 0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.vallejos.moviedirector.client.impl;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring buffer of the most recent latencies, used to derive percentiles cheaply.
+ */
+final class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    /**
+     * @param capacity The number of most recent latencies kept.
+     */
+    LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * @param nanos A latency in nanoseconds.
+     */
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * @return The number of latencies currently in the window.
+     */
+    synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of the recorded latencies fall.
+     *
+     * @param quantile The quantile, between 0 and 1.
+     * @return The latency in nanoseconds, or 0 if nothing was recorded.
+     */
+    long percentile(double quantile) {
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, count);
+        }
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
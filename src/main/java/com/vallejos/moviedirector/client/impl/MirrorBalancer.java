@@ -0,0 +1,228 @@
+package com.vallejos.moviedirector.client.impl;
+
+import com.vallejos.moviedirector.configuration.MovieApiProperties;
+import com.vallejos.moviedirector.metrics.MovieApiMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Spreads upstream requests over the mirrors of the movie API.
+ * <ul>
+ *     <li>{@code LEAST_OUTSTANDING}: each request goes to the mirror with the fewest requests in flight.</li>
+ *     <li>{@code EWMA}: each request goes to the mirror with the lowest moving average latency multiplied by its
+ *     requests in flight plus one. The average jumps to any slower sample and decays towards faster ones, so a
+ *     mirror that slows down is avoided at once and tried again as it recovers.</li>
+ * </ul>
+ * Ties are broken in rotation. A mirror failing with transient errors (5xx, timeouts, connection errors) a number
+ * of times in a row is ejected for the ejection duration, unless it is the last one left in rotation. A
+ * re-admitted mirror starts with no latency history and is weighted like the fastest mirror until its first
+ * response.
+ * <p>
+ * Every mirror has its own {@link CircuitBreaker}. Mirrors whose circuit is open are skipped like ejected ones,
+ * so requests only fail fast once the circuits of all mirrors are open.
+ */
+@Slf4j
+final class MirrorBalancer {
+
+    private final MovieApiProperties.LoadBalancer properties;
+    private final List<Mirror> mirrors;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    MirrorBalancer(List<String> baseUrls, Function<String, WebClient> webClients,
+                   Function<String, CircuitBreaker> circuitBreakers, MovieApiProperties.LoadBalancer properties,
+                   MovieApiMetrics metrics, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        this.mirrors = baseUrls.stream()
+                .map(baseUrl -> new Mirror(baseUrl, webClients.apply(baseUrl), circuitBreakers.apply(baseUrl)))
+                .toList();
+        for (Mirror mirror : mirrors) {
+            metrics.registerMirror(mirror.baseUrl, mirror::outstanding, () -> mirror.isEjected() ? 1 : 0);
+            metrics.registerCircuitBreakerState(mirror.baseUrl, () -> mirror.circuitBreaker.state().ordinal());
+        }
+    }
+
+    /**
+     * Sends a request through the circuit breaker of the mirror selected at subscription time, tracking its
+     * latency and outcome.
+     *
+     * @param request Builds the request for the selected mirror, with its {@link Mirror#webClient()}.
+     * @param <T>     The type of the response.
+     * @return The request; every subscription selects a mirror again, so retries may go elsewhere.
+     */
+    <T> Mono<T> fetch(Function<Mirror, Mono<T>> request) {
+        return Mono.defer(() -> {
+            Mirror mirror = select();
+            return mirror.circuitBreaker.protect(Mono.defer(() -> {
+                long start = mirror.start();
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                return request.apply(mirror)
+                        .doOnError(failure::set)
+                        .doFinally(signal -> finish(mirror, start, signal, failure.get()));
+            }));
+        });
+    }
+
+    Mirror select() {
+        int size = mirrors.size();
+        int offset = Math.floorMod(rotation.getAndIncrement(), size);
+
+        double fastest = 0;
+        for (Mirror mirror : mirrors) {
+            double ewma = mirror.ewma();
+            if (ewma > 0 && (fastest == 0 || ewma < fastest)) {
+                fastest = ewma;
+            }
+        }
+        double unknownLatency = fastest > 0 ? fastest : 1;
+
+        Mirror best = null;
+        double bestCost = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Mirror mirror = mirrors.get((offset + i) % size);
+            if (mirror.isEjected() || mirror.circuitBreaker.isRejecting()) {
+                continue;
+            }
+            double cost = properties.getStrategy() == MovieApiProperties.LoadBalancer.Strategy.LEAST_OUTSTANDING
+                    ? mirror.outstanding()
+                    : mirror.cost(unknownLatency);
+            if (cost < bestCost) {
+                best = mirror;
+                bestCost = cost;
+            }
+        }
+        return best != null ? best : mirrors.get(offset);
+    }
+
+    private void finish(Mirror mirror, long start, SignalType signal, Throwable error) {
+        long now = nanoTime.getAsLong();
+        long latency = now - start;
+        boolean transientFailure = error != null
+                && PageFetchPolicy.isRetryable(error) && !UpstreamRateLimiter.isThrottled(error);
+
+        if (signal == SignalType.CANCEL) {
+            // Cancelled by the page timeout or a faster hedge: only tells that the mirror was at least this slow.
+            mirror.finish(now, latency, true, false);
+        } else if (transientFailure) {
+            if (mirror.finish(now, latency, false, true) && tryEject(mirror, now)) {
+                log.warn("Ejecting movie API mirror {} for {} after {} consecutive failures",
+                        mirror.baseUrl, properties.getEjectionDuration(), properties.getEjectionFailures());
+            }
+        } else {
+            mirror.finish(now, latency, false, false);
+        }
+    }
+
+    private synchronized boolean tryEject(Mirror candidate, long now) {
+        long inRotation = mirrors.stream().filter(mirror -> !mirror.isEjected()).count();
+        if (inRotation <= 1) {
+            return false;
+        }
+        candidate.eject(now + properties.getEjectionDuration().toNanos());
+        return true;
+    }
+
+    /**
+     * One mirror with its request accounting. Guarded by its own monitor.
+     */
+    final class Mirror {
+
+        private final String baseUrl;
+        private final WebClient webClient;
+        private final CircuitBreaker circuitBreaker;
+
+        private int outstanding;
+        private double ewmaNanos;
+        private long lastSampleAt;
+        private int consecutiveFailures;
+        private long ejectedUntil;
+        private boolean ejected;
+
+        private Mirror(String baseUrl, WebClient webClient, CircuitBreaker circuitBreaker) {
+            this.baseUrl = baseUrl;
+            this.webClient = webClient;
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        String baseUrl() {
+            return baseUrl;
+        }
+
+        WebClient webClient() {
+            return webClient;
+        }
+
+        synchronized int outstanding() {
+            return outstanding;
+        }
+
+        /**
+         * Whether the mirror is out of rotation, re-admitting it once its ejection has expired.
+         */
+        synchronized boolean isEjected() {
+            if (ejected && nanoTime.getAsLong() >= ejectedUntil) {
+                ejected = false;
+                ewmaNanos = 0;
+                log.info("Re-admitting movie API mirror {}", baseUrl);
+            }
+            return ejected;
+        }
+
+        private synchronized long start() {
+            outstanding++;
+            return nanoTime.getAsLong();
+        }
+
+        private synchronized double ewma() {
+            return ewmaNanos;
+        }
+
+        private synchronized double cost(double unknownLatency) {
+            return (ewmaNanos > 0 ? ewmaNanos : unknownLatency) * (outstanding + 1);
+        }
+
+        /**
+         * Records the end of a request.
+         *
+         * @return Whether the mirror has now failed often enough in a row to be ejected.
+         */
+        private synchronized boolean finish(long now, long latency, boolean cancelled, boolean failed) {
+            outstanding--;
+            if (failed) {
+                return ++consecutiveFailures >= properties.getEjectionFailures();
+            }
+            if (!cancelled) {
+                consecutiveFailures = 0;
+                sample(now, latency);
+            } else if (latency > ewmaNanos) {
+                sample(now, latency);
+            }
+            return false;
+        }
+
+        private void sample(long now, long latency) {
+            if (ewmaNanos == 0 || latency > ewmaNanos) {
+                ewmaNanos = latency;
+            } else {
+                double weight = Math.exp(-(double) (now - lastSampleAt) / properties.getEwmaDecay().toNanos());
+                ewmaNanos = ewmaNanos * weight + latency * (1 - weight);
+            }
+            lastSampleAt = now;
+        }
+
+        private synchronized void eject(long until) {
+            ejected = true;
+            ejectedUntil = until;
+            consecutiveFailures = 0;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.vallejos.moviedirector.client.impl;
+
+import com.vallejos.moviedirector.configuration.MovieApiResilienceProperties;
+import com.vallejos.moviedirector.metrics.MovieApiMetrics;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Per-page resilience applied to every upstream page request:
+ * <ol>
+ *     <li>each attempt waits for the shared {@link UpstreamRateLimiter} budget and is bounded by the page
+ *     timeout;</li>
+ *     <li>optionally, an attempt still pending after the hedge delay gets a duplicate request, and whichever
+ *     completes first wins while the other is cancelled;</li>
+ *     <li>5xx and 429 responses, timeouts and connection errors are retried with exponential backoff and jitter;
+ *     after a 429 the retry also waits for the pause the rate limiter derived from {@code Retry-After}.</li>
+ * </ol>
+ * The hedge delay tracks a percentile of recent successful page latencies, so duplicates are only sent for
+ * the slowest requests. Circuit breaking is per mirror and left to the {@link MirrorBalancer} sending the
+ * attempts, so that one failing mirror does not cut off the others.
+ */
+final class PageFetchPolicy {
+
+    private static final int LATENCY_WINDOW_SIZE = 256;
+
+    private final MovieApiResilienceProperties properties;
+    private final MovieApiMetrics metrics;
+    private final UpstreamRateLimiter rateLimiter;
+    private final LatencyWindow latencies = new LatencyWindow(LATENCY_WINDOW_SIZE);
+
+    PageFetchPolicy(MovieApiResilienceProperties properties, MovieApiMetrics metrics, UpstreamRateLimiter rateLimiter) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Applies the rate limit, timeout, hedging and retries to a page request.
+     *
+     * @param fetch The page request; every subscription sends a new request.
+     * @param <T>   The type of the fetched page.
+     * @return The resilient page request.
+     */
+    <T> Mono<T> apply(Mono<T> fetch) {
+        Mono<T> attempt = rateLimiter.protect(timed(fetch).timeout(properties.getPageTimeout()));
+        Mono<T> hedged = properties.getHedge().isEnabled() ? hedged(attempt) : attempt;
+        return hedged.retryWhen(retrySpec());
+    }
+
+    private <T> Mono<T> timed(Mono<T> fetch) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return fetch.doOnSuccess(result -> latencies.record(System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Races the attempt against a duplicate started after the hedge delay. The first signal wins, so an
+     * attempt failing fast is retried rather than waiting for the other one.
+     */
+    private <T> Mono<T> hedged(Mono<T> attempt) {
+        return Mono.defer(() -> {
+            Mono<T> hedge = Mono.delay(hedgeDelay())
+                    .then(Mono.defer(() -> {
+                        metrics.recordHedge();
+                        return attempt;
+                    }));
+            return Mono.firstWithSignal(attempt, hedge);
+        });
+    }
+
+    private Duration hedgeDelay() {
+        MovieApiResilienceProperties.Hedge hedge = properties.getHedge();
+        if (latencies.size() < hedge.getMinSamples()) {
+            return hedge.getMinDelay();
+        }
+        Duration percentile = Duration.ofNanos(latencies.percentile(hedge.getPercentile()));
+        return percentile.compareTo(hedge.getMinDelay()) > 0 ? percentile : hedge.getMinDelay();
+    }
+
+    private Retry retrySpec() {
+        MovieApiResilienceProperties.Retry retry = properties.getRetry();
+        return Retry.backoff(retry.getMaxRetries(), retry.getInitialBackoff())
+                .maxBackoff(retry.getMaxBackoff())
+                .jitter(retry.getJitter())
+                .filter(PageFetchPolicy::isRetryable)
+                .doBeforeRetry(signal -> metrics.recordRetry())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    /**
+     * Only transient failures are retried: 5xx and 429 responses, timeouts and connection errors.
+     */
+    static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError() || UpstreamRateLimiter.isThrottled(error);
+        }
+        return error instanceof TimeoutException || error instanceof WebClientRequestException;
+    }
+}
@@ -0,0 +1,115 @@
+package com.vallejos.moviedirector.client.impl;
+
+import com.vallejos.moviedirector.dto.MovieDto;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Builds and interprets the fingerprints that identify the content of an upstream page.
+ * <p>
+ * A fingerprint is prefixed with its kind, so that it can be sent back as the matching conditional
+ * request header: {@code etag:} values become {@code If-None-Match}, {@code last-modified:} values
+ * become {@code If-Modified-Since}. {@code sha256:} content hashes have no HTTP validator and are only
+ * compared locally.
+ * <p>
+ * An ETag identifies the content itself, so a mirror holding other content simply answers 200 to it.
+ * A Last-Modified date only means something to the mirror that sent it, as mirrors sync at different
+ * times: {@code last-modified:} fingerprints carry the base URL of their mirror and are only sent back
+ * to that mirror.
+ */
+final class PageFingerprints {
+
+    private static final String ETAG = "etag:";
+    private static final String LAST_MODIFIED = "last-modified:";
+    private static final String CONTENT_HASH = "sha256:";
+    private static final char MIRROR_SEPARATOR = '@';
+
+    private PageFingerprints() {
+    }
+
+    /**
+     * Derives the fingerprint of a page from its response headers, or from its content when the
+     * upstream sends neither an ETag nor a Last-Modified date.
+     *
+     * @param headers The response headers.
+     * @param movies  The decoded movies of the page.
+     * @param mirror  The base URL of the mirror that answered.
+     * @return The fingerprint of the page.
+     */
+    static String of(HttpHeaders headers, List<MovieDto> movies, String mirror) {
+        String etag = headers.getETag();
+        if (etag != null) {
+            return ETAG + etag;
+        }
+        long lastModified = headers.getLastModified();
+        if (lastModified >= 0) {
+            return LAST_MODIFIED + lastModified + MIRROR_SEPARATOR + mirror;
+        }
+        return ofContent(movies);
+    }
+
+    /**
+     * Hashes the decoded movie fields of a page.
+     *
+     * @param movies The decoded movies of the page.
+     * @return A {@code sha256:} fingerprint of the page content.
+     */
+    static String ofContent(List<MovieDto> movies) {
+        MessageDigest digest = sha256();
+        for (MovieDto movie : movies) {
+            update(digest, movie.getTitle());
+            update(digest, movie.getYear());
+            update(digest, movie.getRated());
+            update(digest, movie.getReleased());
+            update(digest, movie.getRuntime());
+            update(digest, movie.getGenre());
+            update(digest, movie.getDirector());
+            update(digest, movie.getWriter());
+            update(digest, movie.getActors());
+            digest.update((byte) '\n');
+        }
+        return CONTENT_HASH + HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Adds the conditional request header matching a previously seen fingerprint, if it has one that the
+     * mirror about to be asked can check.
+     *
+     * @param fingerprint The fingerprint last seen for the page, possibly {@code null}.
+     * @param mirror      The base URL of the mirror the request goes to.
+     * @param headers     The request headers to populate.
+     */
+    static void applyAsValidator(String fingerprint, String mirror, HttpHeaders headers) {
+        if (fingerprint == null) {
+            return;
+        }
+        if (fingerprint.startsWith(ETAG)) {
+            headers.setIfNoneMatch(fingerprint.substring(ETAG.length()));
+        } else if (fingerprint.startsWith(LAST_MODIFIED)) {
+            int separator = fingerprint.indexOf(MIRROR_SEPARATOR, LAST_MODIFIED.length());
+            if (separator > 0 && fingerprint.substring(separator + 1).equals(mirror)) {
+                headers.setIfModifiedSince(Long.parseLong(fingerprint.substring(LAST_MODIFIED.length(), separator)));
+            }
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.vallejos.moviedirector.client.impl;
+
+import com.vallejos.moviedirector.client.RequestPriority;
+import com.vallejos.moviedirector.configuration.MovieApiResilienceProperties;
+import com.vallejos.moviedirector.metrics.MovieApiMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide budget of upstream requests, shared by every crawl.
+ * <ul>
+ *     <li>A token bucket refilled at the current rate, holding at most {@code burst} tokens, paces the requests;
+ *     at most {@code maxConcurrent} of them are in flight at once.</li>
+ *     <li>Requests waiting for a token are served in FIFO order, foreground requests before background ones
+ *     (see {@link RequestPriority}).</li>
+ *     <li>A 429 Too Many Requests response pauses all requests for its {@code Retry-After}, or the configured
+ *     throttle pause, and multiplies the rate by the throttle decrease. Every successful request adds the
+ *     recovery step back, up to the configured rate.</li>
+ * </ul>
+ */
+@Slf4j
+final class UpstreamRateLimiter {
+
+    private enum State {
+        WAITING, GRANTED, RUNNING, DONE
+    }
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final MovieApiResilienceProperties.RateLimit properties;
+    private final MovieApiMetrics metrics;
+    private final LongSupplier nanoTime;
+    private final Scheduler scheduler;
+
+    private final ArrayDeque<Waiter> foreground = new ArrayDeque<>();
+    private final ArrayDeque<Waiter> background = new ArrayDeque<>();
+    private double rate;
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+    private int inFlight;
+    private boolean drainScheduled;
+
+    UpstreamRateLimiter(MovieApiResilienceProperties.RateLimit properties, MovieApiMetrics metrics) {
+        this(properties, metrics, System::nanoTime, Schedulers.parallel());
+    }
+
+    UpstreamRateLimiter(MovieApiResilienceProperties.RateLimit properties, MovieApiMetrics metrics,
+                        LongSupplier nanoTime, Scheduler scheduler) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.nanoTime = nanoTime;
+        this.scheduler = scheduler;
+        this.rate = properties.getRequestsPerSecond();
+        this.tokens = properties.getBurst();
+        this.refilledAt = nanoTime.getAsLong();
+        this.pausedUntil = refilledAt;
+        metrics.registerRateLimiter(this::rate, this::queued);
+    }
+
+    /**
+     * Sends a request once the budget allows it.
+     *
+     * @param call The request; every subscription sends a new one, and it is not subscribed until admitted.
+     * @param <T>  The type of the response.
+     * @return The paced request.
+     */
+    <T> Mono<T> protect(Mono<T> call) {
+        if (!properties.isEnabled()) {
+            return call;
+        }
+        return Mono.deferContextual(context -> {
+            RequestPriority priority = RequestPriority.of(context);
+            return Mono.<Waiter>create(sink -> enqueue(new Waiter(sink), priority))
+                    .flatMap(waiter -> {
+                        if (!waiter.state.compareAndSet(State.GRANTED, State.RUNNING)) {
+                            return Mono.empty();
+                        }
+                        AtomicReference<Throwable> failure = new AtomicReference<>();
+                        return call
+                                .doOnError(failure::set)
+                                .doFinally(signal -> release(failure.get(), signal == SignalType.ON_COMPLETE));
+                    });
+        });
+    }
+
+    synchronized double rate() {
+        return rate;
+    }
+
+    synchronized int queued() {
+        return foreground.size() + background.size();
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Checks whether a request failed because the upstream throttled it. Being throttled shows the upstream
+     * is up, so it does not count as a failure for the circuit breaker.
+     */
+    static boolean isThrottled(Throwable error) {
+        return error instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void enqueue(Waiter waiter, RequestPriority priority) {
+        waiter.sink.onCancel(() -> cancel(waiter));
+        synchronized (this) {
+            if (waiter.state.get() != State.WAITING) {
+                return;
+            }
+            (priority == RequestPriority.BACKGROUND ? background : foreground).addLast(waiter);
+        }
+        drain();
+    }
+
+    private void cancel(Waiter waiter) {
+        if (waiter.state.compareAndSet(State.WAITING, State.DONE)) {
+            synchronized (this) {
+                if (!foreground.remove(waiter)) {
+                    background.remove(waiter);
+                }
+            }
+        } else if (waiter.state.compareAndSet(State.GRANTED, State.DONE)) {
+            release(null, false);
+        }
+    }
+
+    /**
+     * Frees the slot of a completed request, adapting the rate to its outcome, and admits waiting requests.
+     *
+     * @param error     The error the request failed with, or {@code null}.
+     * @param succeeded Whether the request completed successfully.
+     */
+    private void release(Throwable error, boolean succeeded) {
+        boolean throttled = error != null && isThrottled(error);
+        synchronized (this) {
+            inFlight--;
+            if (throttled) {
+                long now = nanoTime.getAsLong();
+                refill(now);
+                tokens = 0;
+                pausedUntil = Math.max(pausedUntil, now + retryAfter(error).toNanos());
+                rate = Math.max(properties.getMinRequestsPerSecond(), rate * properties.getThrottleDecrease());
+            } else if (succeeded) {
+                rate = Math.min(properties.getRequestsPerSecond(), rate + properties.getRecoveryStep());
+            }
+        }
+        if (throttled) {
+            metrics.recordThrottled();
+            log.debug("Movie API throttled the request, lowering the request rate to {}/s", rate());
+        }
+        drain();
+    }
+
+    private void drain() {
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                ArrayDeque<Waiter> queue = foreground.isEmpty() ? background : foreground;
+                if (queue.isEmpty() || inFlight >= properties.getMaxConcurrent()) {
+                    return;
+                }
+                long now = nanoTime.getAsLong();
+                refill(now);
+                long wait = now < pausedUntil
+                        ? pausedUntil - now
+                        : tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / rate * NANOS_PER_SECOND);
+                if (wait > 0) {
+                    scheduleDrain(wait);
+                    return;
+                }
+                next = queue.pollFirst();
+                if (!next.state.compareAndSet(State.WAITING, State.GRANTED)) {
+                    continue;
+                }
+                tokens -= 1;
+                inFlight++;
+            }
+            next.sink.success(next);
+        }
+    }
+
+    private void refill(long now) {
+        if (now > refilledAt) {
+            tokens = Math.min(properties.getBurst(), tokens + (now - refilledAt) / NANOS_PER_SECOND * rate);
+            refilledAt = now;
+        }
+    }
+
+    /**
+     * Wakes the queue up once the next token is available. Called with the lock held.
+     */
+    private void scheduleDrain(long delayNanos) {
+        if (!drainScheduled) {
+            drainScheduled = true;
+            scheduler.schedule(() -> {
+                synchronized (this) {
+                    drainScheduled = false;
+                }
+                drain();
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reads {@code Retry-After} as delay seconds or as an HTTP date, falling back to the throttle pause.
+     */
+    private Duration retryAfter(Throwable error) {
+        String value = ((WebClientResponseException) error).getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (value != null) {
+            try {
+                return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+            } catch (NumberFormatException notSeconds) {
+                try {
+                    Duration untilDate = Duration.between(ZonedDateTime.now(),
+                            ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                    return untilDate.isNegative() ? Duration.ZERO : untilDate;
+                } catch (DateTimeParseException notDate) {
+                    log.debug("Ignoring unparseable Retry-After header: {}", value);
+                }
+            }
+        }
+        return properties.getThrottlePause();
+    }
+
+    private static final class Waiter {
+
+        private final MonoSink<Waiter> sink;
+        private final AtomicReference<State> state = new AtomicReference<>(State.WAITING);
+
+        private Waiter(MonoSink<Waiter> sink) {
+            this.sink = sink;
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package com.vallejos.moviedirector.client.impl;
 
 import com.vallejos.moviedirector.client.MovieApiClient;
+import com.vallejos.moviedirector.client.codec.MovieApiResponseProjectionDecoder;
 import com.vallejos.moviedirector.configuration.MovieApiProperties;
+import com.vallejos.moviedirector.configuration.MovieApiResilienceProperties;
 import com.vallejos.moviedirector.dto.MovieApiResponseDto;
 import com.vallejos.moviedirector.dto.MovieDto;
+import com.vallejos.moviedirector.dto.MoviePageDto;
+import com.vallejos.moviedirector.metrics.MovieApiMetrics;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Clock;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
 /**
  * Implementation of {@link MovieApiClient} that uses Spring's {@link WebClient}
  * to fetch movie data from the external API.
@@ -18,41 +33,151 @@ import reactor.core.publisher.Mono;
 @Qualifier("webClientMovieApiClient")
 public class WebClientMovieApiClient implements MovieApiClient {
 
-    private final WebClient webClient;
+    private final MirrorBalancer mirrors;
+    private final MovieApiProperties properties;
+    private final MovieApiMetrics metrics;
+    private final PageFetchPolicy pageFetchPolicy;
 
     /**
      * Constructs the client with a pre-configured WebClient.Builder and API properties.
+     * When enabled, the {@link MovieApiResponseProjectionDecoder} is registered so that pages are
+     * decoded straight from the network buffers, keeping only the configured movie fields.
+     * One {@link WebClient} and one {@link CircuitBreaker} are built for the base URL and for every configured
+     * mirror; page requests are spread over them by a {@link MirrorBalancer}.
      *
      * @param webClientBuilder The configured WebClient.Builder, typically provided by a @Bean.
-     * @param properties       The configuration properties containing the base URL for the movie API.
+     * @param properties       The configuration properties containing the base URL and mirrors of the movie API.
+     * @param resilience       The per-page timeout, retry, hedging, circuit breaker and rate limit configuration.
+     * @param metrics          The metrics recorded for every page fetch.
      */
-    public WebClientMovieApiClient(WebClient.Builder webClientBuilder, MovieApiProperties properties) {
-        this.webClient = webClientBuilder.baseUrl(properties.getBaseUrl()).build();
+    public WebClientMovieApiClient(WebClient.Builder webClientBuilder, MovieApiProperties properties,
+                                   MovieApiResilienceProperties resilience, MovieApiMetrics metrics) {
+        WebClient.Builder builder = webClientBuilder;
+        if (properties.isProjectionDecoderEnabled()) {
+            MovieApiResponseProjectionDecoder decoder = new MovieApiResponseProjectionDecoder(properties.getProjectedFields());
+            builder = builder.codecs(codecs -> codecs.customCodecs().register(decoder));
+        }
+        WebClient.Builder configured = builder;
+        this.mirrors = new MirrorBalancer(baseUrlsOf(properties), baseUrl -> configured.baseUrl(baseUrl).build(),
+                baseUrl -> new CircuitBreaker(baseUrl, resilience.getCircuitBreaker(), Clock.systemUTC()),
+                properties.getLoadBalancer(), metrics, System::nanoTime);
+        this.properties = properties;
+        this.metrics = metrics;
+        this.pageFetchPolicy = new PageFetchPolicy(resilience, metrics,
+                new UpstreamRateLimiter(resilience.getRateLimit(), metrics));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The first page is fetched to learn {@code total_pages}; the remaining pages are then requested with
+     * at most {@code movie.api.page-concurrency} requests in flight. A concurrency of 1 walks the pages
+     * one after another.
+     */
     @Override
     public Flux<MovieDto> fetchAllMovies() {
-        return fetchPage(1)
-                .expand(response -> {
-                    if (response.getPage() < response.getTotalPages()) {
-                        return fetchPage(response.getPage() + 1);
-                    } else {
-                        return Mono.empty();
-                    }
-                })
+        return crawlPages(this::fetchPage, MovieApiResponseDto::getTotalPages)
                 .flatMap(response -> Flux.fromIterable(response.getData()));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Known ETags are sent as {@code If-None-Match}, and known Last-Modified dates as {@code If-Modified-Since}
+     * to the mirror that sent them; pages without an HTTP validator are fingerprinted by a hash of their
+     * decoded content.
+     */
+    @Override
+    public Flux<MoviePageDto> fetchAllPages(Map<Integer, String> knownFingerprints) {
+        int knownTotalPages = knownFingerprints.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+
+        return crawlPages(page -> fetchPageConditionally(page, knownFingerprints.get(page), knownTotalPages),
+                MoviePageDto::getTotalPages);
+    }
+
+    /**
+     * Fetches the first page and then fans out over pages 2..{@code total_pages}.
+     *
+     * @param fetchPage    Fetches a single page by number.
+     * @param totalPagesOf Reads the total number of pages from the first page.
+     * @param <T>          The type of a fetched page.
+     * @return A {@link Flux} emitting the first page followed by the remaining pages,
+     *         in page order if {@code movie.api.preserve-page-order} is enabled.
+     */
+    private <T> Flux<T> crawlPages(IntFunction<Mono<T>> fetchPage, ToIntFunction<T> totalPagesOf) {
+        int concurrency = Math.max(1, properties.getPageConcurrency());
+
+        return fetchPage.apply(1)
+                .flatMapMany(first -> {
+                    Flux<Integer> remainingPages = Flux.range(2, Math.max(0, totalPagesOf.applyAsInt(first) - 1));
+                    Flux<T> rest = properties.isPreservePageOrder() || concurrency == 1
+                            ? remainingPages.flatMapSequential(fetchPage::apply, concurrency)
+                            : remainingPages.flatMap(fetchPage::apply, concurrency);
+                    return Flux.concat(Mono.just(first), rest);
+                });
+    }
+
     /**
      * Fetches a single page of movie results from the external API.
+     * Every attempt waits for the process-wide request budget, goes to a mirror whose circuit breaker is not
+     * open, failing right away once all of them are, and is bounded by the page timeout; slow attempts are
+     * optionally hedged and transient failures, 429 responses included, are retried.
      *
      * @param page The page number to fetch.
      * @return A {@link Mono} emitting a {@link MovieApiResponseDto} for the requested page.
      */
     private Mono<MovieApiResponseDto> fetchPage(int page) {
-        return webClient.get()
+        Mono<MovieApiResponseDto> fetch = mirrors.fetch(mirror -> mirror.webClient().get()
                 .uri(uriBuilder -> uriBuilder.queryParam("page", page).build())
                 .retrieve()
-                .bodyToMono(MovieApiResponseDto.class);
+                .bodyToMono(MovieApiResponseDto.class));
+
+        return metrics.recordPageFetch(page, pageFetchPolicy.apply(fetch), response -> MovieApiMetrics.OUTCOME_SUCCESS);
+    }
+
+    /**
+     * Fetches a single page, sending the known fingerprint as a conditional request validator.
+     * The rate limit, circuit breaker, timeouts, hedging and retries apply as in {@link #fetchPage(int)}.
+     *
+     * @param page             The page number to fetch.
+     * @param knownFingerprint The fingerprint last seen for the page, or {@code null}.
+     * @param knownTotalPages  The page count to report when the upstream answers 304 Not Modified.
+     * @return A {@link Mono} emitting the fingerprinted page.
+     */
+    private Mono<MoviePageDto> fetchPageConditionally(int page, String knownFingerprint, int knownTotalPages) {
+        Mono<MoviePageDto> fetch = mirrors.fetch(mirror -> mirror.webClient().get()
+                .uri(uriBuilder -> uriBuilder.queryParam("page", page).build())
+                .headers(headers -> PageFingerprints.applyAsValidator(knownFingerprint, mirror.baseUrl(), headers))
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                        return response.releaseBody()
+                                .thenReturn(MoviePageDto.notModified(page, knownTotalPages, knownFingerprint));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.<MoviePageDto>createError();
+                    }
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    return response.bodyToMono(MovieApiResponseDto.class)
+                            .map(body -> new MoviePageDto(page, body.getTotalPages(),
+                                    PageFingerprints.of(headers, body.getData(), mirror.baseUrl()), false,
+                                    body.getData()));
+                }));
+
+        return metrics.recordPageFetch(page, pageFetchPolicy.apply(fetch), fetched -> fetched.isNotModified()
+                ? MovieApiMetrics.OUTCOME_NOT_MODIFIED
+                : MovieApiMetrics.OUTCOME_SUCCESS);
+    }
+
+    /**
+     * Returns the base URL followed by the mirrors, without blanks or duplicates.
+     */
+    private static List<String> baseUrlsOf(MovieApiProperties properties) {
+        Set<String> baseUrls = new LinkedHashSet<>();
+        baseUrls.add(properties.getBaseUrl());
+        if (properties.getMirrors() != null) {
+            baseUrls.addAll(properties.getMirrors());
+        }
+        baseUrls.removeIf(baseUrl -> baseUrl == null || baseUrl.isBlank());
+        return baseUrls.isEmpty() ? Collections.singletonList(properties.getBaseUrl()) : List.copyOf(baseUrls);
     }
 }
@@ -0,0 +1,81 @@
+package com.vallejos.moviedirector.configuration;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "director.admission")
+@Data
+@Validated
+public class DirectorAdmissionProperties {
+
+    /**
+     * Whether requests to the director endpoints pass through the adaptive concurrency limiter.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Concurrency limit used until enough latencies have been observed to adapt it.
+     */
+    @Min(1)
+    private int initialLimit = 20;
+
+    /**
+     * Lower bound of the adaptive concurrency limit.
+     */
+    @Min(1)
+    private int minLimit = 4;
+
+    /**
+     * Upper bound of the adaptive concurrency limit.
+     */
+    @Min(1)
+    private int maxLimit = 200;
+
+    /**
+     * Maximum number of requests waiting for a slot once the limit is reached; further requests are
+     * rejected right away. 0 rejects every request above the limit.
+     */
+    @Min(0)
+    private int maxQueueSize = 50;
+
+    /**
+     * How long a queued request waits for a slot before it is rejected.
+     */
+    @NotNull
+    private Duration maxQueueWait = Duration.ofMillis(500);
+
+    /**
+     * Latency increase over the long-term average that is tolerated before the limit shrinks,
+     * e.g. 1.5 lets requests become 50% slower.
+     */
+    @DecimalMin("1.0")
+    private double rttTolerance = 1.5;
+
+    /**
+     * Weight of each new limit estimate; lower values adapt more slowly but more steadily.
+     */
+    @DecimalMin("0.01")
+    @DecimalMax("1.0")
+    private double smoothing = 0.2;
+
+    /**
+     * Number of requests the long-term average latency is smoothed over.
+     */
+    @Min(1)
+    private int longWindow = 100;
+
+    /**
+     * {@code Retry-After} sent with rejected requests.
+     */
+    @NotNull
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,23 @@
+package com.vallejos.moviedirector.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "director.cache")
+@Data
+@Validated
+public class DirectorCacheProperties {
+
+    /**
+     * How long a director snapshot is considered fresh. Once it expires, requests keep being served
+     * from the stale snapshot while a single background refresh replaces it.
+     * A zero or negative value disables the cache and every request crawls the upstream.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+}
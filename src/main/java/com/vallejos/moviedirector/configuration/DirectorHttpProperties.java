@@ -0,0 +1,28 @@
+package com.vallejos.moviedirector.configuration;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+@Component
+@ConfigurationProperties(prefix = "director.http")
+@Data
+@Validated
+public class DirectorHttpProperties {
+
+    /**
+     * {@code Cache-Control} header of the director GET responses. The default lets clients and proxies
+     * store responses but revalidate them with their ETag before every reuse.
+     */
+    @NotBlank
+    private String cacheControl = "no-cache";
+
+    /**
+     * Upper bound of the JSON-encoded director lists kept for reuse, one per threshold of the current
+     * snapshot version. Zero disables the cache and every response is serialized again.
+     */
+    private DataSize encodedCacheSize = DataSize.ofMegabytes(4);
+}
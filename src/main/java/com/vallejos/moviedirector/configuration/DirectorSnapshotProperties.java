@@ -0,0 +1,26 @@
+package com.vallejos.moviedirector.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+
+@Component
+@ConfigurationProperties(prefix = "director.snapshot")
+@Data
+@Validated
+public class DirectorSnapshotProperties {
+
+    /**
+     * Whether the director snapshot is persisted on every refresh and restored on startup.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Location of the binary snapshot file.
+     */
+    private Path file = Path.of("director-snapshot.bin");
+
+}
@@ -0,0 +1,108 @@
+package com.vallejos.moviedirector.configuration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@ConfigurationProperties(prefix = "movie.api.http")
+@Data
+@Validated
+public class MovieApiHttpProperties {
+
+    /**
+     * Maximum time to establish a TCP connection to the upstream.
+     */
+    @NotNull
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Maximum time between sending a request and receiving the response headers.
+     */
+    @NotNull
+    private Duration responseTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Protocols offered to the upstream. {@code H2} is negotiated through ALPN over TLS and falls back to
+     * {@code HTTP11}; {@code H2C} speaks cleartext HTTP/2 and, together with {@code HTTP11}, upgrades to it.
+     * Over HTTP/2 concurrent page fetches are multiplexed as streams of a few connections.
+     */
+    @NotEmpty
+    private Set<HttpProtocol> protocols = new LinkedHashSet<>(List.of(HttpProtocol.HTTP11, HttpProtocol.H2));
+
+    /**
+     * Whether TCP keepalive probes are enabled on upstream connections.
+     */
+    private boolean tcpKeepAlive = true;
+
+    /**
+     * Connection pool shared by all upstream requests.
+     */
+    @Valid
+    private Pool pool = new Pool();
+
+    @Data
+    public static class Pool {
+
+        /**
+         * Name of the pool, used as the tag of its metrics.
+         */
+        @NotEmpty
+        private String name = "movie-api";
+
+        /**
+         * Maximum number of connections kept open to the upstream. It should be at least
+         * {@code movie.api.page-concurrency} times the number of concurrent crawls.
+         */
+        @Min(1)
+        private int maxConnections = 50;
+
+        /**
+         * Maximum number of requests waiting for a connection; -1 for no limit.
+         */
+        @Min(-1)
+        private int pendingAcquireMaxCount = 500;
+
+        /**
+         * Maximum time a request waits for a connection before failing.
+         */
+        @NotNull
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Idle time after which a connection is closed. It should stay below the upstream's own idle timeout,
+         * so requests are not sent on connections the upstream is about to close.
+         */
+        @NotNull
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * Maximum lifetime of a connection, after which it is closed once released.
+         */
+        @NotNull
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * Interval at which idle and expired connections are evicted in the background; zero evicts
+         * them only when they are acquired.
+         */
+        @NotNull
+        private Duration evictInBackground = Duration.ofSeconds(30);
+
+        /**
+         * Whether the pool publishes its active, idle and pending connection gauges to Micrometer.
+         */
+        private boolean metricsEnabled = true;
+    }
+}
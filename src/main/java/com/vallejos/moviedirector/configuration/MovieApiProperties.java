@@ -1,10 +1,19 @@
 package com.vallejos.moviedirector.configuration;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 @Component
 @ConfigurationProperties(prefix = "movie.api")
 @Data
@@ -16,4 +25,79 @@ public class MovieApiProperties {
      */
     private String baseUrl;
 
+    /**
+     * Base URLs of read replicas or caching mirrors of the movie API. Page requests are spread over
+     * {@link #baseUrl} and these mirrors.
+     */
+    private List<String> mirrors = new ArrayList<>();
+
+    /**
+     * Selection of the mirror each page request is sent to.
+     */
+    @Valid
+    private LoadBalancer loadBalancer = new LoadBalancer();
+
+    /**
+     * Maximum number of pages fetched concurrently once the first page has reported {@code total_pages}.
+     * A value of 1 keeps the sequential page-by-page crawl.
+     */
+    @Min(1)
+    private int pageConcurrency = 1;
+
+    /**
+     * Whether movies from concurrently fetched pages are emitted in page order.
+     * When disabled, each page is emitted as soon as it arrives.
+     */
+    private boolean preservePageOrder = true;
+
+    /**
+     * Whether upstream pages are decoded with the token-level projection decoder, which only
+     * materializes the page metadata and the {@link #projectedFields} of each movie.
+     */
+    private boolean projectionDecoderEnabled = true;
+
+    /**
+     * JSON names of the movie fields kept by the projection decoder. All other fields are skipped. The defaults
+     * are the fields encoded into the columnar movie store.
+     */
+    private Set<String> projectedFields = new LinkedHashSet<>(
+            List.of("Director", "Year", "Rated", "Released", "Runtime", "Genre"));
+
+    @Data
+    public static class LoadBalancer {
+
+        public enum Strategy {
+            /**
+             * Sends each request to the mirror with the fewest requests in flight.
+             */
+            LEAST_OUTSTANDING,
+            /**
+             * Sends each request to the mirror with the lowest peak-sensitive moving average latency,
+             * weighted by its requests in flight.
+             */
+            EWMA
+        }
+
+        @NotNull
+        private Strategy strategy = Strategy.EWMA;
+
+        /**
+         * Time constant of the moving average latency: older samples lose weight exponentially with their age.
+         */
+        @NotNull
+        private Duration ewmaDecay = Duration.ofSeconds(10);
+
+        /**
+         * Consecutive transient failures (5xx, timeouts, connection errors) after which a mirror is ejected.
+         * The last mirror in rotation is never ejected.
+         */
+        @Min(1)
+        private int ejectionFailures = 5;
+
+        /**
+         * How long an ejected mirror receives no requests before it is re-admitted.
+         */
+        @NotNull
+        private Duration ejectionDuration = Duration.ofSeconds(30);
+    }
 }
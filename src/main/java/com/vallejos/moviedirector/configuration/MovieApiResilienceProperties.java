@@ -0,0 +1,211 @@
+package com.vallejos.moviedirector.configuration;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "movie.api.resilience")
+@Data
+@Validated
+public class MovieApiResilienceProperties {
+
+    /**
+     * Maximum duration of a single page request, tighter than the client-wide response timeout.
+     * A request that times out is retried like a 5xx response.
+     */
+    @NotNull
+    private Duration pageTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Retries of failed page requests.
+     */
+    @Valid
+    private Retry retry = new Retry();
+
+    /**
+     * Hedging of slow page requests.
+     */
+    @Valid
+    private Hedge hedge = new Hedge();
+
+    /**
+     * Circuit breaker around all upstream page requests.
+     */
+    @Valid
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * Process-wide budget of upstream requests shared by all crawls.
+     */
+    @Valid
+    private RateLimit rateLimit = new RateLimit();
+
+    @Data
+    public static class Retry {
+
+        /**
+         * Maximum number of retries per page after 5xx responses, timeouts and connection errors; 0 disables retries.
+         */
+        @Min(0)
+        private int maxRetries = 2;
+
+        /**
+         * Backoff before the first retry, doubled on every further retry.
+         */
+        @NotNull
+        private Duration initialBackoff = Duration.ofMillis(100);
+
+        /**
+         * Upper bound of the backoff between two retries.
+         */
+        @NotNull
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Random jitter applied to each backoff, as a fraction of it.
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double jitter = 0.5;
+    }
+
+    @Data
+    public static class Hedge {
+
+        /**
+         * Whether a duplicate request is sent for a page whose first request is still pending after the hedge delay.
+         * The first response to arrive is kept and the other request is cancelled.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Percentile of recent successful page latencies used as the hedge delay, so only the slowest
+         * requests get a duplicate.
+         */
+        @DecimalMin("0.5")
+        @DecimalMax("1.0")
+        private double percentile = 0.95;
+
+        /**
+         * Lower bound of the hedge delay, also used until enough latencies have been observed.
+         */
+        @NotNull
+        private Duration minDelay = Duration.ofMillis(50);
+
+        /**
+         * Number of observed latencies required before the percentile is used.
+         */
+        @Min(1)
+        private int minSamples = 20;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+
+        /**
+         * Whether the page requests of every mirror are guarded by a circuit breaker of its own.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of most recent page requests the failure rate is computed over.
+         */
+        @Min(1)
+        private int slidingWindowSize = 20;
+
+        /**
+         * Number of recorded page requests required before the circuit can open.
+         */
+        @Min(1)
+        private int minimumCalls = 10;
+
+        /**
+         * Percentage of failed or slow page requests in the window at which the circuit opens.
+         */
+        @Min(1)
+        @Max(100)
+        private int failureRateThreshold = 50;
+
+        /**
+         * Upstream requests taking longer than this count as failures, including those cancelled by the page
+         * timeout, which should therefore be longer. Time spent waiting for the shared rate limit is not
+         * included, so being paced or throttled never opens the circuit.
+         */
+        @NotNull
+        private Duration slowCallThreshold = Duration.ofSeconds(2);
+
+        /**
+         * How long the circuit stays open, rejecting page requests, before a probe request is let through.
+         */
+        @NotNull
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * Number of concurrent probe requests allowed while half-open.
+         */
+        @Min(1)
+        private int halfOpenProbes = 1;
+    }
+
+    @Data
+    public static class RateLimit {
+
+        /**
+         * Whether every upstream request, retries and hedges included, takes a token from the shared budget.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Sustained rate of upstream requests per second while the upstream does not throttle.
+         */
+        @DecimalMin("0.1")
+        private double requestsPerSecond = 50;
+
+        /**
+         * Number of requests that may be sent back to back after an idle period.
+         */
+        @Min(1)
+        private int burst = 10;
+
+        /**
+         * Maximum number of upstream requests in flight across all crawls.
+         */
+        @Min(1)
+        private int maxConcurrent = 16;
+
+        /**
+         * Lower bound of the rate after repeated 429 responses.
+         */
+        @DecimalMin("0.1")
+        private double minRequestsPerSecond = 1;
+
+        /**
+         * Factor the rate is multiplied by on every 429 response.
+         */
+        @DecimalMin("0.1")
+        @DecimalMax("1.0")
+        private double throttleDecrease = 0.5;
+
+        /**
+         * Requests per second added back to the rate for every successful request, until the configured rate is reached.
+         */
+        @DecimalMin("0.0")
+        private double recoveryStep = 0.5;
+
+        /**
+         * Pause of all upstream requests after a 429 response without a usable {@code Retry-After} header.
+         */
+        @NotNull
+        private Duration throttlePause = Duration.ofSeconds(1);
+    }
+}
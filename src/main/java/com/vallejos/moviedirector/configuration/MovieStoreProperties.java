@@ -0,0 +1,25 @@
+package com.vallejos.moviedirector.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+@Component
+@ConfigurationProperties(prefix = "movie.store")
+@Data
+@Validated
+public class MovieStoreProperties {
+
+    /**
+     * Whether every refresh keeps the movie catalog in a columnar, typed in-memory table alongside the
+     * director counts. When disabled only the counts are kept.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether the columns of the movie table are stored in direct buffers outside the Java heap.
+     */
+    private boolean offHeap = false;
+
+}
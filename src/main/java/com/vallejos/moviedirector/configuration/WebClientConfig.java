@@ -5,9 +5,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
-
-import java.time.Duration;
+import reactor.netty.resources.ConnectionProvider;
 
 /**
  * Configuration class for {@link WebClient}.
@@ -16,23 +16,49 @@ import java.time.Duration;
 @Configuration
 public class WebClientConfig {
 
+    /**
+     * Creates the named connection pool used for upstream requests, sized and evicted according to
+     * {@link MovieApiHttpProperties.Pool}.
+     *
+     * @param properties The upstream transport configuration.
+     * @return The connection provider, disposed together with the application context.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider movieApiConnectionProvider(MovieApiHttpProperties properties) {
+        MovieApiHttpProperties.Pool pool = properties.getPool();
+        return ConnectionProvider.builder(pool.getName())
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(pool.isMetricsEnabled())
+                .build();
+    }
+
     /**
      * Creates a pre-configured {@link WebClient.Builder} bean that can be injected
      * across the application to create customized {@link WebClient} instances.
      * <p>
      * This configuration includes:
      * <ul>
-     *     <li>A 10-second response timeout.</li>
-     *     <li>A 5-second connection timeout.</li>
+     *     <li>The connection and response timeouts.</li>
+     *     <li>The named upstream connection pool.</li>
+     *     <li>The HTTP protocols offered (HTTP/1.1, h2, h2c) and TCP keepalive.</li>
      * </ul>
      *
+     * @param properties         The upstream transport configuration.
+     * @param connectionProvider The upstream connection pool.
      * @return A configured {@link WebClient.Builder} instance.
      */
     @Bean
-    public WebClient.Builder webClientBuilder() {
-        HttpClient httpClient = HttpClient.create()
-                .responseTimeout(Duration.ofSeconds(10))
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000);
+    public WebClient.Builder webClientBuilder(MovieApiHttpProperties properties, ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .protocol(properties.getProtocols().toArray(HttpProtocol[]::new))
+                .responseTimeout(properties.getResponseTimeout())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(properties.getConnectTimeout().toMillis()))
+                .option(ChannelOption.SO_KEEPALIVE, properties.isTcpKeepAlive());
 
         return WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(httpClient));
@@ -1,6 +1,13 @@
 package com.vallejos.moviedirector.controller;
 
+import com.vallejos.moviedirector.dto.DirectorBatchRequestDto;
+import com.vallejos.moviedirector.dto.DirectorBatchResponseDto;
+import com.vallejos.moviedirector.dto.DirectorFilterDto;
+import com.vallejos.moviedirector.dto.DirectorHistogramDto;
 import com.vallejos.moviedirector.dto.DirectorResponseDto;
+import com.vallejos.moviedirector.dto.DirectorStreamRecordDto;
+import com.vallejos.moviedirector.dto.TopDirectorsResponseDto;
+import com.vallejos.moviedirector.service.AdaptiveConcurrencyLimiter;
 import com.vallejos.moviedirector.service.DirectorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -8,10 +15,20 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -24,27 +41,100 @@ import reactor.core.publisher.Mono;
 public class DirectorController {
 
     private final DirectorService directorService;
+    private final SnapshotResponses snapshotResponses;
+    private final AdaptiveConcurrencyLimiter admissionLimiter;
 
     /**
      * Constructs the controller and injects the required service.
      *
-     * @param directorService The service responsible for the business logic.
+     * @param directorService   The service responsible for the business logic.
+     * @param snapshotResponses Adds validators and freshness headers to the responses.
+     * @param admissionLimiter  Limits the number of concurrent requests and sheds the excess.
      */
-    public DirectorController(DirectorService directorService) {
+    public DirectorController(DirectorService directorService, SnapshotResponses snapshotResponses,
+                              AdaptiveConcurrencyLimiter admissionLimiter) {
         this.directorService = directorService;
+        this.snapshotResponses = snapshotResponses;
+        this.admissionLimiter = admissionLimiter;
     }
 
 
     @GetMapping("/directors")
     @Operation(summary = "Get directors with movie count above threshold",
-            description = "Returns a list of directors who have directed more movies than the specified threshold.")
+            description = "Returns a list of directors who have directed more movies than the specified threshold. "
+                    + "Optional filters (genre, year range, rating, runtime range) restrict the movies counted; "
+                    + "they are answered from bitmap indexes built once per data version. "
+                    + "The JSON body is encoded once per threshold, filter and data version and reused afterwards.")
     @ApiResponse(responseCode = "200", description = "Successful operation",
             content = @Content(schema = @Schema(implementation = DirectorResponseDto.class)))
+    @ApiResponse(responseCode = "304", description = "The data matching If-None-Match has not changed")
+    @ApiResponse(responseCode = "400", description = "Invalid threshold or filter value")
+    @ApiResponse(responseCode = "503", description = "Too many concurrent requests; retry after Retry-After")
+    public Mono<ResponseEntity<DataBuffer>> getDirectors(
+            @Parameter(description = "Threshold for number of movies directed")
+            @RequestParam(name = "threshold") String thresholdStr,
+            @ParameterObject DirectorFilterDto filter,
+            @RequestHeader HttpHeaders requestHeaders) {
+
+        return admissionLimiter.protect(directorService.getDirectorsWithMoreMoviesThan(thresholdStr, filter)
+                .map(result -> snapshotResponses.conditionalEncoded(result, requestHeaders)));
+    }
+
+    @GetMapping(value = "/directors", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Stream directors with movie count above threshold",
+            description = "Selected with Accept: application/x-ndjson or text/event-stream. Emits one record per "
+                    + "qualifying director as soon as it is known, followed by a summary record with the sorted list.")
+    @ApiResponse(responseCode = "200", description = "Successful operation",
+            content = @Content(schema = @Schema(implementation = DirectorStreamRecordDto.class)))
     @ApiResponse(responseCode = "400", description = "Invalid threshold value")
-    public Mono<DirectorResponseDto> getDirectors(
+    public Flux<DirectorStreamRecordDto> streamDirectors(
             @Parameter(description = "Threshold for number of movies directed")
             @RequestParam(name = "threshold") String thresholdStr) {
 
-        return directorService.getDirectorsWithMoreMoviesThan(thresholdStr);
+        return directorService.streamDirectorsWithMoreMoviesThan(thresholdStr);
+    }
+
+    @PostMapping("/directors/batch")
+    @Operation(summary = "Get directors above several thresholds at once",
+            description = "Answers every threshold from the same aggregated counts. Results are positions into a "
+                    + "shared, alphabetically sorted list of director names.")
+    @ApiResponse(responseCode = "200", description = "Successful operation",
+            content = @Content(schema = @Schema(implementation = DirectorBatchResponseDto.class)))
+    @ApiResponse(responseCode = "400", description = "Missing, empty or invalid thresholds")
+    @ApiResponse(responseCode = "503", description = "Too many concurrent requests; retry after Retry-After")
+    public Mono<ResponseEntity<DirectorBatchResponseDto>> getDirectorsBatch(
+            @Valid @RequestBody DirectorBatchRequestDto request) {
+        return admissionLimiter.protect(directorService.getDirectorsForThresholds(request.getThresholds())
+                .map(snapshotResponses::unconditional));
+    }
+
+    @GetMapping("/directors/top")
+    @Operation(summary = "Get the most prolific directors",
+            description = "Returns the k directors with the most movies and their movie counts, "
+                    + "ordered by count (descending) and then by name.")
+    @ApiResponse(responseCode = "200", description = "Successful operation",
+            content = @Content(schema = @Schema(implementation = TopDirectorsResponseDto.class)))
+    @ApiResponse(responseCode = "304", description = "The data matching If-None-Match has not changed")
+    @ApiResponse(responseCode = "400", description = "k is not a positive number")
+    @ApiResponse(responseCode = "503", description = "Too many concurrent requests; retry after Retry-After")
+    public Mono<ResponseEntity<TopDirectorsResponseDto>> getTopDirectors(
+            @Parameter(description = "Number of directors to return")
+            @RequestParam(name = "k") String kStr,
+            @RequestHeader HttpHeaders requestHeaders) {
+
+        return admissionLimiter.protect(directorService.getTopDirectors(kStr)
+                .map(result -> snapshotResponses.conditional(result, requestHeaders)));
+    }
+
+    @GetMapping("/directors/histogram")
+    @Operation(summary = "Get the distribution of movie counts per director",
+            description = "Returns how many directors have directed exactly k movies, for every k present in the catalog.")
+    @ApiResponse(responseCode = "200", description = "Successful operation",
+            content = @Content(schema = @Schema(implementation = DirectorHistogramDto.class)))
+    @ApiResponse(responseCode = "304", description = "The data matching If-None-Match has not changed")
+    @ApiResponse(responseCode = "503", description = "Too many concurrent requests; retry after Retry-After")
+    public Mono<ResponseEntity<DirectorHistogramDto>> getDirectorHistogram(@RequestHeader HttpHeaders requestHeaders) {
+        return admissionLimiter.protect(directorService.getDirectorHistogram()
+                .map(result -> snapshotResponses.conditional(result, requestHeaders)));
     }
 }
@@ -0,0 +1,138 @@
+package com.vallejos.moviedirector.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vallejos.moviedirector.cache.EncodedResponseCache;
+import com.vallejos.moviedirector.configuration.DirectorHttpProperties;
+import com.vallejos.moviedirector.service.SnapshotResult;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Turns {@link SnapshotResult}s into HTTP responses carrying the validators and freshness of the data.
+ * <ul>
+ *     <li>{@code ETag}: strong tag of the data and the requested resource; a matching {@code If-None-Match}
+ *     is answered with 304 Not Modified and no body, so nothing is computed or serialized.</li>
+ *     <li>{@code Cache-Control}: as configured by {@code director.http.cache-control}.</li>
+ *     <li>{@code Age}: seconds since the director data was aggregated, plus a {@code Warning: 110} header
+ *     when it has outlived its TTL, e.g. while the upstream is unavailable.</li>
+ * </ul>
+ * Bodies answered through {@link #conditionalEncoded} are serialized once per entity tag and snapshot version
+ * and then written from the cached bytes, see {@link EncodedResponseCache}.
+ */
+@Component
+public class SnapshotResponses {
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private final DirectorHttpProperties properties;
+    private final EncodedResponseCache encodedResponses;
+    private final Clock clock;
+
+    /**
+     * Constructs the response factory.
+     *
+     * @param properties   The HTTP caching configuration of the director endpoints.
+     * @param objectMapper The mapper used by the web layer, to encode cached bodies identically.
+     */
+    public SnapshotResponses(DirectorHttpProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.encodedResponses = new EncodedResponseCache(properties.getEncodedCacheSize().toBytes(), objectMapper);
+        this.clock = Clock.systemUTC();
+    }
+
+    /**
+     * Builds the response to a GET request, answering 304 Not Modified when the client already has it.
+     *
+     * @param result         The computed result.
+     * @param requestHeaders The headers of the request, checked for {@code If-None-Match}.
+     * @param <T>            The type of the response body.
+     * @return A 200 response with the body, or a 304 response without it.
+     */
+    public <T> ResponseEntity<T> conditional(SnapshotResult<T> result, HttpHeaders requestHeaders) {
+        if (result.getEtag() != null && matches(requestHeaders, result.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(headers -> addValidators(result, headers))
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .headers(headers -> addValidators(result, headers))
+                .body(result.getBody());
+    }
+
+    /**
+     * Builds the response to a GET request like {@link #conditional}, with the body already encoded as JSON.
+     * The encoding is reused for every request of the same resource until the snapshot version changes, and
+     * each response wraps the cached bytes without copying them.
+     *
+     * @param result         The computed result.
+     * @param requestHeaders The headers of the request, checked for {@code If-None-Match}.
+     * @return A 200 response with the JSON body, or a 304 response without it.
+     */
+    public ResponseEntity<DataBuffer> conditionalEncoded(SnapshotResult<?> result, HttpHeaders requestHeaders) {
+        if (result.getEtag() != null && matches(requestHeaders, result.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(headers -> addValidators(result, headers))
+                    .build();
+        }
+        byte[] encoded = encodedResponses.encode(result.getEtag(), result.getVersion(), result::getBody);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers -> addValidators(result, headers))
+                .body(DefaultDataBufferFactory.sharedInstance.wrap(encoded));
+    }
+
+    /**
+     * Builds the response to a request that is never answered conditionally, such as a POST.
+     *
+     * @param result The computed result.
+     * @param <T>    The type of the response body.
+     * @return A 200 response with the body and its freshness headers.
+     */
+    public <T> ResponseEntity<T> unconditional(SnapshotResult<T> result) {
+        return ResponseEntity.ok()
+                .headers(headers -> addFreshness(result, headers))
+                .body(result.getBody());
+    }
+
+    private void addValidators(SnapshotResult<?> result, HttpHeaders headers) {
+        if (result.getEtag() != null) {
+            headers.setETag(result.getEtag());
+        }
+        headers.setCacheControl(properties.getCacheControl());
+        addFreshness(result, headers);
+    }
+
+    private void addFreshness(SnapshotResult<?> result, HttpHeaders headers) {
+        if (result.getCreatedAt() == null) {
+            return;
+        }
+        long age = Math.max(0, Duration.between(result.getCreatedAt(), clock.instant()).toSeconds());
+        headers.set(HttpHeaders.AGE, String.valueOf(age));
+        if (result.isStale()) {
+            headers.set(HttpHeaders.WARNING, STALE_WARNING);
+        }
+    }
+
+    /**
+     * If-None-Match uses the weak comparison: {@code W/"x"} matches {@code "x"}, and {@code *} matches anything.
+     */
+    private static boolean matches(HttpHeaders requestHeaders, String etag) {
+        for (String candidate : requestHeaders.getIfNoneMatch()) {
+            String tag = candidate.startsWith(WEAK_PREFIX) ? candidate.substring(WEAK_PREFIX.length()) : candidate;
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,276 @@
+package com.vallejos.moviedirector.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-only index over the per-director movie counts of one data version.
+ * <p>
+ * Directors are ranked by movie count (descending) and then by name, which splits the ranking into
+ * buckets of directors sharing the same count, each one already in alphabetical order. A threshold
+ * query binary-searches the distinct counts to find how many leading buckets qualify and merges
+ * those alphabetical runs; the merged result is memoized per bucket prefix, so no threshold ever
+ * triggers rehashing or re-sorting.
+ * <p>
+ * Each memoized prefix holds its own list, so the memo is capped at {@link #MEMO_BUDGET} times the number
+ * of directors in total; once it is full, further prefixes are merged again on every query.
+ */
+public final class DirectorIndex {
+
+    private static final Comparator<Map.Entry<String, Long>> RANKING =
+            Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    /**
+     * How many times the number of directors the memoized results may hold in total.
+     */
+    static final int MEMO_BUDGET = 4;
+
+    private final String[] rankedDirectors;
+    private final long[] rankedCounts;
+
+    /**
+     * Distinct movie counts in descending order.
+     */
+    private final long[] bucketCounts;
+
+    /**
+     * Start offset of each bucket in the ranking, plus a trailing end offset.
+     */
+    private final int[] bucketOffsets;
+
+    private final SortedMap<Long, Integer> histogram;
+    private final AtomicReferenceArray<List<String>> resultsByBucketPrefix;
+
+    /**
+     * Number of director names still allowed into {@link #resultsByBucketPrefix}.
+     */
+    private final AtomicLong memoBudget;
+
+    private DirectorIndex(String[] rankedDirectors, long[] rankedCounts) {
+        this.rankedDirectors = rankedDirectors;
+        this.rankedCounts = rankedCounts;
+
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < rankedCounts.length; i++) {
+            if (i == 0 || rankedCounts[i] != rankedCounts[i - 1]) {
+                offsets.add(i);
+            }
+        }
+        this.bucketCounts = new long[offsets.size()];
+        this.bucketOffsets = new int[offsets.size() + 1];
+        SortedMap<Long, Integer> sizes = new TreeMap<>();
+        for (int b = 0; b < offsets.size(); b++) {
+            int start = offsets.get(b);
+            int end = b + 1 < offsets.size() ? offsets.get(b + 1) : rankedCounts.length;
+            bucketCounts[b] = rankedCounts[start];
+            bucketOffsets[b] = start;
+            sizes.put(rankedCounts[start], end - start);
+        }
+        bucketOffsets[offsets.size()] = rankedCounts.length;
+
+        this.histogram = Collections.unmodifiableSortedMap(sizes);
+        this.resultsByBucketPrefix = new AtomicReferenceArray<>(bucketCounts.length + 1);
+        this.memoBudget = new AtomicLong((long) MEMO_BUDGET * rankedCounts.length);
+    }
+
+    /**
+     * Builds the index for the given per-director movie counts.
+     *
+     * @param directorCounts The number of movies per director name.
+     * @return The index over those counts.
+     */
+    public static DirectorIndex of(Map<String, Long> directorCounts) {
+        List<Map.Entry<String, Long>> ranking = new ArrayList<>(directorCounts.entrySet());
+        ranking.sort(RANKING);
+
+        String[] directors = new String[ranking.size()];
+        long[] counts = new long[ranking.size()];
+        for (int i = 0; i < ranking.size(); i++) {
+            directors[i] = ranking.get(i).getKey();
+            counts[i] = ranking.get(i).getValue();
+        }
+        return new DirectorIndex(directors, counts);
+    }
+
+    /**
+     * Builds the index from counts indexed by a dense director id, as kept by the aggregation, without
+     * materializing a map of boxed counts. Ids with no movies are left out.
+     *
+     * @param directorsById The director names, indexed by id.
+     * @param countsById    The number of movies per director id; ids beyond either array have no movies.
+     * @return The index over those counts.
+     */
+    public static DirectorIndex of(String[] directorsById, int[] countsById) {
+        int ids = Math.min(directorsById.length, countsById.length);
+        Integer[] ranking = new Integer[ids];
+        int size = 0;
+        for (int id = 0; id < ids; id++) {
+            if (countsById[id] > 0) {
+                ranking[size++] = id;
+            }
+        }
+        Arrays.sort(ranking, 0, size, Comparator.comparingInt((Integer id) -> -countsById[id])
+                .thenComparing(id -> directorsById[id]));
+
+        String[] directors = new String[size];
+        long[] counts = new long[size];
+        for (int i = 0; i < size; i++) {
+            directors[i] = directorsById[ranking[i]];
+            counts[i] = countsById[ranking[i]];
+        }
+        return new DirectorIndex(directors, counts);
+    }
+
+    /**
+     * Returns the directors with strictly more movies than the threshold, sorted alphabetically.
+     *
+     * @param threshold The minimum number of movies directed (exclusive).
+     * @return An immutable, alphabetically sorted list of director names.
+     */
+    public List<String> directorsWithMoreMoviesThan(long threshold) {
+        int prefix = countBucketsAbove(threshold);
+        List<String> result = resultsByBucketPrefix.get(prefix);
+        if (result == null) {
+            result = mergeBuckets(prefix);
+            memoize(prefix, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the movie counts of the directors returned by {@link #directorsWithMoreMoviesThan(long)} for the
+     * same threshold, position by position.
+     *
+     * @param threshold The minimum number of movies directed (exclusive).
+     * @return The movie count of each director of the alphabetical list.
+     */
+    public long[] countsOfDirectorsWithMoreMoviesThan(long threshold) {
+        int prefix = countBucketsAbove(threshold);
+        List<String> directors = directorsWithMoreMoviesThan(threshold);
+        long[] counts = new long[directors.size()];
+        for (int rank = 0; rank < bucketOffsets[prefix]; rank++) {
+            counts[Collections.binarySearch(directors, rankedDirectors[rank])] = rankedCounts[rank];
+        }
+        return counts;
+    }
+
+    /**
+     * Materializes the counts as a map of director name to movie count, e.g. to compare two indexes.
+     *
+     * @return A new map with one entry per director.
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> counts = new HashMap<>(rankedDirectors.length * 2);
+        for (int rank = 0; rank < rankedDirectors.length; rank++) {
+            counts.put(rankedDirectors[rank], rankedCounts[rank]);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns how many directors have directed exactly k movies, keyed by k in ascending order.
+     *
+     * @return An immutable histogram of movie counts.
+     */
+    public SortedMap<Long, Integer> histogram() {
+        return histogram;
+    }
+
+    /**
+     * @return The number of distinct directors in the index.
+     */
+    public int size() {
+        return rankedDirectors.length;
+    }
+
+    /**
+     * Returns the director at the given rank, where rank 0 has the most movies and ties are broken by name.
+     *
+     * @param rank The zero-based rank.
+     * @return The director name.
+     */
+    public String directorAt(int rank) {
+        return rankedDirectors[rank];
+    }
+
+    /**
+     * Returns the movie count of the director at the given rank.
+     *
+     * @param rank The zero-based rank.
+     * @return The number of movies directed.
+     */
+    public long countAt(int rank) {
+        return rankedCounts[rank];
+    }
+
+    /**
+     * Keeps the result of a prefix if the memo budget still has room for it.
+     */
+    private void memoize(int prefix, List<String> result) {
+        if (result.isEmpty()) {
+            resultsByBucketPrefix.compareAndSet(prefix, null, result);
+            return;
+        }
+        if (memoBudget.addAndGet(-result.size()) < 0
+                || !resultsByBucketPrefix.compareAndSet(prefix, null, result)) {
+            memoBudget.addAndGet(result.size());
+        }
+    }
+
+    /**
+     * Binary-searches the descending distinct counts for the number of buckets above the threshold.
+     */
+    private int countBucketsAbove(long threshold) {
+        int low = 0;
+        int high = bucketCounts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bucketCounts[mid] > threshold) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Merges the alphabetical runs of the first {@code prefix} buckets into one alphabetical list.
+     */
+    private List<String> mergeBuckets(int prefix) {
+        if (prefix == 0) {
+            return List.of();
+        }
+        if (prefix == 1) {
+            return List.of(Arrays.copyOfRange(rankedDirectors, bucketOffsets[0], bucketOffsets[1]));
+        }
+
+        int[] cursors = Arrays.copyOf(bucketOffsets, prefix);
+        PriorityQueue<Integer> heads = new PriorityQueue<>(prefix,
+                Comparator.comparing((Integer bucket) -> rankedDirectors[cursors[bucket]]));
+        for (int bucket = 0; bucket < prefix; bucket++) {
+            heads.add(bucket);
+        }
+
+        String[] merged = new String[bucketOffsets[prefix]];
+        int next = 0;
+        while (!heads.isEmpty()) {
+            int bucket = heads.poll();
+            merged[next++] = rankedDirectors[cursors[bucket]];
+            if (++cursors[bucket] < bucketOffsets[bucket + 1]) {
+                heads.add(bucket);
+            }
+        }
+        return List.of(merged);
+    }
+}
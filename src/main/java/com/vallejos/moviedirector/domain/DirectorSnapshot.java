@@ -0,0 +1,90 @@
+package com.vallejos.moviedirector.domain;
+
+import lombok.Value;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Immutable, point-in-time view of how many movies each director has directed.
+ * A new snapshot is built on every refresh and swapped in as a whole, so readers never
+ * observe partially aggregated counts.
+ */
+@Value
+public class DirectorSnapshot {
+
+    /**
+     * Monotonically increasing version of the data this snapshot was built from.
+     */
+    long version;
+
+    /**
+     * Number of movies per director, indexed for threshold and histogram queries once for this data version.
+     */
+    DirectorIndex index;
+
+    /**
+     * Hash of the director counts, identical for identical data regardless of version, process or restart.
+     */
+    String contentHash;
+
+    /**
+     * Columnar movie catalog the counts were aggregated from, or null if it is not available, e.g. for a
+     * snapshot restored from disk. It does not take part in the content hash; answers computed from it are
+     * tagged with {@link MovieTable#contentHash()} instead.
+     */
+    MovieTable table;
+
+    /**
+     * Instant at which the snapshot was built.
+     */
+    Instant createdAt;
+
+    public DirectorSnapshot(long version, Map<String, Long> directorCounts, Instant createdAt) {
+        this(version, DirectorIndex.of(directorCounts), null, createdAt);
+    }
+
+    public DirectorSnapshot(long version, DirectorIndex index, MovieTable table, Instant createdAt) {
+        this.version = version;
+        this.index = index;
+        this.contentHash = hash(this.index);
+        this.table = table;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Checks whether the snapshot has outlived the given time-to-live.
+     *
+     * @param ttl The time-to-live of a snapshot.
+     * @param now The current instant.
+     * @return true if the snapshot was created more than {@code ttl} before {@code now}.
+     */
+    public boolean isExpired(Duration ttl, Instant now) {
+        return createdAt.plus(ttl).isBefore(now);
+    }
+
+    /**
+     * Hashes the counts in ranking order, which is deterministic for a given set of counts.
+     */
+    private static String hash(DirectorIndex index) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        ByteBuffer lengthAndCount = ByteBuffer.allocate(Integer.BYTES + Long.BYTES);
+        for (int rank = 0; rank < index.size(); rank++) {
+            byte[] director = index.directorAt(rank).getBytes(StandardCharsets.UTF_8);
+            digest.update(lengthAndCount.clear().putInt(director.length).putLong(index.countAt(rank)).flip());
+            digest.update(director);
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+}
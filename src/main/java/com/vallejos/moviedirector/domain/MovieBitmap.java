@@ -0,0 +1,221 @@
+package com.vallejos.moviedirector.domain;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable set of catalog row numbers of a {@link MovieTable}, stored in whichever of two forms is smaller.
+ * <p>
+ * A sparse set keeps its rows as a sorted {@code int[]} (32 bits per row), a dense set one bit per catalog row in
+ * a {@code long[]}. A set switches to the dense form once more than one row in 32 is present, so no set ever takes
+ * more than the smaller of the two. Intersections walk the smaller set and probe the other one, or AND the words
+ * of two dense sets, so their cost follows the selectivity of the query rather than the size of the catalog.
+ */
+public final class MovieBitmap {
+
+    private static final MovieBitmap EMPTY = new MovieBitmap(new int[0], null, 0);
+
+    /**
+     * Sorted rows of a sparse set, or null for a dense one.
+     */
+    private final int[] rows;
+
+    /**
+     * Bits of a dense set, or null for a sparse one.
+     */
+    private final long[] words;
+    private final int cardinality;
+
+    private MovieBitmap(int[] rows, long[] words, int cardinality) {
+        this.rows = rows;
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * @return The set without any row.
+     */
+    public static MovieBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param universe The number of rows in the catalog.
+     * @return The set of every row of the catalog.
+     */
+    public static MovieBitmap all(int universe) {
+        if (universe == 0) {
+            return EMPTY;
+        }
+        long[] words = new long[wordsFor(universe)];
+        Arrays.fill(words, -1L);
+        words[words.length - 1] >>>= words.length * Long.SIZE - universe;
+        return new MovieBitmap(null, words, universe);
+    }
+
+    /**
+     * Builds the set of the given rows.
+     *
+     * @param sortedRows Rows in strictly ascending order in the first {@code count} slots.
+     * @param count      The number of rows.
+     * @param universe   The number of rows in the catalog, an exclusive upper bound of the rows.
+     * @return The set in its smaller form.
+     */
+    public static MovieBitmap of(int[] sortedRows, int count, int universe) {
+        if (!isDense(count, universe)) {
+            return new MovieBitmap(Arrays.copyOf(sortedRows, count), null, count);
+        }
+        long[] words = new long[wordsFor(universe)];
+        for (int i = 0; i < count; i++) {
+            words[sortedRows[i] >>> 6] |= 1L << sortedRows[i];
+        }
+        return new MovieBitmap(null, words, count);
+    }
+
+    /**
+     * Builds the union of the given sets, e.g. the rows of every year of a range.
+     *
+     * @param bitmaps  The sets to unite.
+     * @param universe The number of rows in the catalog.
+     * @return The union in its smaller form.
+     */
+    public static MovieBitmap union(List<MovieBitmap> bitmaps, int universe) {
+        if (bitmaps.isEmpty()) {
+            return empty();
+        }
+        if (bitmaps.size() == 1) {
+            return bitmaps.get(0);
+        }
+        long[] words = new long[wordsFor(universe)];
+        for (MovieBitmap bitmap : bitmaps) {
+            if (bitmap.words != null) {
+                for (int i = 0; i < bitmap.words.length; i++) {
+                    words[i] |= bitmap.words[i];
+                }
+            } else {
+                for (int row : bitmap.rows) {
+                    words[row >>> 6] |= 1L << row;
+                }
+            }
+        }
+        return fromWords(words, universe);
+    }
+
+    /**
+     * @return The number of rows in the set.
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @param row A catalog row number.
+     * @return true if the row is in the set.
+     */
+    public boolean contains(int row) {
+        if (words != null) {
+            int word = row >>> 6;
+            return word < words.length && (words[word] & (1L << row)) != 0;
+        }
+        return Arrays.binarySearch(rows, row) >= 0;
+    }
+
+    /**
+     * Intersects this set with another one.
+     *
+     * @param other    The set to intersect with.
+     * @param universe The number of rows in the catalog.
+     * @return The rows present in both sets, in their smaller form.
+     */
+    public MovieBitmap and(MovieBitmap other, int universe) {
+        if (words != null && other.words != null) {
+            long[] result = new long[Math.min(words.length, other.words.length)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = words[i] & other.words[i];
+            }
+            return fromWords(result, universe);
+        }
+        MovieBitmap sparse = rows != null && (other.rows == null || cardinality <= other.cardinality) ? this : other;
+        MovieBitmap probed = sparse == this ? other : this;
+        int[] result = new int[sparse.cardinality];
+        int count = 0;
+        for (int row : sparse.rows) {
+            if (probed.contains(row)) {
+                result[count++] = row;
+            }
+        }
+        return new MovieBitmap(count == result.length ? result : Arrays.copyOf(result, count), null, count);
+    }
+
+    /**
+     * Keeps the rows of this set accepted by the predicate, which sees them in ascending order.
+     *
+     * @param keep     Decides whether a row is kept.
+     * @param universe The number of rows in the catalog.
+     * @return The kept rows, in their smaller form.
+     */
+    public MovieBitmap filter(IntPredicate keep, int universe) {
+        int[] kept = new int[cardinality];
+        int[] count = new int[1];
+        forEach(row -> {
+            if (keep.test(row)) {
+                kept[count[0]++] = row;
+            }
+        });
+        return of(kept, count[0], universe);
+    }
+
+    /**
+     * Calls the action with every row of the set, in ascending order.
+     *
+     * @param action The action to call.
+     */
+    public void forEach(IntConsumer action) {
+        if (rows != null) {
+            for (int row : rows) {
+                action.accept(row);
+            }
+            return;
+        }
+        for (int i = 0; i < words.length; i++) {
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                action.accept((i << 6) + Long.numberOfTrailingZeros(word));
+            }
+        }
+    }
+
+    /**
+     * @return The number of bytes held by the set.
+     */
+    public long sizeInBytes() {
+        return rows != null ? (long) rows.length * Integer.BYTES : (long) words.length * Long.BYTES;
+    }
+
+    private static MovieBitmap fromWords(long[] words, int universe) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        if (isDense(cardinality, universe)) {
+            return new MovieBitmap(null, words, cardinality);
+        }
+        int[] rows = new int[cardinality];
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                rows[count++] = (i << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return new MovieBitmap(rows, null, cardinality);
+    }
+
+    private static boolean isDense(int cardinality, int universe) {
+        return (long) cardinality * Integer.SIZE > universe;
+    }
+
+    private static int wordsFor(int universe) {
+        return (universe + Long.SIZE - 1) >>> 6;
+    }
+}
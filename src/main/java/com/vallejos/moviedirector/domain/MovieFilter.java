@@ -0,0 +1,53 @@
+package com.vallejos.moviedirector.domain;
+
+import lombok.Value;
+
+/**
+ * Conditions a movie has to meet to be counted in a filtered director query. Every condition is optional;
+ * a null field matches every movie, and ranges are inclusive and may be open on either side.
+ * Movies whose attribute is unknown never match a condition on that attribute.
+ */
+@Value
+public class MovieFilter {
+
+    /**
+     * Filter without any condition.
+     */
+    public static final MovieFilter NONE = new MovieFilter(null, null, null, null, null, null);
+
+    /**
+     * One of the movie's genres, compared ignoring case.
+     */
+    String genre;
+    Integer yearFrom;
+    Integer yearTo;
+
+    /**
+     * The movie's rating, e.g. {@code PG-13}, compared ignoring case.
+     */
+    String rated;
+    Integer runtimeMin;
+    Integer runtimeMax;
+
+    /**
+     * @return true if the filter has no condition and matches every movie.
+     */
+    public boolean isEmpty() {
+        return genre == null && yearFrom == null && yearTo == null && rated == null
+                && runtimeMin == null && runtimeMax == null;
+    }
+
+    /**
+     * @return true if the filter has a year condition.
+     */
+    public boolean hasYearRange() {
+        return yearFrom != null || yearTo != null;
+    }
+
+    /**
+     * @return true if the filter has a runtime condition.
+     */
+    public boolean hasRuntimeRange() {
+        return runtimeMin != null || runtimeMax != null;
+    }
+}
@@ -0,0 +1,334 @@
+package com.vallejos.moviedirector.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only secondary indexes over the movies of one {@link MovieTable}, answering filtered director queries
+ * without scanning the catalog.
+ * <p>
+ * There is one {@link MovieBitmap} of catalog rows per genre, rating, year and runtime in minutes, built in a
+ * single pass over the columns. A filter starts from its most selective condition, whose cardinality is known
+ * up front, intersects the genre and rating bitmaps smallest first and checks any other range on the column
+ * values of the rows still selected, so a wide range such as "longer than 90 minutes" is never materialized.
+ * The remaining rows are then counted per director through the director column.
+ */
+public final class MovieIndex {
+
+    private final MovieTable table;
+    private final MovieBitmap[] genres;
+    private final MovieBitmap[] ratings;
+    private final ValueIndex years;
+    private final ValueIndex runtimes;
+    private final long sizeInBytes;
+
+    private MovieIndex(MovieTable table) {
+        int universe = table.size();
+        RowLists genreRows = new RowLists(table.genreCount());
+        RowLists ratingRows = new RowLists(table.ratingCount());
+        RowLists yearRows = new RowLists(Short.MAX_VALUE + 1);
+        RowLists runtimeRows = new RowLists(Short.MAX_VALUE + 1);
+
+        int row = 0;
+        for (MovieSegment segment : table.segments()) {
+            for (int r = 0; r < segment.size(); r++, row++) {
+                for (int g = segment.genreStart(r); g < segment.genreEnd(r); g++) {
+                    genreRows.add(segment.genreId(g), row);
+                }
+                if (segment.ratedId(r) != MovieSegment.UNKNOWN_ID) {
+                    ratingRows.add(segment.ratedId(r), row);
+                }
+                if (segment.year(r) != MovieSegment.UNKNOWN_SHORT) {
+                    yearRows.add(segment.year(r), row);
+                }
+                if (segment.runtime(r) != MovieSegment.UNKNOWN_SHORT) {
+                    runtimeRows.add(segment.runtime(r), row);
+                }
+            }
+        }
+
+        this.table = table;
+        this.genres = genreRows.toBitmaps(universe);
+        this.ratings = ratingRows.toBitmaps(universe);
+        this.years = new ValueIndex(yearRows, universe);
+        this.runtimes = new ValueIndex(runtimeRows, universe);
+        this.sizeInBytes = sizeOf(genres) + sizeOf(ratings) + sizeOf(years.bitmaps) + sizeOf(runtimes.bitmaps);
+    }
+
+    /**
+     * Builds the indexes of the given table. Called by the table itself on the first {@link MovieTable#index()}.
+     *
+     * @param table The table to index.
+     * @return The indexes over its movies.
+     */
+    public static MovieIndex of(MovieTable table) {
+        return new MovieIndex(table);
+    }
+
+    /**
+     * Selects the movies meeting every condition of the filter.
+     *
+     * @param filter The conditions; an empty filter selects every movie.
+     * @return The catalog rows of the matching movies.
+     */
+    public MovieBitmap select(MovieFilter filter) {
+        int universe = table.size();
+        List<MovieBitmap> bitmaps = new ArrayList<>(2);
+        if (filter.getGenre() != null) {
+            bitmaps.add(lookup(genres, table::genreName, filter.getGenre()));
+        }
+        if (filter.getRated() != null) {
+            bitmaps.add(lookup(ratings, table::ratingName, filter.getRated()));
+        }
+        List<Range> ranges = new ArrayList<>(2);
+        if (filter.hasYearRange()) {
+            ranges.add(new Range(years, MovieSegment::year, filter.getYearFrom(), filter.getYearTo()));
+        }
+        if (filter.hasRuntimeRange()) {
+            ranges.add(new Range(runtimes, MovieSegment::runtime, filter.getRuntimeMin(), filter.getRuntimeMax()));
+        }
+        bitmaps.sort(Comparator.comparingInt(MovieBitmap::cardinality));
+        ranges.sort(Comparator.comparingInt(Range::cardinality));
+
+        MovieBitmap selected;
+        if (!ranges.isEmpty() && (bitmaps.isEmpty() || ranges.get(0).cardinality() < bitmaps.get(0).cardinality())) {
+            selected = ranges.remove(0).materialize(universe);
+        } else if (!bitmaps.isEmpty()) {
+            selected = bitmaps.remove(0);
+        } else {
+            return MovieBitmap.all(universe);
+        }
+        for (MovieBitmap bitmap : bitmaps) {
+            selected = selected.and(bitmap, universe);
+        }
+        for (Range range : ranges) {
+            if (selected.cardinality() == 0) {
+                break;
+            }
+            RowCursor cursor = new RowCursor();
+            selected = selected.filter(row -> range.contains(cursor.moveTo(row), cursor.offset), universe);
+        }
+        return selected;
+    }
+
+    /**
+     * Counts the selected movies per director, ignoring movies without a director.
+     *
+     * @param rows Catalog rows, e.g. returned by {@link #select(MovieFilter)}.
+     * @return The number of selected movies per director id, see {@link MovieTable#directorName(int)}.
+     */
+    public int[] countByDirector(MovieBitmap rows) {
+        int[] counts = new int[table.directorCount()];
+        RowCursor cursor = new RowCursor();
+        rows.forEach(row -> {
+            int directorId = cursor.moveTo(row).directorId(cursor.offset);
+            if (directorId != MovieSegment.UNKNOWN_ID) {
+                counts[directorId]++;
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * @return The number of bytes held by the bitmaps.
+     */
+    public long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Returns the rows of every dictionary entry equal to the name ignoring case, as upstream spellings may differ.
+     * The genre and rating dictionaries hold a few dozen names, so a scan is enough.
+     */
+    private MovieBitmap lookup(MovieBitmap[] bitmaps, IntFunction<String> names, String name) {
+        List<MovieBitmap> matches = new ArrayList<>(1);
+        for (int id = 0; id < bitmaps.length; id++) {
+            if (names.apply(id).equalsIgnoreCase(name)) {
+                matches.add(bitmaps[id]);
+            }
+        }
+        return MovieBitmap.union(matches, table.size());
+    }
+
+    private static long sizeOf(MovieBitmap[] bitmaps) {
+        long bytes = 0;
+        for (MovieBitmap bitmap : bitmaps) {
+            bytes += bitmap.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Resolves rows visited in ascending order to their segment, advancing through the segments only once.
+     */
+    private final class RowCursor {
+
+        private int segment = -1;
+        private int segmentStart;
+        private int segmentEnd;
+        private MovieSegment current;
+
+        /**
+         * Row within {@link #current} of the row last moved to.
+         */
+        private int offset;
+
+        MovieSegment moveTo(int row) {
+            while (row >= segmentEnd) {
+                current = table.segments().get(++segment);
+                segmentStart = table.segmentStart(segment);
+                segmentEnd = table.segmentStart(segment + 1);
+            }
+            offset = row - segmentStart;
+            return current;
+        }
+    }
+
+    /**
+     * Reads a {@code short} column of a segment.
+     */
+    @FunctionalInterface
+    private interface ShortColumn {
+        short get(MovieSegment segment, int row);
+    }
+
+    /**
+     * Inclusive range condition on an ordered attribute. Unknown values (-1) never match, as both bounds are
+     * at least 0.
+     */
+    private static final class Range {
+
+        private final ValueIndex index;
+        private final ShortColumn column;
+        private final int from;
+        private final int to;
+        private final int cardinality;
+
+        Range(ValueIndex index, ShortColumn column, Integer from, Integer to) {
+            this.index = index;
+            this.column = column;
+            this.from = from == null ? 0 : Math.max(0, from);
+            this.to = to == null ? Short.MAX_VALUE : Math.min(Short.MAX_VALUE, to);
+            this.cardinality = index.count(this.from, this.to);
+        }
+
+        int cardinality() {
+            return cardinality;
+        }
+
+        MovieBitmap materialize(int universe) {
+            return index.range(from, to, universe);
+        }
+
+        boolean contains(MovieSegment segment, int row) {
+            short value = column.get(segment, row);
+            return value >= from && value <= to;
+        }
+    }
+
+    /**
+     * Bitmaps of an ordered attribute, one per distinct value, so a range unites a contiguous slice of them.
+     */
+    private static final class ValueIndex {
+
+        private final int[] values;
+        private final MovieBitmap[] bitmaps;
+
+        /**
+         * Number of rows with a value below {@code values[i]}, plus a trailing total.
+         */
+        private final int[] rowsBefore;
+
+        ValueIndex(RowLists rows, int universe) {
+            MovieBitmap[] byValue = rows.toBitmaps(universe);
+            int distinct = 0;
+            for (MovieBitmap bitmap : byValue) {
+                distinct += bitmap.cardinality() > 0 ? 1 : 0;
+            }
+            this.values = new int[distinct];
+            this.bitmaps = new MovieBitmap[distinct];
+            this.rowsBefore = new int[distinct + 1];
+            for (int value = 0, i = 0; value < byValue.length; value++) {
+                if (byValue[value].cardinality() > 0) {
+                    values[i] = value;
+                    bitmaps[i] = byValue[value];
+                    rowsBefore[i + 1] = rowsBefore[i] + byValue[value].cardinality();
+                    i++;
+                }
+            }
+        }
+
+        /**
+         * Returns the number of rows with a value between the bounds (inclusive) without touching the bitmaps.
+         */
+        int count(int from, int to) {
+            int start = lowerBound(from);
+            int end = lowerBound((long) to + 1);
+            return start >= end ? 0 : rowsBefore[end] - rowsBefore[start];
+        }
+
+        MovieBitmap range(int from, int to, int universe) {
+            int start = lowerBound(from);
+            int end = lowerBound((long) to + 1);
+            if (start >= end) {
+                return MovieBitmap.empty();
+            }
+            return MovieBitmap.union(Arrays.asList(bitmaps).subList(start, end), universe);
+        }
+
+        /**
+         * Returns the index of the first value not below the given one.
+         */
+        private int lowerBound(long value) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Growable, ascending row lists per key, used while building the bitmaps.
+     */
+    private static final class RowLists {
+
+        private final int[][] rows;
+        private final int[] sizes;
+
+        RowLists(int keys) {
+            this.rows = new int[keys][];
+            this.sizes = new int[keys];
+        }
+
+        void add(int key, int row) {
+            int size = sizes[key];
+            if (rows[key] == null) {
+                rows[key] = new int[8];
+            } else if (rows[key][size - 1] == row) {
+                return;
+            } else if (size == rows[key].length) {
+                rows[key] = Arrays.copyOf(rows[key], size * 2);
+            }
+            rows[key][size] = row;
+            sizes[key] = size + 1;
+        }
+
+        MovieBitmap[] toBitmaps(int universe) {
+            MovieBitmap[] bitmaps = new MovieBitmap[rows.length];
+            for (int key = 0; key < rows.length; key++) {
+                bitmaps[key] = rows[key] == null ? MovieBitmap.empty() : MovieBitmap.of(rows[key], sizes[key], universe);
+            }
+            return bitmaps;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.vallejos.moviedirector.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Immutable, columnar block of movies, typically the movies of one upstream page.
+ * <p>
+ * Every attribute lives in its own primitive column, parsed once at ingest: year and runtime in minutes
+ * as {@code short}, the release date as an epoch day {@code int}, and the categorical attributes (rated,
+ * director, genres) as ids into the dictionaries of the owning {@link MovieTable}. A movie can have several
+ * genres, so the genre column is stored as a flat id array plus one start offset per movie.
+ * <p>
+ * The columns are either heap arrays or off-heap direct buffers; both are only read with absolute gets,
+ * so a segment can be scanned by any number of threads.
+ * <p>
+ * A hash of the columns is computed once when the segment is built, so a {@link MovieTable} can hash its
+ * whole catalog from the hashes of its segments instead of rereading every row.
+ */
+public final class MovieSegment {
+
+    /**
+     * Value of the year and runtime columns when the upstream value is missing or malformed.
+     */
+    public static final short UNKNOWN_SHORT = -1;
+
+    /**
+     * Value of the release date column when the upstream value is missing or malformed.
+     */
+    public static final int UNKNOWN_DAY = Integer.MIN_VALUE;
+
+    /**
+     * Value of the dictionary-encoded columns when the upstream value is missing.
+     */
+    public static final int UNKNOWN_ID = -1;
+
+    private final int size;
+    private final ShortBuffer years;
+    private final ShortBuffer runtimes;
+    private final IntBuffer releasedDays;
+    private final IntBuffer ratedIds;
+    private final IntBuffer directorIds;
+
+    /**
+     * Start of each movie's genres in {@link #genreIds}, plus a trailing end offset.
+     */
+    private final IntBuffer genreOffsets;
+    private final IntBuffer genreIds;
+    private final boolean offHeap;
+    private final byte[] contentHash;
+
+    private MovieSegment(Builder builder, boolean offHeap) {
+        this.size = builder.size;
+        this.offHeap = offHeap;
+        this.years = shorts(builder.years, builder.size, offHeap);
+        this.runtimes = shorts(builder.runtimes, builder.size, offHeap);
+        this.releasedDays = ints(builder.releasedDays, builder.size, offHeap);
+        this.ratedIds = ints(builder.ratedIds, builder.size, offHeap);
+        this.directorIds = ints(builder.directorIds, builder.size, offHeap);
+        this.genreOffsets = ints(builder.genreOffsets, builder.size + 1, offHeap);
+        this.genreIds = ints(builder.genreIds, builder.genreOffsets[builder.size], offHeap);
+        this.contentHash = hash(builder);
+    }
+
+    /**
+     * @param expectedSize The expected number of movies, used to presize the columns.
+     * @return A builder appending movies row by row.
+     */
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * @return The number of movies in the segment.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param row The zero-based movie index within the segment.
+     * @return The release year, or {@link #UNKNOWN_SHORT}.
+     */
+    public short year(int row) {
+        return years.get(row);
+    }
+
+    /**
+     * @param row The zero-based movie index within the segment.
+     * @return The runtime in minutes, or {@link #UNKNOWN_SHORT}.
+     */
+    public short runtime(int row) {
+        return runtimes.get(row);
+    }
+
+    /**
+     * @param row The zero-based movie index within the segment.
+     * @return The release date as days since 1970-01-01, or {@link #UNKNOWN_DAY}.
+     */
+    public int releasedDay(int row) {
+        return releasedDays.get(row);
+    }
+
+    /**
+     * @param row The zero-based movie index within the segment.
+     * @return The id of the rating, or {@link #UNKNOWN_ID}.
+     */
+    public int ratedId(int row) {
+        return ratedIds.get(row);
+    }
+
+    /**
+     * @param row The zero-based movie index within the segment.
+     * @return The id of the director, or {@link #UNKNOWN_ID} for movies without a director.
+     */
+    public int directorId(int row) {
+        return directorIds.get(row);
+    }
+
+    /**
+     * @param row The zero-based movie index within the segment.
+     * @return The index of the movie's first genre, for {@link #genreId(int)}.
+     */
+    public int genreStart(int row) {
+        return genreOffsets.get(row);
+    }
+
+    /**
+     * @param row The zero-based movie index within the segment.
+     * @return The index just past the movie's last genre, for {@link #genreId(int)}.
+     */
+    public int genreEnd(int row) {
+        return genreOffsets.get(row + 1);
+    }
+
+    /**
+     * @param index An index between {@link #genreStart(int)} (inclusive) and {@link #genreEnd(int)} (exclusive).
+     * @return The id of the genre.
+     */
+    public int genreId(int index) {
+        return genreIds.get(index);
+    }
+
+    /**
+     * @return true if the columns are stored in direct buffers outside the Java heap.
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * @return The number of bytes held by the columns.
+     */
+    public long sizeInBytes() {
+        return (long) size * (2 * Short.BYTES + 4 * Integer.BYTES) + (long) genreIds.capacity() * Integer.BYTES
+                + Integer.BYTES;
+    }
+
+    /**
+     * The returned array is shared, not copied; callers must not modify it.
+     *
+     * @return SHA-256 hash of the columns, identical for segments holding the same movies on or off heap.
+     */
+    byte[] contentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Hashes the columns straight from the builder's arrays, column by column.
+     */
+    private static byte[] hash(Builder builder) {
+        int size = builder.size;
+        int genres = builder.genreOffsets[size];
+        ByteBuffer bytes = ByteBuffer.allocate(Integer.BYTES + size * (2 * Short.BYTES + 3 * Integer.BYTES)
+                + (size + 1 + genres) * Integer.BYTES);
+        bytes.putInt(size);
+        bytes.asShortBuffer().put(builder.years, 0, size).put(builder.runtimes, 0, size);
+        bytes.position(bytes.position() + size * 2 * Short.BYTES);
+        bytes.asIntBuffer().put(builder.releasedDays, 0, size).put(builder.ratedIds, 0, size)
+                .put(builder.directorIds, 0, size).put(builder.genreOffsets, 0, size + 1)
+                .put(builder.genreIds, 0, genres);
+        return sha256().digest(bytes.array());
+    }
+
+    /**
+     * @return A new SHA-256 digest.
+     */
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static ShortBuffer shorts(short[] values, int length, boolean offHeap) {
+        if (!offHeap) {
+            return ShortBuffer.wrap(Arrays.copyOf(values, length)).asReadOnlyBuffer();
+        }
+        ShortBuffer buffer = ByteBuffer.allocateDirect(length * Short.BYTES).order(ByteOrder.nativeOrder())
+                .asShortBuffer();
+        return buffer.put(values, 0, length).flip().asReadOnlyBuffer();
+    }
+
+    private static IntBuffer ints(int[] values, int length, boolean offHeap) {
+        if (!offHeap) {
+            return IntBuffer.wrap(Arrays.copyOf(values, length)).asReadOnlyBuffer();
+        }
+        IntBuffer buffer = ByteBuffer.allocateDirect(length * Integer.BYTES).order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+        return buffer.put(values, 0, length).flip().asReadOnlyBuffer();
+    }
+
+    /**
+     * Appends already encoded movies to growable arrays, which {@link #build(boolean)} trims into the columns.
+     * Not thread-safe.
+     */
+    public static final class Builder {
+
+        private int size;
+        private short[] years;
+        private short[] runtimes;
+        private int[] releasedDays;
+        private int[] ratedIds;
+        private int[] directorIds;
+        private int[] genreOffsets;
+        private int[] genreIds;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            this.years = new short[capacity];
+            this.runtimes = new short[capacity];
+            this.releasedDays = new int[capacity];
+            this.ratedIds = new int[capacity];
+            this.directorIds = new int[capacity];
+            this.genreOffsets = new int[capacity + 1];
+            this.genreIds = new int[capacity * 2];
+        }
+
+        /**
+         * Appends one movie.
+         *
+         * @param year        The release year, or {@link #UNKNOWN_SHORT}.
+         * @param runtime     The runtime in minutes, or {@link #UNKNOWN_SHORT}.
+         * @param releasedDay The release date as an epoch day, or {@link #UNKNOWN_DAY}.
+         * @param ratedId     The id of the rating, or {@link #UNKNOWN_ID}.
+         * @param directorId  The id of the director, or {@link #UNKNOWN_ID}.
+         * @param genres      Buffer holding the genre ids of the movie in its first {@code genreCount} slots.
+         * @param genreCount  The number of genres of the movie.
+         * @return This builder.
+         */
+        public Builder add(short year, short runtime, int releasedDay, int ratedId, int directorId,
+                           int[] genres, int genreCount) {
+            if (size == years.length) {
+                int capacity = size * 2;
+                years = Arrays.copyOf(years, capacity);
+                runtimes = Arrays.copyOf(runtimes, capacity);
+                releasedDays = Arrays.copyOf(releasedDays, capacity);
+                ratedIds = Arrays.copyOf(ratedIds, capacity);
+                directorIds = Arrays.copyOf(directorIds, capacity);
+                genreOffsets = Arrays.copyOf(genreOffsets, capacity + 1);
+            }
+            int genreStart = genreOffsets[size];
+            if (genreStart + genreCount > genreIds.length) {
+                genreIds = Arrays.copyOf(genreIds, Math.max(genreStart + genreCount, genreIds.length * 2));
+            }
+            System.arraycopy(genres, 0, genreIds, genreStart, genreCount);
+
+            years[size] = year;
+            runtimes[size] = runtime;
+            releasedDays[size] = releasedDay;
+            ratedIds[size] = ratedId;
+            directorIds[size] = directorId;
+            genreOffsets[++size] = genreStart + genreCount;
+            return this;
+        }
+
+        /**
+         * @param offHeap Whether the columns are copied into direct buffers outside the Java heap.
+         * @return The immutable segment of the movies added so far.
+         */
+        public MovieSegment build(boolean offHeap) {
+            return new MovieSegment(this, offHeap);
+        }
+    }
+}
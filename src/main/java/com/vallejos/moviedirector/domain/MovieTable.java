@@ -0,0 +1,204 @@
+package com.vallejos.moviedirector.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Immutable, columnar view of the whole movie catalog of one data version.
+ * <p>
+ * The catalog is a sequence of {@link MovieSegment}s, one per upstream page in page order, so a refresh
+ * that changes a single page replaces a single segment and shares all others with the previous table.
+ * The categorical columns of the segments hold dictionary ids; this table carries the names those ids
+ * stood for when it was built. Rows are addressed either per segment or by a catalog-wide row number.
+ * <p>
+ * The table carries a hash of its columns and dictionaries, so that answers computed from the movies
+ * themselves, such as filtered counts, can be tagged by the data they depend on. It combines the hashes
+ * each segment computed when it was built, so a refresh that changes one page only hashes that page.
+ * <p>
+ * The secondary {@link MovieIndex} is built on first use and then kept with the table, so refreshes that
+ * no filtered query follows never pay for it, and it is shared by refreshes that did not change the catalog.
+ * Building it scans the whole catalog, so callers on an event loop should trigger it elsewhere, see
+ * {@link #isIndexBuilt()}.
+ */
+public final class MovieTable {
+
+    /**
+     * Table without any movie.
+     */
+    public static final MovieTable EMPTY = new MovieTable(List.of(), new String[0], new String[0], new String[0]);
+
+    private final List<MovieSegment> segments;
+
+    /**
+     * Catalog-wide row number of the first movie of each segment, plus a trailing total.
+     */
+    private final int[] segmentStarts;
+    private final String[] directors;
+    private final String[] genres;
+    private final String[] ratings;
+    private final long sizeInBytes;
+    private final String contentHash;
+    private volatile MovieIndex index;
+
+    /**
+     * Constructs the table.
+     *
+     * @param segments  The segments in catalog order.
+     * @param directors The director names, indexed by director id.
+     * @param genres    The genre names, indexed by genre id.
+     * @param ratings   The ratings (e.g. {@code PG-13}), indexed by rating id.
+     */
+    public MovieTable(List<MovieSegment> segments, String[] directors, String[] genres, String[] ratings) {
+        this.segments = List.copyOf(segments);
+        this.segmentStarts = new int[this.segments.size() + 1];
+        long bytes = 0;
+        for (int i = 0; i < this.segments.size(); i++) {
+            segmentStarts[i + 1] = segmentStarts[i] + this.segments.get(i).size();
+            bytes += this.segments.get(i).sizeInBytes();
+        }
+        this.directors = directors.clone();
+        this.genres = genres.clone();
+        this.ratings = ratings.clone();
+        this.sizeInBytes = bytes;
+        this.contentHash = hash(this.segments, this.directors, this.genres, this.ratings);
+    }
+
+    /**
+     * @return The number of movies in the catalog.
+     */
+    public int size() {
+        return segmentStarts[segments.size()];
+    }
+
+    /**
+     * @return The segments in catalog order.
+     */
+    public List<MovieSegment> segments() {
+        return segments;
+    }
+
+    /**
+     * @param segment The index of a segment.
+     * @return The catalog-wide row number of the segment's first movie.
+     */
+    public int segmentStart(int segment) {
+        return segmentStarts[segment];
+    }
+
+    /**
+     * @param id A director id found in a segment.
+     * @return The director name.
+     */
+    public String directorName(int id) {
+        return directors[id];
+    }
+
+    /**
+     * @return The number of director ids, which is also their exclusive upper bound.
+     */
+    public int directorCount() {
+        return directors.length;
+    }
+
+    /**
+     * @param id A genre id found in a segment.
+     * @return The genre name.
+     */
+    public String genreName(int id) {
+        return genres[id];
+    }
+
+    /**
+     * @return The number of genre ids, which is also their exclusive upper bound.
+     */
+    public int genreCount() {
+        return genres.length;
+    }
+
+    /**
+     * @param id A rating id found in a segment.
+     * @return The rating.
+     */
+    public String ratingName(int id) {
+        return ratings[id];
+    }
+
+    /**
+     * @return The number of rating ids, which is also their exclusive upper bound.
+     */
+    public int ratingCount() {
+        return ratings.length;
+    }
+
+    /**
+     * Returns the secondary indexes of this table, building them on the first call.
+     *
+     * @return The bitmap indexes over the movies of this table.
+     */
+    public MovieIndex index() {
+        MovieIndex built = index;
+        if (built == null) {
+            synchronized (this) {
+                built = index;
+                if (built == null) {
+                    built = MovieIndex.of(this);
+                    index = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    /**
+     * @return true if {@link #index()} returns right away, without scanning the catalog.
+     */
+    public boolean isIndexBuilt() {
+        return index != null;
+    }
+
+    /**
+     * @return The number of bytes held by the secondary indexes, or 0 while they are not built.
+     */
+    public long indexSizeInBytes() {
+        MovieIndex built = index;
+        return built == null ? 0 : built.sizeInBytes();
+    }
+
+    /**
+     * @return The number of bytes held by the columns of all segments, excluding the dictionaries.
+     */
+    public long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * @return Hash of the columns and dictionaries, identical for identical catalogs.
+     */
+    public String contentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Hashes the segment hashes in catalog order, then the names the ids stand for. Names no movie refers to
+     * any more change the hash too, which only costs an entity tag that did not need to change.
+     */
+    private static String hash(List<MovieSegment> segments, String[]... dictionaries) {
+        MessageDigest digest = MovieSegment.sha256();
+        for (MovieSegment segment : segments) {
+            digest.update(segment.contentHash());
+        }
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        for (String[] names : dictionaries) {
+            digest.update(length.clear().putInt(names.length).flip());
+            for (String name : names) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                digest.update(length.clear().putInt(bytes.length).flip());
+                digest.update(bytes);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+}
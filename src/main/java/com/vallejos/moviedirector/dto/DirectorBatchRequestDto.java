@@ -0,0 +1,22 @@
+package com.vallejos.moviedirector.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DirectorBatchRequestDto {
+    /**
+     * Thresholds to answer, each with the same meaning as the {@code threshold} of {@code GET /api/directors}.
+     */
+    @NotEmpty
+    @Size(max = 64)
+    private List<@NotNull Integer> thresholds;
+}
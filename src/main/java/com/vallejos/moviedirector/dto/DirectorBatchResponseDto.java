@@ -0,0 +1,25 @@
+package com.vallejos.moviedirector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DirectorBatchResponseDto {
+    /**
+     * Every director qualifying for at least one of the thresholds, sorted alphabetically.
+     * Each name appears once and is shared by all results.
+     */
+    private List<String> directors;
+
+    /**
+     * Positions in {@link #directors} of the directors qualifying for each requested threshold, in ascending
+     * order, so every result reads back alphabetically.
+     */
+    private Map<Integer, List<Integer>> results;
+}
@@ -0,0 +1,17 @@
+package com.vallejos.moviedirector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DirectorCountDto {
+    private String director;
+
+    /**
+     * Number of movies directed.
+     */
+    private long movies;
+}
@@ -0,0 +1,44 @@
+package com.vallejos.moviedirector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional movie filters of {@code GET /api/directors}, bound from the query string. Only movies meeting
+ * every given filter are counted. Values are validated by the service, like the threshold.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DirectorFilterDto {
+    /**
+     * One of the movie's genres, e.g. {@code Drama}, compared ignoring case.
+     */
+    private String genre;
+
+    /**
+     * First release year, inclusive.
+     */
+    private String yearFrom;
+
+    /**
+     * Last release year, inclusive.
+     */
+    private String yearTo;
+
+    /**
+     * The movie's rating, e.g. {@code PG-13}, compared ignoring case.
+     */
+    private String rated;
+
+    /**
+     * Minimum runtime in minutes, inclusive.
+     */
+    private String runtimeMin;
+
+    /**
+     * Maximum runtime in minutes, inclusive.
+     */
+    private String runtimeMax;
+}
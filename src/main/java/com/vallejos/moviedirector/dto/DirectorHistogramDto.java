@@ -0,0 +1,17 @@
+package com.vallejos.moviedirector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.SortedMap;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DirectorHistogramDto {
+    /**
+     * Number of directors keyed by the exact number of movies they directed.
+     */
+    private SortedMap<Long, Integer> histogram;
+}
@@ -0,0 +1,41 @@
+package com.vallejos.moviedirector.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DirectorStreamRecordDto {
+
+    public static final String TYPE_DIRECTOR = "director";
+    public static final String TYPE_SUMMARY = "summary";
+
+    /**
+     * Either {@value #TYPE_DIRECTOR}, for a single qualifying director, or {@value #TYPE_SUMMARY} for the final record.
+     */
+    private String type;
+
+    /**
+     * The qualifying director of a {@value #TYPE_DIRECTOR} record.
+     */
+    private String director;
+
+    /**
+     * Every qualifying director, sorted alphabetically, in the {@value #TYPE_SUMMARY} record.
+     */
+    private List<String> directors;
+
+    public static DirectorStreamRecordDto director(String director) {
+        return new DirectorStreamRecordDto(TYPE_DIRECTOR, director, null);
+    }
+
+    public static DirectorStreamRecordDto summary(List<String> directors) {
+        return new DirectorStreamRecordDto(TYPE_SUMMARY, null, directors);
+    }
+}
@@ -0,0 +1,46 @@
+package com.vallejos.moviedirector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One upstream page together with the fingerprint that identifies its content.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MoviePageDto {
+    private int page;
+
+    private int totalPages;
+
+    /**
+     * Validator of the page content: the upstream ETag or Last-Modified date when available,
+     * otherwise a hash of the decoded movies.
+     */
+    private String fingerprint;
+
+    /**
+     * Whether the upstream confirmed (304 Not Modified) that the page matches the known fingerprint.
+     * Not-modified pages carry no movies.
+     */
+    private boolean notModified;
+
+    private List<MovieDto> movies;
+
+    /**
+     * Creates a page that the upstream reported as unchanged.
+     *
+     * @param page        The page number.
+     * @param totalPages  The last known number of pages.
+     * @param fingerprint The fingerprint that was revalidated.
+     * @return A not-modified page without movies.
+     */
+    public static MoviePageDto notModified(int page, int totalPages, String fingerprint) {
+        return new MoviePageDto(page, totalPages, fingerprint, true, Collections.emptyList());
+    }
+}
@@ -0,0 +1,17 @@
+package com.vallejos.moviedirector.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TopDirectorsResponseDto {
+    /**
+     * The most prolific directors, by movie count (descending) and then by name.
+     */
+    private List<DirectorCountDto> directors;
+}
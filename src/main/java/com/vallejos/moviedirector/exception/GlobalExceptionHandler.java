@@ -1,9 +1,12 @@
 package com.vallejos.moviedirector.exception;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
 
@@ -27,4 +30,36 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
         return ResponseEntity.badRequest().body(Collections.singletonMap("error", ex.getMessage()));
     }
+
+    /**
+     * Handles {@link UpstreamUnavailableException}, thrown while the movie API circuit breaker is open
+     * and no previously aggregated data is available.
+     *
+     * @param ex The caught {@link UpstreamUnavailableException}.
+     * @return A {@link ResponseEntity} with a 503 Service Unavailable status, a {@code Retry-After} header
+     *         and a JSON body containing the error message.
+     */
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleUpstreamUnavailableException(UpstreamUnavailableException ex) {
+        return serviceUnavailable(ex.getMessage(), ex.getRetryAfter());
+    }
+
+    /**
+     * Handles {@link ServiceOverloadedException}, thrown when a request is shed by the admission control.
+     *
+     * @param ex The caught {@link ServiceOverloadedException}.
+     * @return A {@link ResponseEntity} with a 503 Service Unavailable status, a {@code Retry-After} header
+     *         and a JSON body containing the error message.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        return serviceUnavailable(ex.getMessage(), ex.getRetryAfter());
+    }
+
+    private static ResponseEntity<Map<String, String>> serviceUnavailable(String message, Duration retryAfter) {
+        long retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Collections.singletonMap("error", message));
+    }
 }
@@ -0,0 +1,23 @@
+package com.vallejos.moviedirector.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is shed because the service is at its concurrency limit and the wait queue is full,
+ * or because it waited too long for a slot.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    /**
+     * Time after which the client may try again.
+     */
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
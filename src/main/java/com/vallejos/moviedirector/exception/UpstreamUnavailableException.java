@@ -0,0 +1,22 @@
+package com.vallejos.moviedirector.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of calling the movie API while its circuit breaker is open.
+ */
+@Getter
+public class UpstreamUnavailableException extends RuntimeException {
+
+    /**
+     * Time until the circuit breaker lets a probe request through.
+     */
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
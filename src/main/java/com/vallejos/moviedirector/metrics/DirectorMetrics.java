@@ -0,0 +1,152 @@
+package com.vallejos.moviedirector.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Metrics of the director aggregation.
+ * <ul>
+ *     <li>{@code directors.movies.ingested}: counter of movies read from changed upstream pages.</li>
+ *     <li>{@code directors.movies.skipped}: counter of those movies ignored because they have no director.</li>
+ *     <li>{@code directors.aggregation}: timer of a full refresh, from the first page request to the new counts.</li>
+ *     <li>{@code directors.distinct}: gauge of distinct directors in the latest counts.</li>
+ *     <li>{@code directors.store.movies}, {@code directors.store.bytes}, {@code directors.store.index.bytes}:
+ *     gauges of the movies held by the columnar movie store, the bytes of its columns and of its bitmap
+ *     indexes, 0 until a filtered query built them.</li>
+ *     <li>{@code directors.admission.limit}, {@code directors.admission.in.flight},
+ *     {@code directors.admission.queued}: gauges of the adaptive concurrency limiter.</li>
+ *     <li>{@code directors.admission.rejected}: counter of requests shed by the limiter.</li>
+ * </ul>
+ */
+@Component
+public class DirectorMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter moviesIngested;
+    private final Counter moviesSkipped;
+    private final Timer aggregation;
+    private final Counter admissionRejected;
+    private final AtomicInteger distinctDirectors = new AtomicInteger();
+    private final AtomicInteger storedMovies = new AtomicInteger();
+    private final AtomicLong storeBytes = new AtomicLong();
+
+    /**
+     * Registers the director aggregation meters.
+     *
+     * @param registry The registry to publish the meters to.
+     */
+    public DirectorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.moviesIngested = Counter.builder("directors.movies.ingested")
+                .description("Movies read from changed upstream pages")
+                .register(registry);
+        this.moviesSkipped = Counter.builder("directors.movies.skipped")
+                .description("Movies ignored because they have no director")
+                .register(registry);
+        this.aggregation = Timer.builder("directors.aggregation")
+                .description("Duration of a director count refresh")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("directors.distinct", distinctDirectors, AtomicInteger::get)
+                .description("Distinct directors in the latest counts")
+                .register(registry);
+        Gauge.builder("directors.store.movies", storedMovies, AtomicInteger::get)
+                .description("Movies held by the columnar movie store")
+                .register(registry);
+        Gauge.builder("directors.store.bytes", storeBytes, AtomicLong::get)
+                .description("Bytes of the columns of the movie store")
+                .baseUnit("bytes")
+                .register(registry);
+        this.admissionRejected = Counter.builder("directors.admission.rejected")
+                .description("Requests shed by the adaptive concurrency limiter")
+                .register(registry);
+    }
+
+    /**
+     * Registers the gauges of the adaptive concurrency limiter.
+     *
+     * @param limit    Supplies the current concurrency limit.
+     * @param inFlight Supplies the number of admitted requests still running.
+     * @param queued   Supplies the number of requests waiting for a slot.
+     */
+    public void registerAdmission(Supplier<Number> limit, Supplier<Number> inFlight, Supplier<Number> queued) {
+        Gauge.builder("directors.admission.limit", limit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("directors.admission.in.flight", inFlight)
+                .description("Admitted requests still running")
+                .register(registry);
+        Gauge.builder("directors.admission.queued", queued)
+                .description("Requests waiting for a slot")
+                .register(registry);
+    }
+
+    /**
+     * Registers the gauge of the bitmap indexes of the movie store, which are built after the refresh that
+     * built the table, on the first filtered query.
+     *
+     * @param indexBytes Supplies the number of bytes held by the indexes of the current table.
+     */
+    public void registerStoreIndex(Supplier<Number> indexBytes) {
+        Gauge.builder("directors.store.index.bytes", indexBytes)
+                .description("Bytes of the bitmap indexes of the movie store")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Records a request shed by the adaptive concurrency limiter.
+     */
+    public void recordAdmissionRejected() {
+        admissionRejected.increment();
+    }
+
+    /**
+     * Records the movies of one aggregated page.
+     *
+     * @param ingested Number of movies on the page.
+     * @param skipped  Number of those movies without a director.
+     */
+    public void recordPage(long ingested, long skipped) {
+        moviesIngested.increment(ingested);
+        moviesSkipped.increment(skipped);
+    }
+
+    /**
+     * Starts timing an aggregation.
+     *
+     * @return The sample to pass to {@link #recordAggregation(Timer.Sample, int)}.
+     */
+    public Timer.Sample startAggregation() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Records a completed aggregation.
+     *
+     * @param sample    The sample returned by {@link #startAggregation()}.
+     * @param directors Number of distinct directors in the new counts.
+     */
+    public void recordAggregation(Timer.Sample sample, int directors) {
+        sample.stop(aggregation);
+        distinctDirectors.set(directors);
+    }
+
+    /**
+     * Records the size of the movie table built by a refresh.
+     *
+     * @param movies Number of movies in the table.
+     * @param bytes  Number of bytes held by its columns.
+     */
+    public void recordStore(int movies, long bytes) {
+        storedMovies.set(movies);
+        storeBytes.set(bytes);
+    }
+}
@@ -0,0 +1,160 @@
+package com.vallejos.moviedirector.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Metrics of the calls made to the external movie API.
+ * <ul>
+ *     <li>{@code movie.api.page.fetch}: timer per page fetch, tagged with {@code page} and {@code outcome}.</li>
+ *     <li>{@code movie.api.pages.in.flight}: gauge of page requests currently in flight.</li>
+ *     <li>{@code movie.api.page.retries}: counter of page requests retried after a transient failure.</li>
+ *     <li>{@code movie.api.page.hedges}: counter of duplicate requests sent for slow pages.</li>
+ *     <li>{@code movie.api.circuit.state}: gauge per mirror, tagged with {@code mirror}, of its circuit breaker
+ *     state (0 closed, 1 half-open, 2 open).</li>
+ *     <li>{@code movie.api.rate.limit}, {@code movie.api.rate.queued}: gauges of the current request rate budget
+ *     and of the requests waiting for it.</li>
+ *     <li>{@code movie.api.throttled}: counter of 429 Too Many Requests responses.</li>
+ *     <li>{@code movie.api.mirror.outstanding}, {@code movie.api.mirror.ejected}: gauges per mirror, tagged with
+ *     {@code mirror}, of its requests in flight and whether it is ejected (1) or in rotation (0).</li>
+ * </ul>
+ */
+@Component
+public class MovieApiMetrics {
+
+    public static final String OUTCOME_SUCCESS = "SUCCESS";
+    public static final String OUTCOME_NOT_MODIFIED = "NOT_MODIFIED";
+    public static final String OUTCOME_ERROR = "ERROR";
+    public static final String OUTCOME_CANCELLED = "CANCELLED";
+
+    private final MeterRegistry registry;
+    private final AtomicInteger pagesInFlight = new AtomicInteger();
+    private final Counter retries;
+    private final Counter hedges;
+    private final Counter throttled;
+
+    /**
+     * Registers the movie API meters.
+     *
+     * @param registry The registry to publish the meters to.
+     */
+    public MovieApiMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("movie.api.pages.in.flight", pagesInFlight, AtomicInteger::get)
+                .description("Upstream page requests currently in flight")
+                .register(registry);
+        this.retries = Counter.builder("movie.api.page.retries")
+                .description("Page requests retried after a 5xx response, timeout or connection error")
+                .register(registry);
+        this.hedges = Counter.builder("movie.api.page.hedges")
+                .description("Duplicate requests sent for pages slower than the hedge delay")
+                .register(registry);
+        this.throttled = Counter.builder("movie.api.throttled")
+                .description("Upstream responses with status 429 Too Many Requests")
+                .register(registry);
+    }
+
+    /**
+     * Publishes the state of the circuit breaker guarding the page requests sent to one mirror.
+     *
+     * @param baseUrl The base URL of the mirror, used as the {@code mirror} tag.
+     * @param state   Supplies 0 while closed, 1 while half-open and 2 while open.
+     */
+    public void registerCircuitBreakerState(String baseUrl, Supplier<Number> state) {
+        Gauge.builder("movie.api.circuit.state", state)
+                .description("State of the circuit breaker of a movie API mirror: 0 closed, 1 half-open, 2 open")
+                .tag("mirror", String.valueOf(baseUrl))
+                .register(registry);
+    }
+
+    /**
+     * Publishes the state of the shared upstream rate limiter.
+     *
+     * @param rate   Supplies the current request rate budget in requests per second.
+     * @param queued Supplies the number of requests waiting for the budget.
+     */
+    public void registerRateLimiter(Supplier<Number> rate, Supplier<Number> queued) {
+        Gauge.builder("movie.api.rate.limit", rate)
+                .description("Current upstream request rate budget in requests per second")
+                .register(registry);
+        Gauge.builder("movie.api.rate.queued", queued)
+                .description("Upstream requests waiting for the rate budget")
+                .register(registry);
+    }
+
+    /**
+     * Publishes the state of one mirror of the movie API.
+     *
+     * @param baseUrl     The base URL of the mirror, used as the {@code mirror} tag.
+     * @param outstanding Supplies the number of requests in flight to the mirror.
+     * @param ejected     Supplies 1 while the mirror is ejected and 0 while it is in rotation.
+     */
+    public void registerMirror(String baseUrl, Supplier<Number> outstanding, Supplier<Number> ejected) {
+        Gauge.builder("movie.api.mirror.outstanding", outstanding)
+                .description("Requests in flight to a movie API mirror")
+                .tag("mirror", String.valueOf(baseUrl))
+                .register(registry);
+        Gauge.builder("movie.api.mirror.ejected", ejected)
+                .description("Whether a movie API mirror is ejected (1) or in rotation (0)")
+                .tag("mirror", String.valueOf(baseUrl))
+                .register(registry);
+    }
+
+    /**
+     * Counts an upstream response with status 429 Too Many Requests.
+     */
+    public void recordThrottled() {
+        throttled.increment();
+    }
+
+    /**
+     * Counts a page request retried after a transient failure.
+     */
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    /**
+     * Counts a duplicate request sent for a slow page.
+     */
+    public void recordHedge() {
+        hedges.increment();
+    }
+
+    /**
+     * Times a page fetch and tracks it as in flight while it runs.
+     *
+     * @param page      The page number being fetched.
+     * @param fetch     The page fetch.
+     * @param outcomeOf Derives the outcome tag from a successfully fetched page.
+     * @param <T>       The type of the fetched page.
+     * @return The instrumented page fetch.
+     */
+    public <T> Mono<T> recordPageFetch(int page, Mono<T> fetch, Function<? super T, String> outcomeOf) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            pagesInFlight.incrementAndGet();
+            return fetch
+                    .doOnSuccess(result -> stop(sample, page, result == null ? OUTCOME_SUCCESS : outcomeOf.apply(result)))
+                    .doOnError(error -> stop(sample, page, OUTCOME_ERROR))
+                    .doOnCancel(() -> stop(sample, page, OUTCOME_CANCELLED))
+                    .doFinally(signal -> pagesInFlight.decrementAndGet());
+        });
+    }
+
+    private void stop(Timer.Sample sample, int page, String outcome) {
+        sample.stop(Timer.builder("movie.api.page.fetch")
+                .description("Duration of a single upstream page fetch")
+                .tag("page", String.valueOf(page))
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+}
@@ -0,0 +1,229 @@
+package com.vallejos.moviedirector.service;
+
+import com.vallejos.moviedirector.configuration.DirectorAdmissionProperties;
+import com.vallejos.moviedirector.exception.ServiceOverloadedException;
+import com.vallejos.moviedirector.metrics.DirectorMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Adaptive concurrency limiter in front of the director service.
+ * <p>
+ * At most {@code limit} requests run at once. Excess requests wait in a bounded FIFO queue for a slot and are
+ * rejected with {@link ServiceOverloadedException} when the queue is full or their wait exceeds the maximum,
+ * so overload is shed early instead of slowing every request down until they time out.
+ * <p>
+ * The limit follows the gradient between the long-term average latency and the latency of each completed
+ * request: while requests are no slower than the tolerated increase over the average, the limit grows by
+ * about its square root; once they slow down, it shrinks in proportion, by at most half per estimate.
+ * Estimates are smoothed and only taken while the limit is actually in use.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private enum State {
+        WAITING, GRANTED, RUNNING, DONE
+    }
+
+    private final DirectorAdmissionProperties properties;
+    private final DirectorMetrics metrics;
+    private final LongSupplier nanoTime;
+    private final Scheduler scheduler;
+
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private double longRttNanos;
+
+    /**
+     * Constructs the limiter.
+     *
+     * @param properties The admission control configuration.
+     * @param metrics    The metrics the limit, the in-flight and queued requests and rejections are published to.
+     */
+    @Autowired
+    public AdaptiveConcurrencyLimiter(DirectorAdmissionProperties properties, DirectorMetrics metrics) {
+        this(properties, metrics, System::nanoTime, Schedulers.parallel());
+    }
+
+    AdaptiveConcurrencyLimiter(DirectorAdmissionProperties properties, DirectorMetrics metrics,
+                               LongSupplier nanoTime, Scheduler scheduler) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.nanoTime = nanoTime;
+        this.scheduler = scheduler;
+        this.limit = clamp(properties.getInitialLimit());
+        metrics.registerAdmission(this::limit, this::inFlight, this::queued);
+    }
+
+    /**
+     * Runs a request once a slot is available.
+     *
+     * @param work The request; it is not subscribed until admitted.
+     * @param <T>  The type of the response.
+     * @return The admitted request, failing with {@link ServiceOverloadedException} if it is shed.
+     */
+    public <T> Mono<T> protect(Mono<T> work) {
+        if (!properties.isEnabled()) {
+            return work;
+        }
+        return Mono.<Waiter>create(this::admit)
+                .flatMap(waiter -> {
+                    if (!waiter.state.compareAndSet(State.GRANTED, State.RUNNING)) {
+                        return Mono.empty();
+                    }
+                    long start = nanoTime.getAsLong();
+                    return work.doFinally(signal ->
+                            release(signal == SignalType.ON_COMPLETE ? nanoTime.getAsLong() - start : -1));
+                });
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized int queued() {
+        return queue.size();
+    }
+
+    private void admit(MonoSink<Waiter> sink) {
+        Waiter waiter = new Waiter(sink);
+        // Registered first, so a cancellation racing with the grant never leaks the slot.
+        sink.onCancel(() -> cancel(waiter));
+        State admission;
+        synchronized (this) {
+            if (queue.isEmpty() && inFlight < (int) limit) {
+                if (!waiter.state.compareAndSet(State.WAITING, State.GRANTED)) {
+                    return;
+                }
+                inFlight++;
+                admission = State.GRANTED;
+            } else if (queue.size() < properties.getMaxQueueSize()) {
+                if (waiter.state.get() != State.WAITING) {
+                    return;
+                }
+                queue.addLast(waiter);
+                admission = State.WAITING;
+            } else {
+                admission = State.DONE;
+            }
+        }
+        if (admission == State.GRANTED) {
+            sink.success(waiter);
+        } else if (admission == State.WAITING) {
+            waiter.expiry = scheduler.schedule(() -> expire(waiter),
+                    properties.getMaxQueueWait().toNanos(), TimeUnit.NANOSECONDS);
+        } else {
+            reject(waiter, "Too many concurrent requests");
+        }
+    }
+
+    private void expire(Waiter waiter) {
+        if (waiter.state.compareAndSet(State.WAITING, State.DONE)) {
+            synchronized (this) {
+                queue.remove(waiter);
+            }
+            reject(waiter, "Timed out waiting for a free request slot");
+        }
+    }
+
+    private void cancel(Waiter waiter) {
+        if (waiter.state.compareAndSet(State.WAITING, State.DONE)) {
+            synchronized (this) {
+                queue.remove(waiter);
+            }
+            waiter.disposeExpiry();
+        } else if (waiter.state.compareAndSet(State.GRANTED, State.DONE)) {
+            release(-1);
+        }
+    }
+
+    private void reject(Waiter waiter, String message) {
+        metrics.recordAdmissionRejected();
+        waiter.sink.error(new ServiceOverloadedException(message, properties.getRetryAfter()));
+    }
+
+    /**
+     * Frees a slot, adapts the limit to the latency of the request if it completed, and admits queued requests.
+     *
+     * @param rttNanos Latency of the completed request, or a negative value if it failed or was cancelled.
+     */
+    private void release(long rttNanos) {
+        synchronized (this) {
+            int concurrency = inFlight--;
+            if (rttNanos >= 0) {
+                adapt(Math.max(1, rttNanos), concurrency);
+            }
+        }
+        drain();
+    }
+
+    private void adapt(double rtt, int concurrency) {
+        longRttNanos = longRttNanos == 0 ? rtt : longRttNanos + (rtt - longRttNanos) / properties.getLongWindow();
+        // After a latency spike the long-term average lags behind; let it recover faster once requests are quick again.
+        if (longRttNanos > 2 * rtt) {
+            longRttNanos *= 0.95;
+        }
+        // Requests running far below the limit say nothing about whether the limit itself is too high or too low.
+        if (concurrency < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRttNanos / rtt));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - properties.getSmoothing()) + estimate * properties.getSmoothing());
+    }
+
+    private void drain() {
+        while (true) {
+            Waiter next;
+            synchronized (this) {
+                if (inFlight >= (int) limit || (next = queue.pollFirst()) == null) {
+                    return;
+                }
+                if (!next.state.compareAndSet(State.WAITING, State.GRANTED)) {
+                    continue;
+                }
+                inFlight++;
+            }
+            next.disposeExpiry();
+            next.sink.success(next);
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), value));
+    }
+
+    private static final class Waiter {
+
+        private final MonoSink<Waiter> sink;
+        private final AtomicReference<State> state = new AtomicReference<>(State.WAITING);
+        private volatile Disposable expiry;
+
+        private Waiter(MonoSink<Waiter> sink) {
+            this.sink = sink;
+        }
+
+        private void disposeExpiry() {
+            Disposable scheduled = expiry;
+            if (scheduled != null) {
+                scheduled.dispose();
+            }
+        }
+    }
+}
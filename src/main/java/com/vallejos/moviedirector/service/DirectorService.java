@@ -1,16 +1,42 @@
 package com.vallejos.moviedirector.service;
 
+import com.vallejos.moviedirector.cache.DirectorSnapshotCache;
+import com.vallejos.moviedirector.cache.DirectorSnapshotStore;
 import com.vallejos.moviedirector.client.MovieApiClient;
-import com.vallejos.moviedirector.domain.Movie;
+import com.vallejos.moviedirector.configuration.DirectorCacheProperties;
+import com.vallejos.moviedirector.configuration.MovieStoreProperties;
+import com.vallejos.moviedirector.domain.DirectorIndex;
+import com.vallejos.moviedirector.domain.DirectorSnapshot;
+import com.vallejos.moviedirector.domain.MovieFilter;
+import com.vallejos.moviedirector.domain.MovieIndex;
+import com.vallejos.moviedirector.domain.MovieTable;
+import com.vallejos.moviedirector.dto.DirectorBatchResponseDto;
+import com.vallejos.moviedirector.dto.DirectorCountDto;
+import com.vallejos.moviedirector.dto.DirectorFilterDto;
+import com.vallejos.moviedirector.dto.DirectorHistogramDto;
 import com.vallejos.moviedirector.dto.DirectorResponseDto;
+import com.vallejos.moviedirector.dto.DirectorStreamRecordDto;
+import com.vallejos.moviedirector.dto.TopDirectorsResponseDto;
 import com.vallejos.moviedirector.mapper.MovieMapper;
+import com.vallejos.moviedirector.metrics.DirectorMetrics;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -20,62 +46,399 @@ import java.util.stream.Collectors;
 @Service
 public class DirectorService {
 
-    private final MovieApiClient movieApiClient;
-    private final MovieMapper movieMapper;
+    private final IncrementalDirectorAggregator aggregator;
+    private final DirectorSnapshotCache<Flux<PageCounts>> snapshotCache;
+    private final MovieStoreProperties storeProperties;
 
     /**
      * Constructs the service with its required dependencies.
      *
-     * @param movieApiClient The client to fetch movie data from an external source.
-     * @param movieMapper    The mapper to convert between DTOs and domain objects.
+     * @param movieApiClient  The client to fetch movie data from an external source.
+     * @param movieMapper     The mapper to convert between DTOs and domain objects.
+     * @param cacheProperties The configuration of the director snapshot cache.
+     * @param snapshotStore   The store that persists snapshots across restarts.
+     * @param metrics         The metrics recorded for every aggregation.
+     * @param storeProperties The configuration of the columnar movie store kept with every snapshot.
      */
-    public DirectorService(@Qualifier("webClientMovieApiClient") MovieApiClient movieApiClient, MovieMapper movieMapper) {
-        this.movieApiClient = movieApiClient;
-        this.movieMapper = movieMapper;
+    public DirectorService(@Qualifier("webClientMovieApiClient") MovieApiClient movieApiClient, MovieMapper movieMapper,
+                           DirectorCacheProperties cacheProperties, DirectorSnapshotStore snapshotStore,
+                           DirectorMetrics metrics, MovieStoreProperties storeProperties) {
+        this.storeProperties = storeProperties;
+        this.aggregator = new IncrementalDirectorAggregator(movieApiClient, movieMapper, metrics, storeProperties);
+        this.snapshotCache = new DirectorSnapshotCache<>(cacheProperties.getTtl(), aggregator::refresh,
+                Clock.systemUTC(), snapshotStore::saveInBackground, aggregator::table, aggregator::pageCounts);
+        snapshotStore.load().ifPresent(snapshotCache::restore);
     }
 
     /**
      * Main orchestration method to get directors who have directed more movies than a given threshold.
      * It handles input validation and coordinates the reactive data flow.
+     * Results are computed from the cached director snapshot, which is refreshed in the background once stale.
      *
      * @param thresholdStr The threshold value as a string.
-     * @return A {@link Mono} emitting a {@link DirectorResponseDto} with the list of directors.
-     *         Returns an empty list for negative thresholds.
+     * @return A {@link Mono} emitting a {@link DirectorResponseDto} with the list of directors, along with
+     *         the snapshot it was computed from. Returns an empty list for negative thresholds.
      * @throws IllegalArgumentException if the threshold is not a valid number.
      */
-    public Mono<DirectorResponseDto> getDirectorsWithMoreMoviesThan(String thresholdStr) {
+    public Mono<SnapshotResult<DirectorResponseDto>> getDirectorsWithMoreMoviesThan(String thresholdStr) {
+        return getDirectorsWithMoreMoviesThan(thresholdStr, new DirectorFilterDto());
+    }
+
+    /**
+     * Gets the directors who have directed more movies than a given threshold, counting only the movies that
+     * meet every given filter.
+     * Without filters this is answered from the director index like {@link #getDirectorsWithMoreMoviesThan(String)}.
+     * With filters the snapshot's movie table is queried through its bitmap indexes, which are built once per
+     * data version; a snapshot restored from disk has no table yet, so the first filtered query waits for a load.
+     *
+     * @param thresholdStr The threshold value as a string.
+     * @param filterDto    The optional genre, year range, rating and runtime range filters.
+     * @return A {@link Mono} emitting a {@link DirectorResponseDto} with the sorted list of directors, along with
+     *         the snapshot it was computed from. Returns an empty list for negative thresholds.
+     * @throws IllegalArgumentException if the threshold or a filter is invalid, or filters are given while the
+     *                                  movie store is disabled.
+     */
+    public Mono<SnapshotResult<DirectorResponseDto>> getDirectorsWithMoreMoviesThan(String thresholdStr,
+                                                                                    DirectorFilterDto filterDto) {
+        int threshold = parseAndValidateThreshold(thresholdStr);
+        MovieFilter filter = parseAndValidateFilter(filterDto);
+
+        if (threshold < 0) {
+            return Mono.just(SnapshotResult.unversioned(new DirectorResponseDto(Collections.emptyList())));
+        }
+
+        if (filter.isEmpty()) {
+            return fromSnapshot("directors-" + threshold,
+                    snapshot -> calculateDirectorResponse(snapshot.getIndex(), threshold));
+        }
+        if (!storeProperties.isEnabled()) {
+            throw new IllegalArgumentException("Movie filters require the movie store to be enabled");
+        }
+        Mono<DirectorSnapshot> snapshotWithTable = snapshotCache.get()
+                .flatMap(snapshot -> snapshot.getTable() != null ? Mono.just(snapshot) : snapshotCache.reload())
+                .flatMap(this::withMovieIndex);
+        return fromSnapshot(snapshotWithTable, snapshot -> snapshot.getTable().contentHash(),
+                "directors-" + threshold + filterKey(filter),
+                snapshot -> calculateFilteredResponse(snapshot.getTable(), filter, threshold));
+    }
+
+    /**
+     * Streams the directors who have directed more movies than a given threshold, one record per director,
+     * followed by a final summary record with the alphabetically sorted list.
+     * <p>
+     * When a snapshot is cached, the records are emitted from it right away. Otherwise the stream joins the
+     * shared load of the snapshot cache, or starts it, and each director is emitted as soon as their running
+     * count first exceeds the threshold, while later pages are still arriving; the director records are then
+     * in discovery order. Concurrent streams share that one crawl, which also seeds the snapshot.
+     *
+     * @param thresholdStr The threshold value as a string.
+     * @return A {@link Flux} of director records terminated by one summary record.
+     *         Only an empty summary is emitted for negative thresholds.
+     * @throws IllegalArgumentException if the threshold is not a valid number.
+     */
+    public Flux<DirectorStreamRecordDto> streamDirectorsWithMoreMoviesThan(String thresholdStr) {
         int threshold = parseAndValidateThreshold(thresholdStr);
 
         if (threshold < 0) {
-            return Mono.just(new DirectorResponseDto(Collections.emptyList()));
+            return Flux.just(DirectorStreamRecordDto.summary(Collections.emptyList()));
         }
 
-        return movieApiClient.fetchAllMovies()
-                .map(movieMapper::toDomain)
-                .collectList()
-                .map(movies -> calculateDirectorResponse(movies, threshold));
+        return Flux.defer(() -> snapshotCache.getIfPresent()
+                .flatMapMany(snapshot -> streamFromIndex(snapshot.getIndex(), threshold))
+                .switchIfEmpty(Flux.defer(() -> streamWhileLoading(threshold))));
     }
 
     /**
-     * Calculates the list of directors who meet the threshold from a given list of movies.
+     * Answers several thresholds at once from a single snapshot, so a caller needing N thresholds triggers
+     * at most one crawl and aggregation instead of N.
+     *
+     * @param thresholds The thresholds to answer; negative thresholds yield an empty result.
+     * @return A {@link Mono} emitting a {@link DirectorBatchResponseDto} whose results reference a shared,
+     *         alphabetically sorted list of director names, along with the snapshot it was computed from.
+     */
+    public Mono<SnapshotResult<DirectorBatchResponseDto>> getDirectorsForThresholds(List<Integer> thresholds) {
+        int[] ascending = thresholds.stream()
+                .mapToInt(Integer::intValue)
+                .filter(threshold -> threshold >= 0)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        if (ascending.length == 0) {
+            return Mono.just(SnapshotResult.unversioned(calculateBatchResponse(List.of(), Map.of(), thresholds)));
+        }
+
+        String resource = thresholds.stream().map(String::valueOf).collect(Collectors.joining(",", "batch-", ""));
+        return fromSnapshot(resource,
+                snapshot -> calculateBatchResponse(snapshot, thresholds, ascending));
+    }
+
+    /**
+     * Gets the k directors with the most movies, ties broken alphabetically.
+     * The snapshot's index keeps directors ranked, so this reads the first k ranks and costs O(k)
+     * regardless of how many distinct directors there are.
+     *
+     * @param kStr The number of directors to return, as a string.
+     * @return A {@link Mono} emitting a {@link TopDirectorsResponseDto} with at most k directors and their counts,
+     *         along with the snapshot it was computed from.
+     * @throws IllegalArgumentException if k is not a positive number.
+     */
+    public Mono<SnapshotResult<TopDirectorsResponseDto>> getTopDirectors(String kStr) {
+        int k = parseAndValidateK(kStr);
+
+        return fromSnapshot("top-" + k, snapshot -> calculateTopDirectors(snapshot.getIndex(), k));
+    }
+
+    /**
+     * Gets how many directors have directed exactly k movies, for every k present in the catalog.
+     *
+     * @return A {@link Mono} emitting a {@link DirectorHistogramDto} keyed by movie count in ascending order,
+     *         along with the snapshot it was computed from.
+     */
+    public Mono<SnapshotResult<DirectorHistogramDto>> getDirectorHistogram() {
+        return fromSnapshot("histogram", snapshot -> new DirectorHistogramDto(snapshot.getIndex().histogram()));
+    }
+
+    /**
+     * Tags the response body computed from the cached snapshot with that snapshot's version, freshness and an
+     * entity tag identifying the data and the requested resource. The body is only computed once the web
+     * layer needs it, see {@link SnapshotResult}.
+     * While the upstream is unavailable, this keeps answering from the last successfully aggregated snapshot.
+     *
+     * @param resource Identifies what was requested, e.g. the threshold, so equal data yields distinct tags.
+     */
+    private <T> Mono<SnapshotResult<T>> fromSnapshot(String resource, Function<DirectorSnapshot, T> compute) {
+        return fromSnapshot(snapshotCache.get(), DirectorSnapshot::getContentHash, resource, compute);
+    }
+
+    /**
+     * Emits the snapshot once its movie table has built its {@link MovieIndex}. The first filtered query of a
+     * table builds it on a bounded elastic worker, since it scans the whole catalog; later ones pass through.
+     */
+    private Mono<DirectorSnapshot> withMovieIndex(DirectorSnapshot snapshot) {
+        MovieTable table = snapshot.getTable();
+        if (table.isIndexBuilt()) {
+            return Mono.just(snapshot);
+        }
+        return Mono.fromCallable(() -> {
+                    table.index();
+                    return snapshot;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Like {@link #fromSnapshot(String, Function)}, for bodies that depend on more than the director counts.
+     *
+     * @param contentHash Hashes the data the body is computed from, e.g. the movie table for filtered counts,
+     *                    which can change while the director counts stay the same.
+     */
+    private <T> Mono<SnapshotResult<T>> fromSnapshot(Mono<DirectorSnapshot> snapshots,
+                                                     Function<DirectorSnapshot, String> contentHash, String resource,
+                                                     Function<DirectorSnapshot, T> compute) {
+        return snapshots
+                .map(snapshot -> new SnapshotResult<>(() -> compute.apply(snapshot), snapshot.getVersion(),
+                        "\"" + contentHash.apply(snapshot) + "-" + resource + "\"",
+                        snapshot.getCreatedAt(), snapshotCache.isStale(snapshot)));
+    }
+
+    /**
+     * Calculates the list of directors who meet the threshold from the snapshot's director index.
      * This method contains the pure business logic and is designed for easy testing.
      *
-     * @param movies    The list of {@link Movie} domain objects.
+     * @param index     The {@link DirectorIndex} built for the current data version.
      * @param threshold The minimum number of movies directed (exclusive).
      * @return A {@link DirectorResponseDto} containing the sorted list of director names.
      */
-    private DirectorResponseDto calculateDirectorResponse(List<Movie> movies, int threshold) {
-        Map<String, Long> directorCounts = movies.stream()
-                .filter(Movie::hasDirector)
-                .collect(Collectors.groupingBy(Movie::getDirector, Collectors.counting()));
+    private DirectorResponseDto calculateDirectorResponse(DirectorIndex index, int threshold) {
+        return new DirectorResponseDto(index.directorsWithMoreMoviesThan(threshold));
+    }
 
-        List<String> directors = directorCounts.entrySet().stream()
-                .filter(entry -> entry.getValue() > threshold)
-                .map(Map.Entry::getKey)
-                .sorted()
-                .toList();
+    /**
+     * Selects the movies meeting the filter through the table's bitmap indexes and counts them per director.
+     *
+     * @param table     The {@link MovieTable} of the current data version.
+     * @param filter    The conditions a movie has to meet to be counted.
+     * @param threshold The minimum number of matching movies directed (exclusive).
+     * @return A {@link DirectorResponseDto} containing the sorted list of director names.
+     */
+    private DirectorResponseDto calculateFilteredResponse(MovieTable table, MovieFilter filter, int threshold) {
+        MovieIndex index = table.index();
+        int[] counts = index.countByDirector(index.select(filter));
+        List<String> directors = new ArrayList<>();
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] > threshold) {
+                directors.add(table.directorName(id));
+            }
+        }
+        directors.sort(Comparator.naturalOrder());
+        return new DirectorResponseDto(List.copyOf(directors));
+    }
+
+    private Flux<DirectorStreamRecordDto> streamFromIndex(DirectorIndex index, int threshold) {
+        List<String> directors = index.directorsWithMoreMoviesThan(threshold);
+        return Flux.fromIterable(directors)
+                .map(DirectorStreamRecordDto::director)
+                .concatWith(Mono.just(DirectorStreamRecordDto.summary(directors)));
+    }
+
+    /**
+     * Adds up the page counts of the shared load while the pages arrive, emitting each director the moment
+     * their count first exceeds the threshold. The summary is taken from the snapshot the load builds.
+     * Both are taken from one {@link DirectorSnapshotCache.Load}, so they always belong to the same refresh.
+     */
+    private Flux<DirectorStreamRecordDto> streamWhileLoading(int threshold) {
+        DirectorSnapshotCache.Load<Flux<PageCounts>> load = snapshotCache.load();
+        Mono<DirectorSnapshot> snapshot = load.getSnapshot();
+        Map<String, Integer> counts = new HashMap<>();
+        return load.getProgress().mergeWith(snapshot.then(Mono.<PageCounts>empty()))
+                .<DirectorStreamRecordDto>handle((page, sink) -> {
+                    for (int i = 0; i < page.size(); i++) {
+                        int count = counts.merge(page.director(i), page.count(i), Integer::sum);
+                        if (count > threshold && count - page.count(i) <= threshold) {
+                            sink.next(DirectorStreamRecordDto.director(page.director(i)));
+                        }
+                    }
+                })
+                .concatWith(snapshot.map(loaded -> DirectorStreamRecordDto.summary(
+                        loaded.getIndex().directorsWithMoreMoviesThan(threshold))));
+    }
+
+    /**
+     * Walks the directors qualifying for the lowest threshold once, assigning each one to every
+     * (ascending) threshold its movie count exceeds.
+     */
+    private DirectorBatchResponseDto calculateBatchResponse(DirectorSnapshot snapshot, List<Integer> thresholds,
+                                                            int[] ascending) {
+        List<String> directors = snapshot.getIndex().directorsWithMoreMoviesThan(ascending[0]);
+        long[] counts = snapshot.getIndex().countsOfDirectorsWithMoreMoviesThan(ascending[0]);
+        Map<Integer, List<Integer>> positions = new HashMap<>();
+        for (int threshold : ascending) {
+            positions.put(threshold, new ArrayList<>());
+        }
+
+        for (int position = 0; position < directors.size(); position++) {
+            long count = counts[position];
+            for (int threshold : ascending) {
+                if (count <= threshold) {
+                    break;
+                }
+                positions.get(threshold).add(position);
+            }
+        }
+        return calculateBatchResponse(directors, positions, thresholds);
+    }
+
+    private DirectorBatchResponseDto calculateBatchResponse(List<String> directors,
+                                                            Map<Integer, List<Integer>> positions,
+                                                            List<Integer> thresholds) {
+        Map<Integer, List<Integer>> results = new LinkedHashMap<>();
+        for (Integer threshold : thresholds) {
+            results.put(threshold, positions.getOrDefault(threshold, List.of()));
+        }
+        return new DirectorBatchResponseDto(directors, results);
+    }
+
+    private TopDirectorsResponseDto calculateTopDirectors(DirectorIndex index, int k) {
+        int size = Math.min(k, index.size());
+        List<DirectorCountDto> directors = new ArrayList<>(size);
+        for (int rank = 0; rank < size; rank++) {
+            directors.add(new DirectorCountDto(index.directorAt(rank), index.countAt(rank)));
+        }
+        return new TopDirectorsResponseDto(directors);
+    }
+
+    /**
+     * Parses and validates the number of top directors requested.
+     *
+     * @param kStr The value of k as a string.
+     * @return The parsed, positive value of k.
+     * @throws IllegalArgumentException if the string is not a positive integer.
+     */
+    private int parseAndValidateK(String kStr) {
+        int k;
+        try {
+            k = Integer.parseInt(kStr);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("k must be a number");
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        return k;
+    }
+
+    /**
+     * Parses and validates the movie filters; blank values count as absent.
+     *
+     * @param filterDto The filters as strings.
+     * @return The parsed filter, empty if no filter was given.
+     * @throws IllegalArgumentException if a bound is not a non-negative integer or a range is inverted.
+     */
+    private MovieFilter parseAndValidateFilter(DirectorFilterDto filterDto) {
+        Integer yearFrom = parseOptionalBound(filterDto.getYearFrom(), "yearFrom");
+        Integer yearTo = parseOptionalBound(filterDto.getYearTo(), "yearTo");
+        Integer runtimeMin = parseOptionalBound(filterDto.getRuntimeMin(), "runtimeMin");
+        Integer runtimeMax = parseOptionalBound(filterDto.getRuntimeMax(), "runtimeMax");
+        if (yearFrom != null && yearTo != null && yearFrom > yearTo) {
+            throw new IllegalArgumentException("yearFrom must not be greater than yearTo");
+        }
+        if (runtimeMin != null && runtimeMax != null && runtimeMin > runtimeMax) {
+            throw new IllegalArgumentException("runtimeMin must not be greater than runtimeMax");
+        }
+        return new MovieFilter(trimToNull(filterDto.getGenre()), yearFrom, yearTo, trimToNull(filterDto.getRated()),
+                runtimeMin, runtimeMax);
+    }
+
+    private Integer parseOptionalBound(String value, String name) {
+        String trimmed = trimToNull(value);
+        if (trimmed == null) {
+            return null;
+        }
+        int bound;
+        try {
+            bound = Integer.parseInt(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+        if (bound < 0) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+        return bound;
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Identifies the filter in entity tags. Names are compared ignoring case, so they are lower-cased, and
+     * URL-encoded so no user input can break the quoted tag.
+     */
+    private static String filterKey(MovieFilter filter) {
+        StringBuilder key = new StringBuilder();
+        if (filter.getGenre() != null) {
+            key.append(";genre=").append(encode(filter.getGenre()));
+        }
+        if (filter.hasYearRange()) {
+            key.append(";year=").append(bound(filter.getYearFrom())).append('-').append(bound(filter.getYearTo()));
+        }
+        if (filter.getRated() != null) {
+            key.append(";rated=").append(encode(filter.getRated()));
+        }
+        if (filter.hasRuntimeRange()) {
+            key.append(";runtime=").append(bound(filter.getRuntimeMin())).append('-')
+                    .append(bound(filter.getRuntimeMax()));
+        }
+        return key.toString();
+    }
+
+    private static String encode(String name) {
+        return URLEncoder.encode(name.toLowerCase(Locale.ROOT), StandardCharsets.UTF_8);
+    }
 
-        return new DirectorResponseDto(directors);
+    private static String bound(Integer bound) {
+        return bound == null ? "" : bound.toString();
     }
 
     /**
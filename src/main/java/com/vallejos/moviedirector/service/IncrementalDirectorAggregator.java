@@ -0,0 +1,327 @@
+package com.vallejos.moviedirector.service;
+
+import com.vallejos.moviedirector.client.MovieApiClient;
+import com.vallejos.moviedirector.configuration.MovieStoreProperties;
+import com.vallejos.moviedirector.domain.DirectorIndex;
+import com.vallejos.moviedirector.domain.Movie;
+import com.vallejos.moviedirector.domain.MovieSegment;
+import com.vallejos.moviedirector.domain.MovieTable;
+import com.vallejos.moviedirector.dto.MovieDto;
+import com.vallejos.moviedirector.dto.MoviePageDto;
+import com.vallejos.moviedirector.mapper.MovieMapper;
+import com.vallejos.moviedirector.metrics.DirectorMetrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Maintains the per-director movie counts across refreshes by remembering what each upstream page contributed.
+ * <p>
+ * On every refresh the known page fingerprints are sent back to the upstream. Pages that come back unchanged
+ * (304 Not Modified, or the same content fingerprint) are skipped; for a changed page its previous contribution
+ * is subtracted from the totals and the new one added. Pages that no longer exist are subtracted at the end.
+ * The refresh works on a copy of the previous state, which is only replaced once the whole crawl succeeded.
+ * <p>
+ * Director names are interned into a {@link StringDictionary} that outlives individual refreshes, so
+ * counting a movie is one dictionary probe plus an {@code int[]} increment, and page contributions and
+ * totals are kept as primitive arrays indexed by director id rather than maps of boxed counts.
+ * <p>
+ * Unless disabled, every changed page is also encoded into a columnar {@link MovieSegment} in the same pass,
+ * and the segments of all pages form the {@link MovieTable} of the refresh. Unchanged pages keep their
+ * segment, so only changed pages are parsed again.
+ * <p>
+ * What every page contributes, changed or not, is also published as {@link PageCounts} while the refresh runs,
+ * so callers waiting for the refresh can follow the counts as the pages arrive.
+ * <p>
+ * Refreshes must not run concurrently; {@link com.vallejos.moviedirector.cache.DirectorSnapshotCache}
+ * guarantees this by running a single load at a time.
+ */
+@Slf4j
+public class IncrementalDirectorAggregator {
+
+    private final MovieApiClient movieApiClient;
+    private final MovieMapper movieMapper;
+    private final DirectorMetrics metrics;
+    private final MovieStoreProperties storeProperties;
+
+    private final StringDictionary dictionary = new StringDictionary();
+    private final MovieColumnEncoder encoder = new MovieColumnEncoder();
+
+    private volatile State state = new State(Map.of(), new int[0], DirectorIndex.of(Map.of()), MovieTable.EMPTY);
+
+    /**
+     * Replays the page counts of the running refresh, or of the next one if none is running.
+     */
+    private final AtomicReference<Sinks.Many<PageCounts>> pageCounts =
+            new AtomicReference<>(Sinks.many().replay().all());
+
+    /**
+     * Constructs the aggregator with the default, on-heap movie store.
+     *
+     * @param movieApiClient The client to fetch movie pages from an external source.
+     * @param movieMapper    The mapper to convert between DTOs and domain objects.
+     * @param metrics        The metrics recorded for every refresh.
+     */
+    public IncrementalDirectorAggregator(MovieApiClient movieApiClient, MovieMapper movieMapper, DirectorMetrics metrics) {
+        this(movieApiClient, movieMapper, metrics, new MovieStoreProperties());
+    }
+
+    /**
+     * Constructs the aggregator.
+     *
+     * @param movieApiClient  The client to fetch movie pages from an external source.
+     * @param movieMapper     The mapper to convert between DTOs and domain objects.
+     * @param metrics         The metrics recorded for every refresh.
+     * @param storeProperties The configuration of the columnar movie store.
+     */
+    public IncrementalDirectorAggregator(MovieApiClient movieApiClient, MovieMapper movieMapper, DirectorMetrics metrics,
+                                         MovieStoreProperties storeProperties) {
+        this.movieApiClient = movieApiClient;
+        this.movieMapper = movieMapper;
+        this.metrics = metrics;
+        this.storeProperties = storeProperties;
+        metrics.registerStoreIndex(() -> state.getTable().indexSizeInBytes());
+    }
+
+    /**
+     * Revalidates every page and re-aggregates only the pages that changed since the last refresh.
+     *
+     * @return A {@link Mono} emitting the index over the up-to-date number of movies per director.
+     */
+    public Mono<DirectorIndex> refresh() {
+        return Mono.defer(() -> {
+            Timer.Sample sample = metrics.startAggregation();
+            Refresh refresh = new Refresh(state);
+            Sinks.Many<PageCounts> published = pageCounts.get();
+            return movieApiClient.fetchAllPages(refresh.knownFingerprints())
+                    .doOnNext(page -> published.tryEmitNext(refresh.apply(page)))
+                    .then(Mono.fromCallable(() -> {
+                        State next = refresh.complete();
+                        state = next;
+                        metrics.recordAggregation(sample, next.getIndex().size());
+                        metrics.recordStore(next.getTable().size(), next.getTable().sizeInBytes());
+                        return next.getIndex();
+                    }))
+                    .doOnSuccess(index -> finishPageCounts(published, null))
+                    .doOnError(error -> finishPageCounts(published, error));
+        });
+    }
+
+    /**
+     * Follows the running refresh page by page, or the next one if none is running, from its first page on.
+     * The counts of all pages of a refresh add up to the totals it emits.
+     *
+     * @return A {@link Flux} of the page counts, completing when the refresh succeeds and failing with its error.
+     */
+    Flux<PageCounts> pageCounts() {
+        return pageCounts.get().asFlux();
+    }
+
+    /**
+     * Returns the movie catalog of the latest successful refresh. It is replaced together with the director
+     * counts, so right after {@link #refresh()} emits, this is the table those counts were built from.
+     *
+     * @return The columnar movie table, empty before the first refresh or when the store is disabled.
+     */
+    public MovieTable table() {
+        return state.getTable();
+    }
+
+    /**
+     * Lets the next refresh publish to a new sink, so the finished one is only kept by its subscribers.
+     */
+    private void finishPageCounts(Sinks.Many<PageCounts> published, Throwable error) {
+        pageCounts.compareAndSet(published, Sinks.many().replay().all());
+        if (error == null) {
+            published.tryEmitComplete();
+        } else {
+            published.tryEmitError(error);
+        }
+    }
+
+    /**
+     * What a single page contributed to the totals the last time it changed.
+     */
+    @Value
+    private static class PageContribution {
+        String fingerprint;
+
+        /**
+         * Ids of the directors on the page, parallel to {@link #counts}.
+         */
+        int[] directorIds;
+        int[] counts;
+
+        /**
+         * The movies of the page, or null when the movie store is disabled.
+         */
+        MovieSegment segment;
+    }
+
+    /**
+     * The aggregated totals together with the contribution of every page they were built from.
+     */
+    @Value
+    private static class State {
+        Map<Integer, PageContribution> pages;
+
+        /**
+         * Movie count per director id; ids at or beyond the array length have no movies.
+         */
+        int[] totals;
+        DirectorIndex index;
+        MovieTable table;
+    }
+
+    /**
+     * Working copy of the state for a single refresh.
+     */
+    private final class Refresh {
+
+        private final Map<Integer, PageContribution> pages;
+        private final Set<Integer> seenPages = new HashSet<>();
+        private final MovieTable previousTable;
+        private int[] totals;
+
+        /**
+         * Per-page scratch counters, zeroed again after every page.
+         */
+        private int[] pageCounts = new int[0];
+        private int changedPages;
+
+        Refresh(State previous) {
+            this.pages = new HashMap<>(previous.getPages());
+            this.totals = previous.getTotals().clone();
+            this.previousTable = previous.getTable();
+        }
+
+        Map<Integer, String> knownFingerprints() {
+            Map<Integer, String> fingerprints = new HashMap<>();
+            pages.forEach((page, contribution) -> fingerprints.put(page, contribution.getFingerprint()));
+            return fingerprints;
+        }
+
+        /**
+         * Applies a page to the totals and returns what it contributes to them, including unchanged pages.
+         */
+        PageCounts apply(MoviePageDto page) {
+            seenPages.add(page.getPage());
+            PageContribution previous = pages.get(page.getPage());
+            if (page.isNotModified()
+                    || (previous != null && previous.getFingerprint().equals(page.getFingerprint()))) {
+                return previous != null ? countsOf(previous) : PageCounts.EMPTY;
+            }
+
+            PageContribution contribution = countMoviesByDirector(page.getFingerprint(), page.getMovies());
+            if (previous != null) {
+                add(previous, -1);
+            }
+            add(contribution, 1);
+            pages.put(page.getPage(), contribution);
+            changedPages++;
+            return countsOf(contribution);
+        }
+
+        State complete() {
+            boolean removedPages = pages.entrySet().removeIf(entry -> {
+                if (seenPages.contains(entry.getKey())) {
+                    return false;
+                }
+                add(entry.getValue(), -1);
+                return true;
+            });
+            log.debug("Director counts refreshed: {} of {} pages changed", changedPages, seenPages.size());
+
+            DirectorIndex index = DirectorIndex.of(dictionary.names(), totals);
+            MovieTable table = changedPages == 0 && !removedPages ? previousTable : buildTable();
+            return new State(Map.copyOf(pages), totals, index, table);
+        }
+
+        private PageCounts countsOf(PageContribution contribution) {
+            return new PageCounts(dictionary.sharedNames(), contribution.getDirectorIds(), contribution.getCounts());
+        }
+
+        /**
+         * Lines the page segments up in page order, next to the names of the dictionaries as of now.
+         */
+        private MovieTable buildTable() {
+            if (!storeProperties.isEnabled()) {
+                return MovieTable.EMPTY;
+            }
+            List<MovieSegment> segments = new ArrayList<>(pages.size());
+            for (PageContribution contribution : new TreeMap<>(pages).values()) {
+                if (contribution.getSegment() != null) {
+                    segments.add(contribution.getSegment());
+                }
+            }
+            return new MovieTable(segments, dictionary.names(), encoder.genres().names(), encoder.ratings().names());
+        }
+
+        /**
+         * Counts the movies directed by each director on a single page, ignoring movies without a director,
+         * and encodes all of its movies into a segment if the movie store is enabled.
+         */
+        private PageContribution countMoviesByDirector(String fingerprint, List<MovieDto> movies) {
+            MovieSegment.Builder segment = storeProperties.isEnabled() ? MovieSegment.builder(movies.size()) : null;
+            int[] directorIds = new int[movies.size()];
+            int distinct = 0;
+            int counted = 0;
+            for (MovieDto dto : movies) {
+                Movie movie = movieMapper.toDomain(dto);
+                if (!movie.hasDirector()) {
+                    if (segment != null) {
+                        encoder.append(movie, MovieSegment.UNKNOWN_ID, segment);
+                    }
+                    continue;
+                }
+                int id = dictionary.idOf(movie.getDirector());
+                if (segment != null) {
+                    encoder.append(movie, id, segment);
+                }
+                if (id >= pageCounts.length) {
+                    pageCounts = Arrays.copyOf(pageCounts, Math.max(id + 1, pageCounts.length * 2));
+                }
+                if (pageCounts[id]++ == 0) {
+                    directorIds[distinct++] = id;
+                }
+                counted++;
+            }
+            metrics.recordPage(movies.size(), movies.size() - counted);
+
+            directorIds = Arrays.copyOf(directorIds, distinct);
+            int[] counts = new int[distinct];
+            for (int i = 0; i < distinct; i++) {
+                counts[i] = pageCounts[directorIds[i]];
+                pageCounts[directorIds[i]] = 0;
+            }
+            return new PageContribution(fingerprint, directorIds, counts,
+                    segment != null ? segment.build(storeProperties.isOffHeap()) : null);
+        }
+
+        /**
+         * Adds (sign 1) or subtracts (sign -1) a page contribution to the totals.
+         */
+        private void add(PageContribution contribution, int sign) {
+            int[] directorIds = contribution.getDirectorIds();
+            if (totals.length < dictionary.size()) {
+                totals = Arrays.copyOf(totals, Math.max(dictionary.size(), totals.length * 2));
+            }
+            for (int i = 0; i < directorIds.length; i++) {
+                totals[directorIds[i]] += sign * contribution.getCounts()[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.vallejos.moviedirector.service;
+
+import com.vallejos.moviedirector.domain.Movie;
+import com.vallejos.moviedirector.domain.MovieSegment;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Parses the String attributes of a {@link Movie} once at ingest into the typed columns of a {@link MovieSegment}.
+ * <p>
+ * Year ({@code "2010"}, {@code "2011–2013"}) and runtime ({@code "148 min"}) become shorts, the release date
+ * ({@code "16 Jul 2010"}) an epoch day, and rating and genres ({@code "Action, Sci-Fi"}) dictionary ids.
+ * Missing ({@code "N/A"}) or malformed values are stored as the segment's unknown markers.
+ * <p>
+ * Not thread-safe: it is owned by {@link IncrementalDirectorAggregator}, whose refreshes never overlap.
+ */
+final class MovieColumnEncoder {
+
+    private static final String NOT_AVAILABLE = "N/A";
+    private static final DateTimeFormatter RELEASED_FORMAT = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
+
+    private final StringDictionary genres = new StringDictionary();
+    private final StringDictionary ratings = new StringDictionary();
+
+    /**
+     * Scratch buffer of the genre ids of the movie being encoded.
+     */
+    private int[] genreIds = new int[4];
+
+    /**
+     * Encodes a movie and appends it to the segment being built.
+     *
+     * @param movie      The movie to encode.
+     * @param directorId The already resolved id of the movie's director, or {@link MovieSegment#UNKNOWN_ID}.
+     * @param segment    The builder of the segment the movie belongs to.
+     */
+    void append(Movie movie, int directorId, MovieSegment.Builder segment) {
+        int genreCount = encodeGenres(movie.getGenre());
+        segment.add(parseYear(movie.getYear()), parseRuntime(movie.getRuntime()), parseReleased(movie.getReleased()),
+                isAvailable(movie.getRated()) ? ratings.idOf(movie.getRated().trim()) : MovieSegment.UNKNOWN_ID,
+                directorId, genreIds, genreCount);
+    }
+
+    /**
+     * @return The genre dictionary, whose names are indexed by the genre ids of the encoded segments.
+     */
+    StringDictionary genres() {
+        return genres;
+    }
+
+    /**
+     * @return The rating dictionary, whose names are indexed by the rating ids of the encoded segments.
+     */
+    StringDictionary ratings() {
+        return ratings;
+    }
+
+    /**
+     * Parses the leading four-digit year, so a series' {@code "2011–2013"} resolves to its first year.
+     */
+    static short parseYear(String year) {
+        if (year == null || year.length() < 4) {
+            return MovieSegment.UNKNOWN_SHORT;
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            char c = year.charAt(i);
+            if (c < '0' || c > '9') {
+                return MovieSegment.UNKNOWN_SHORT;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return (short) value;
+    }
+
+    /**
+     * Parses the leading number of minutes of a runtime such as {@code "148 min"}.
+     */
+    static short parseRuntime(String runtime) {
+        if (runtime == null) {
+            return MovieSegment.UNKNOWN_SHORT;
+        }
+        int value = 0;
+        int digits = 0;
+        for (; digits < runtime.length(); digits++) {
+            char c = runtime.charAt(digits);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            if (value > Short.MAX_VALUE) {
+                return MovieSegment.UNKNOWN_SHORT;
+            }
+        }
+        return digits == 0 ? MovieSegment.UNKNOWN_SHORT : (short) value;
+    }
+
+    /**
+     * Parses a release date such as {@code "16 Jul 2010"} into days since 1970-01-01.
+     */
+    static int parseReleased(String released) {
+        if (!isAvailable(released)) {
+            return MovieSegment.UNKNOWN_DAY;
+        }
+        try {
+            return Math.toIntExact(LocalDate.parse(released.trim(), RELEASED_FORMAT).toEpochDay());
+        } catch (DateTimeParseException e) {
+            return MovieSegment.UNKNOWN_DAY;
+        }
+    }
+
+    /**
+     * Resolves the comma-separated genres into {@link #genreIds}, returning how many there are.
+     */
+    private int encodeGenres(String genre) {
+        if (!isAvailable(genre)) {
+            return 0;
+        }
+        int count = 0;
+        int start = 0;
+        while (start <= genre.length()) {
+            int end = genre.indexOf(',', start);
+            if (end < 0) {
+                end = genre.length();
+            }
+            String name = genre.substring(start, end).trim();
+            if (!name.isEmpty()) {
+                if (count == genreIds.length) {
+                    genreIds = Arrays.copyOf(genreIds, count * 2);
+                }
+                genreIds[count++] = genres.idOf(name);
+            }
+            start = end + 1;
+        }
+        return count;
+    }
+
+    private static boolean isAvailable(String value) {
+        return value != null && !value.isBlank() && !NOT_AVAILABLE.equals(value.trim());
+    }
+}
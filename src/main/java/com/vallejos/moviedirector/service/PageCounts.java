@@ -0,0 +1,51 @@
+package com.vallejos.moviedirector.service;
+
+/**
+ * How many movies each director has on one upstream page, as published by
+ * {@link IncrementalDirectorAggregator#pageCounts()} while a refresh runs.
+ * <p>
+ * It shares the arrays of the page contribution and the name table of the director dictionary instead of
+ * copying them, so publishing a page costs one small object.
+ */
+final class PageCounts {
+
+    static final PageCounts EMPTY = new PageCounts(new String[0], new int[0], new int[0]);
+
+    private final String[] directorNames;
+    private final int[] directorIds;
+    private final int[] counts;
+
+    /**
+     * @param directorNames The names of the dictionary, indexed by id; only the ids of this page are read.
+     * @param directorIds   Ids of the directors on the page, parallel to {@code counts}.
+     * @param counts        The number of movies of each director on the page.
+     */
+    PageCounts(String[] directorNames, int[] directorIds, int[] counts) {
+        this.directorNames = directorNames;
+        this.directorIds = directorIds;
+        this.counts = counts;
+    }
+
+    /**
+     * @return The number of distinct directors on the page.
+     */
+    int size() {
+        return directorIds.length;
+    }
+
+    /**
+     * @param i An index below {@link #size()}.
+     * @return The name of the i-th director of the page.
+     */
+    String director(int i) {
+        return directorNames[directorIds[i]];
+    }
+
+    /**
+     * @param i An index below {@link #size()}.
+     * @return The number of movies of the i-th director on the page.
+     */
+    int count(int i) {
+        return counts[i];
+    }
+}
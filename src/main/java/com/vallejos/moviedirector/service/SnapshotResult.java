@@ -0,0 +1,65 @@
+package com.vallejos.moviedirector.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * A response body together with the director snapshot it was computed from, so the web layer can
+ * describe the freshness of the data without reading the cache a second time.
+ * <p>
+ * The body is computed on demand, so a request answered with 304 Not Modified or from already encoded bytes
+ * never computes it.
+ *
+ * @param <T> The type of the response body.
+ */
+@Value
+public class SnapshotResult<T> {
+
+    @Getter(AccessLevel.NONE)
+    Supplier<T> body;
+
+    /**
+     * Version of the snapshot the body was computed from, or 0 if it was computed without one.
+     */
+    long version;
+
+    /**
+     * Strong entity tag of the body, derived from the snapshot's content hash and the resource requested,
+     * or {@code null} if the body was computed without a snapshot.
+     */
+    String etag;
+
+    /**
+     * Instant at which the snapshot was built, or {@code null} if the body was computed without one.
+     */
+    Instant createdAt;
+
+    /**
+     * Whether the snapshot has outlived its TTL, e.g. because refreshes fail while the upstream is down.
+     */
+    boolean stale;
+
+    /**
+     * Wraps a body that did not need any director data, such as the empty answer to a negative threshold.
+     *
+     * @param body The response body.
+     * @param <T>  The type of the response body.
+     * @return The result, without snapshot metadata.
+     */
+    public static <T> SnapshotResult<T> unversioned(T body) {
+        return new SnapshotResult<>(() -> body, 0, null, null, false);
+    }
+
+    /**
+     * Computes the response body; every call computes it again.
+     *
+     * @return The response body.
+     */
+    public T getBody() {
+        return body.get();
+    }
+}
@@ -0,0 +1,110 @@
+package com.vallejos.moviedirector.service;
+
+import java.util.Arrays;
+
+/**
+ * Append-only dictionary that assigns every distinct string (a director name, a genre, a rating) a dense
+ * int id (0, 1, 2, ...).
+ * <p>
+ * Names live in an open-addressing table probed with the name's cached {@link String#hashCode()},
+ * so resolving a name costs a single probe and no allocation once the name is known. The dense ids
+ * let callers keep per-director counters in a plain {@code int[]} instead of a map of boxed values.
+ * Ids are stable for the lifetime of the dictionary, so it is reused across refreshes.
+ * <p>
+ * Not thread-safe: the dictionaries are owned by {@link IncrementalDirectorAggregator}, whose refreshes never overlap.
+ */
+final class StringDictionary {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    /**
+     * Open-addressing table of {@code id + 1}, where 0 marks an empty slot. Kept at most half full.
+     */
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private int size;
+
+    /**
+     * Returns the id of the given name, assigning the next free id if the name was never seen.
+     *
+     * @param name The name to resolve.
+     * @return The dense id of the name.
+     */
+    int idOf(String name) {
+        int mask = slots.length - 1;
+        int slot = spread(name.hashCode()) & mask;
+        for (int entry; (entry = slots[slot]) != 0; slot = (slot + 1) & mask) {
+            if (names[entry - 1].equals(name)) {
+                return entry - 1;
+            }
+        }
+        return add(name, slot);
+    }
+
+    /**
+     * @param id An id previously returned by {@link #idOf(String)}.
+     * @return The name the id was assigned to.
+     */
+    String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * @return A copy of the names assigned so far, indexed by id.
+     */
+    String[] names() {
+        return Arrays.copyOf(names, size);
+    }
+
+    /**
+     * Returns the backing array of names without copying it. Slots below {@link #size()} are never written
+     * again, and a grown dictionary moves to a new array, so the ids assigned so far can be resolved through
+     * it from another thread once the array is safely published.
+     *
+     * @return The live names, indexed by id.
+     */
+    String[] sharedNames() {
+        return names;
+    }
+
+    /**
+     * @return The number of distinct names, which is also the exclusive upper bound of the ids.
+     */
+    int size() {
+        return size;
+    }
+
+    private int add(String name, int slot) {
+        int id = size++;
+        if (id == names.length) {
+            names = Arrays.copyOf(names, names.length * 2);
+        }
+        names[id] = name;
+        slots[slot] = id + 1;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        int[] table = new int[capacity];
+        int mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = spread(names[id].hashCode()) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+        slots = table;
+    }
+
+    /**
+     * Mixes the high bits into the low ones, since the table index only uses the low bits.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
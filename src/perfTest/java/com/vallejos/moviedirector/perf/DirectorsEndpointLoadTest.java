@@ -0,0 +1,67 @@
+package com.vallejos.moviedirector.perf;
+
+import com.vallejos.Application;
+import com.vallejos.moviedirector.perf.simulator.MovieApiSimulator;
+import com.vallejos.moviedirector.perf.simulator.SimulatorSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("/api/directors Load Test")
+class DirectorsEndpointLoadTest {
+
+    private static final int[] THRESHOLDS = {0, 1, 2, 5, 10};
+
+    private static final MovieApiSimulator SIMULATOR = MovieApiSimulator.start(SimulatorSettings.fromSystemProperties());
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("movie.api.base-url", SIMULATOR::baseUrl);
+        registry.add("director.snapshot.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopSimulator() {
+        SIMULATOR.close();
+    }
+
+    @Test
+    @DisplayName("should serve /api/directors at a fixed request rate within the latency budgets")
+    void directorsEndpoint_shouldStayWithinLatencyBudgets() throws IOException {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        WebClient webClient = WebClient.create("http://localhost:" + port);
+
+        webClient.get().uri("/api/directors?threshold=0").retrieve().toBodilessEntity().block(Duration.ofMinutes(1));
+
+        LoadReport report = new LoadGenerator(webClient)
+                .run(n -> "/api/directors?threshold=" + THRESHOLDS[(int) (n % THRESHOLDS.length)], profile);
+
+        String summary = String.format("rate=%d req/s duration=%ds %s",
+                profile.requestsPerSecond(), profile.duration().toSeconds(), report);
+        System.out.println(summary);
+        Path reportFile = Path.of("build", "reports", "perf", "directors-endpoint.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, summary + System.lineSeparator());
+
+        assertThat(report.errorRatio()).as("error ratio").isLessThanOrEqualTo(profile.maxErrorRatio());
+        assertThat(report.percentile(0.50)).as("p50 latency").isLessThanOrEqualTo(profile.budgetP50());
+        assertThat(report.percentile(0.99)).as("p99 latency").isLessThanOrEqualTo(profile.budgetP99());
+        assertThat(report.percentile(0.999)).as("p999 latency").isLessThanOrEqualTo(profile.budgetP999());
+    }
+}
@@ -0,0 +1,62 @@
+package com.vallejos.moviedirector.perf;
+
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Open-loop load generator: requests are started at a fixed rate regardless of how long earlier
+ * requests take, and latency is measured from each request's scheduled start, so a stalled server
+ * is not hidden by coordinated omission.
+ */
+public final class LoadGenerator {
+
+    private final WebClient webClient;
+
+    /**
+     * Constructs the generator.
+     *
+     * @param webClient The client pointed at the application under test.
+     */
+    public LoadGenerator(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    /**
+     * Drives the given URIs at the profile's fixed request rate for the profile's duration.
+     *
+     * @param uriOfRequest Builds the URI of the n-th request.
+     * @param profile      The request rate and duration.
+     * @return The report of the run.
+     */
+    public LoadReport run(LongFunction<String> uriOfRequest, LoadProfile profile) {
+        long periodNanos = 1_000_000_000L / profile.requestsPerSecond();
+        long totalRequests = profile.duration().toSeconds() * profile.requestsPerSecond();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+
+        long[] latencies = Flux.interval(Duration.ofNanos(periodNanos))
+                .take(totalRequests)
+                .flatMap(n -> {
+                    long scheduledStart = start + (n + 1) * periodNanos;
+                    return webClient.get()
+                            .uri(uriOfRequest.apply(n))
+                            .retrieve()
+                            .toBodilessEntity()
+                            .map(response -> System.nanoTime() - scheduledStart)
+                            .onErrorResume(error -> {
+                                errors.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, Integer.MAX_VALUE)
+                .collectList()
+                .map(list -> list.stream().mapToLong(Long::longValue).toArray())
+                .block(profile.duration().multipliedBy(2).plusSeconds(30));
+
+        return new LoadReport(latencies, errors.get(), Duration.ofNanos(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,65 @@
+package com.vallejos.moviedirector.perf;
+
+import java.time.Duration;
+
+/**
+ * Request rate, duration and latency budgets of a load test, read from {@code perf.*} system properties.
+ */
+public final class LoadProfile {
+
+    private final int requestsPerSecond;
+    private final Duration duration;
+    private final Duration budgetP50;
+    private final Duration budgetP99;
+    private final Duration budgetP999;
+    private final double maxErrorRatio;
+
+    private LoadProfile(int requestsPerSecond, Duration duration, Duration budgetP50, Duration budgetP99,
+                        Duration budgetP999, double maxErrorRatio) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.duration = duration;
+        this.budgetP50 = budgetP50;
+        this.budgetP99 = budgetP99;
+        this.budgetP999 = budgetP999;
+        this.maxErrorRatio = maxErrorRatio;
+    }
+
+    /**
+     * Reads the profile, e.g. {@code ./gradlew perfTest -Pperf.rate=500 -Pperf.budget.p99Ms=100}.
+     *
+     * @return The load profile.
+     */
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("perf.rate", 200),
+                Duration.ofSeconds(Long.getLong("perf.durationSeconds", 20)),
+                Duration.ofMillis(Long.getLong("perf.budget.p50Ms", 50)),
+                Duration.ofMillis(Long.getLong("perf.budget.p99Ms", 250)),
+                Duration.ofMillis(Long.getLong("perf.budget.p999Ms", 1000)),
+                Double.parseDouble(System.getProperty("perf.budget.maxErrorRatio", "0.01")));
+    }
+
+    public int requestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public Duration duration() {
+        return duration;
+    }
+
+    public Duration budgetP50() {
+        return budgetP50;
+    }
+
+    public Duration budgetP99() {
+        return budgetP99;
+    }
+
+    public Duration budgetP999() {
+        return budgetP999;
+    }
+
+    public double maxErrorRatio() {
+        return maxErrorRatio;
+    }
+}
@@ -0,0 +1,69 @@
+package com.vallejos.moviedirector.perf;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Outcome of a load test: throughput, error count and latency percentiles.
+ */
+public final class LoadReport {
+
+    private final long[] sortedLatenciesNanos;
+    private final long errors;
+    private final Duration elapsed;
+
+    /**
+     * Builds the report.
+     *
+     * @param latenciesNanos Latency of every successful request, measured from its scheduled start.
+     * @param errors         Number of failed requests.
+     * @param elapsed        Wall-clock duration of the run.
+     */
+    public LoadReport(long[] latenciesNanos, long errors, Duration elapsed) {
+        this.sortedLatenciesNanos = latenciesNanos.clone();
+        Arrays.sort(this.sortedLatenciesNanos);
+        this.errors = errors;
+        this.elapsed = elapsed;
+    }
+
+    public long requests() {
+        return sortedLatenciesNanos.length + errors;
+    }
+
+    public long errors() {
+        return errors;
+    }
+
+    public double errorRatio() {
+        return requests() == 0 ? 0 : (double) errors / requests();
+    }
+
+    public double throughputPerSecond() {
+        return sortedLatenciesNanos.length / (elapsed.toNanos() / 1e9);
+    }
+
+    /**
+     * Returns the latency below which the given fraction of successful requests completed.
+     *
+     * @param quantile The quantile, between 0 and 1.
+     * @return The latency at that quantile, or zero if no request succeeded.
+     */
+    public Duration percentile(double quantile) {
+        if (sortedLatenciesNanos.length == 0) {
+            return Duration.ZERO;
+        }
+        int index = (int) Math.ceil(quantile * sortedLatenciesNanos.length) - 1;
+        return Duration.ofNanos(sortedLatenciesNanos[Math.max(0, Math.min(sortedLatenciesNanos.length - 1, index))]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests=%d errors=%d (%.2f%%) throughput=%.1f req/s p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms",
+                requests(), errors, errorRatio() * 100, throughputPerSecond(),
+                millis(percentile(0.50)), millis(percentile(0.99)), millis(percentile(0.999)), millis(percentile(1.0)));
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+}
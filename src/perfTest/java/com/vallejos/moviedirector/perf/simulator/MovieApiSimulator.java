@@ -0,0 +1,189 @@
+package com.vallejos.moviedirector.perf.simulator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Embedded Reactor Netty simulator of the movie search API ({@code GET /api/movies/search?page=N}).
+ * <p>
+ * The catalog is generated deterministically from the {@link SimulatorSettings} and pre-rendered, so
+ * serving a page costs no more than the configured latency, jitter and error injection.
+ */
+public class MovieApiSimulator implements AutoCloseable {
+
+    public static final String SEARCH_PATH = "/api/movies/search";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final SimulatorSettings settings;
+    private final byte[][] pages;
+    private final byte[] emptyPage;
+    private final Map<String, Integer> directorCounts;
+    private final DisposableServer server;
+
+    private MovieApiSimulator(SimulatorSettings settings) {
+        this.settings = settings;
+        String[] directors = drawDirectors(settings);
+        this.directorCounts = countDirectors(directors);
+        this.pages = new byte[settings.totalPages()][];
+        for (int page = 1; page <= settings.totalPages(); page++) {
+            pages[page - 1] = render(page, directors);
+        }
+        this.emptyPage = render(settings.totalPages() + 1, directors);
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(settings.port())
+                .route(routes -> routes.get(SEARCH_PATH, this::search))
+                .bindNow();
+    }
+
+    /**
+     * Generates the catalog and starts serving it.
+     *
+     * @param settings The catalog shape and injected faults.
+     * @return The running simulator.
+     */
+    public static MovieApiSimulator start(SimulatorSettings settings) {
+        return new MovieApiSimulator(settings);
+    }
+
+    /**
+     * Runs the simulator until the process is stopped, configured from {@code simulator.*} system properties.
+     * The port defaults to 8081, the upstream port of the {@code local} profile.
+     */
+    public static void main(String[] args) {
+        SimulatorSettings settings = SimulatorSettings.fromSystemProperties();
+        if (settings.port() == 0) {
+            settings.port(8081);
+        }
+        MovieApiSimulator simulator = start(settings);
+        System.out.printf("Movie API simulator serving %d pages at %s%n", settings.totalPages(), simulator.baseUrl());
+        simulator.server.onDispose().block();
+    }
+
+    /**
+     * @return The base URL to configure as {@code movie.api.base-url}.
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.port() + SEARCH_PATH;
+    }
+
+    /**
+     * @return The exact number of movies per director in the generated catalog.
+     */
+    public Map<String, Integer> directorCounts() {
+        return directorCounts;
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Publisher<Void> search(HttpServerRequest request, HttpServerResponse response) {
+        int page = requestedPage(request.uri());
+        byte[] body = page >= 1 && page <= pages.length ? pages[page - 1] : emptyPage;
+        boolean fail = settings.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate();
+
+        return Mono.delay(responseDelay())
+                .then(fail
+                        ? response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then()
+                        : response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendByteArray(Mono.just(body))
+                                .then());
+    }
+
+    private Duration responseDelay() {
+        long jitterNanos = settings.jitter().toNanos();
+        long extra = jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos + 1) : 0;
+        return settings.latency().plusNanos(extra);
+    }
+
+    private static int requestedPage(String uri) {
+        List<String> values = new QueryStringDecoder(uri).parameters().get("page");
+        if (values == null || values.isEmpty()) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(values.get(0));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private byte[] render(int page, String[] directors) {
+        int total = directors.length;
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = (page - 1) * settings.perPage(); i < Math.min(total, page * settings.perPage()); i++) {
+            Map<String, Object> movie = new LinkedHashMap<>();
+            movie.put("Title", "Simulated Movie " + i);
+            movie.put("Year", String.valueOf(2010 + i % 14));
+            movie.put("Rated", i % 3 == 0 ? "PG-13" : "R");
+            movie.put("Released", String.format("%02d Jun %d", 1 + i % 28, 2010 + i % 14));
+            movie.put("Runtime", (80 + i % 90) + " min");
+            movie.put("Genre", i % 2 == 0 ? "Drama, Romance" : "Comedy");
+            movie.put("Director", directors[i]);
+            movie.put("Writer", "Writer " + i);
+            movie.put("Actors", "First Actor, Second Actor, Third Actor");
+            data.add(movie);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("page", page);
+        body.put("per_page", settings.perPage());
+        body.put("total", total);
+        body.put("total_pages", settings.totalPages());
+        body.put("data", data);
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render simulated page " + page, e);
+        }
+    }
+
+    private static String[] drawDirectors(SimulatorSettings settings) {
+        int directors = Math.max(1, settings.directors());
+        double[] cumulative = new double[directors];
+        double total = 0;
+        for (int i = 0; i < directors; i++) {
+            total += settings.distribution() == SimulatorSettings.DirectorDistribution.ZIPF
+                    ? 1.0 / Math.pow(i + 1, 1.1)
+                    : 1.0;
+            cumulative[i] = total;
+        }
+
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        String[] catalog = new String[settings.totalPages() * settings.perPage()];
+        for (int i = 0; i < catalog.length; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            catalog[i] = "Director " + Math.min(directors - 1, index >= 0 ? index : -index - 1);
+        }
+        return catalog;
+    }
+
+    private static Map<String, Integer> countDirectors(String[] directors) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String director : directors) {
+            counts.merge(director, 1, Integer::sum);
+        }
+        return Map.copyOf(counts);
+    }
+}
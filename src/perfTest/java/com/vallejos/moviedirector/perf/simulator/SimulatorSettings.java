@@ -0,0 +1,143 @@
+package com.vallejos.moviedirector.perf.simulator;
+
+import java.time.Duration;
+
+/**
+ * Shape of the catalog served by {@link MovieApiSimulator} and the faults it injects.
+ * Every setter returns the settings, so a scenario can be described in a single expression.
+ */
+public class SimulatorSettings {
+
+    /**
+     * How movies are distributed over directors.
+     */
+    public enum DirectorDistribution {
+        /**
+         * Every director is equally likely.
+         */
+        UNIFORM,
+        /**
+         * Director popularity follows a Zipf distribution (exponent 1.1): a few directors have most movies.
+         */
+        ZIPF
+    }
+
+    private int port = 0;
+    private int totalPages = 50;
+    private int perPage = 10;
+    private int directors = 100;
+    private DirectorDistribution distribution = DirectorDistribution.ZIPF;
+    private Duration latency = Duration.ofMillis(150);
+    private Duration jitter = Duration.ofMillis(150);
+    private double errorRate = 0.0;
+    private long seed = 42L;
+
+    /**
+     * Reads the settings from {@code simulator.*} system properties, falling back to the defaults.
+     *
+     * @return The settings.
+     */
+    public static SimulatorSettings fromSystemProperties() {
+        SimulatorSettings defaults = new SimulatorSettings();
+        return new SimulatorSettings()
+                .port(Integer.getInteger("simulator.port", defaults.port))
+                .totalPages(Integer.getInteger("simulator.totalPages", defaults.totalPages))
+                .perPage(Integer.getInteger("simulator.perPage", defaults.perPage))
+                .directors(Integer.getInteger("simulator.directors", defaults.directors))
+                .distribution(DirectorDistribution.valueOf(
+                        System.getProperty("simulator.distribution", defaults.distribution.name())))
+                .latency(Duration.ofMillis(Long.getLong("simulator.latencyMs", defaults.latency.toMillis())))
+                .jitter(Duration.ofMillis(Long.getLong("simulator.jitterMs", defaults.jitter.toMillis())))
+                .errorRate(Double.parseDouble(System.getProperty("simulator.errorRate", String.valueOf(defaults.errorRate))));
+    }
+
+    public int port() {
+        return port;
+    }
+
+    public SimulatorSettings port(int port) {
+        this.port = port;
+        return this;
+    }
+
+    public int totalPages() {
+        return totalPages;
+    }
+
+    public SimulatorSettings totalPages(int totalPages) {
+        this.totalPages = totalPages;
+        return this;
+    }
+
+    public int perPage() {
+        return perPage;
+    }
+
+    public SimulatorSettings perPage(int perPage) {
+        this.perPage = perPage;
+        return this;
+    }
+
+    public int directors() {
+        return directors;
+    }
+
+    public SimulatorSettings directors(int directors) {
+        this.directors = directors;
+        return this;
+    }
+
+    public DirectorDistribution distribution() {
+        return distribution;
+    }
+
+    public SimulatorSettings distribution(DirectorDistribution distribution) {
+        this.distribution = distribution;
+        return this;
+    }
+
+    /**
+     * @return The fixed delay added to every page response.
+     */
+    public Duration latency() {
+        return latency;
+    }
+
+    public SimulatorSettings latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * @return The upper bound of the uniformly distributed extra delay added to every page response.
+     */
+    public Duration jitter() {
+        return jitter;
+    }
+
+    public SimulatorSettings jitter(Duration jitter) {
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * @return The probability, between 0 and 1, that a page request is answered with a 503.
+     */
+    public double errorRate() {
+        return errorRate;
+    }
+
+    public SimulatorSettings errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    public SimulatorSettings seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+}
@@ -0,0 +1,265 @@
+package com.vallejos.moviedirector.cache;
+
+import com.vallejos.moviedirector.client.RequestPriority;
+import com.vallejos.moviedirector.domain.DirectorIndex;
+import com.vallejos.moviedirector.domain.DirectorSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("DirectorSnapshotCache Unit Tests")
+class DirectorSnapshotCacheTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-01-01T00:00:00Z"));
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    };
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("should load once and serve the same snapshot while it is fresh")
+    void get_shouldServeFreshSnapshotWithoutReloading() {
+        DirectorSnapshotCache<Void> cache = new DirectorSnapshotCache<>(Duration.ofMinutes(5),
+                () -> Mono.fromSupplier(() -> index(loads.incrementAndGet())), clock);
+
+        StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1)
+                .verifyComplete();
+        StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1)
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("should serve the stale snapshot while a single background refresh swaps in a new one")
+    void get_shouldServeStaleSnapshotWhileRefreshingInBackground() {
+        Sinks.One<DirectorIndex> pendingRefresh = Sinks.one();
+        DirectorSnapshotCache<Void> cache = new DirectorSnapshotCache<>(Duration.ofMinutes(5), () -> {
+            if (loads.incrementAndGet() == 1) {
+                return Mono.just(index(1L));
+            }
+            return pendingRefresh.asMono();
+        }, clock);
+
+        cache.get().block();
+        now.set(now.get().plus(Duration.ofMinutes(10)));
+
+        StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1)
+                .verifyComplete();
+        StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1)
+                .verifyComplete();
+        assertEquals(2, loads.get(), "Only one background refresh should be started");
+
+        pendingRefresh.tryEmitValue(index(2L));
+
+        StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 2
+                        && snapshot.getIndex().toMap().get("Director A") == 2L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should keep the previous snapshot when a background refresh fails")
+    void get_shouldKeepPreviousSnapshot_whenRefreshFails() {
+        DirectorSnapshotCache<Void> cache = new DirectorSnapshotCache<>(Duration.ofMinutes(5), () -> {
+            if (loads.incrementAndGet() == 1) {
+                return Mono.just(index(1L));
+            }
+            return Mono.error(new RuntimeException("API error"));
+        }, clock);
+
+        cache.get().block();
+        now.set(now.get().plus(Duration.ofMinutes(10)));
+
+        StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1)
+                .verifyComplete();
+        StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should load on every call when the TTL is zero")
+    void get_shouldAlwaysLoad_whenTtlIsZero() {
+        DirectorSnapshotCache<Void> cache = new DirectorSnapshotCache<>(Duration.ZERO,
+                () -> Mono.fromSupplier(() -> index(loads.incrementAndGet())), clock);
+
+        cache.get().block();
+        cache.get().block();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("should coalesce concurrent cold loads into a single in-flight crawl")
+    void get_shouldShareInFlightLoadBetweenConcurrentCallers() {
+        Sinks.One<DirectorIndex> pendingLoad = Sinks.one();
+        DirectorSnapshotCache<Void> cache = new DirectorSnapshotCache<>(Duration.ofMinutes(5), () -> {
+            loads.incrementAndGet();
+            return pendingLoad.asMono();
+        }, clock);
+
+        StepVerifier first = StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1)
+                .expectComplete()
+                .verifyLater();
+        StepVerifier second = StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1)
+                .expectComplete()
+                .verifyLater();
+
+        pendingLoad.tryEmitValue(index(1L));
+
+        first.verify(Duration.ofSeconds(1));
+        second.verify(Duration.ofSeconds(1));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("should not cache a failed load and retry on the next call")
+    void get_shouldRetryLoad_afterInFlightLoadFails() {
+        DirectorSnapshotCache<Void> cache = new DirectorSnapshotCache<>(Duration.ofMinutes(5), () -> {
+            if (loads.incrementAndGet() == 1) {
+                return Mono.error(new RuntimeException("API error"));
+            }
+            return Mono.just(index(1L));
+        }, clock);
+
+        StepVerifier.create(cache.get())
+                .expectErrorMessage("API error")
+                .verify();
+        StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getIndex().toMap().containsKey("Director A"))
+                .verifyComplete();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("should serve a restored snapshot immediately while revalidating it in the background")
+    void restore_shouldServeRestoredSnapshotAndRefreshInBackground() {
+        Sinks.One<DirectorIndex> pendingRefresh = Sinks.one();
+        AtomicReference<DirectorSnapshot> refreshed = new AtomicReference<>();
+        DirectorSnapshotCache<Void> cache = new DirectorSnapshotCache<>(Duration.ofMinutes(5), () -> {
+            loads.incrementAndGet();
+            return pendingRefresh.asMono();
+        }, clock, refreshed::set);
+
+        cache.restore(new DirectorSnapshot(0, Map.of("Director A", 3L), now.get().minus(Duration.ofDays(1))));
+
+        StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getIndex().toMap().get("Director A") == 3L)
+                .verifyComplete();
+        assertEquals(1, loads.get());
+
+        pendingRefresh.tryEmitValue(index(4L));
+
+        assertEquals(4L, refreshed.get().getIndex().toMap().get("Director A"));
+        StepVerifier.create(cache.get())
+                .expectNextMatches(snapshot -> snapshot.getIndex().toMap().get("Director A") == 4L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("getIfPresent should complete empty without loading until a snapshot exists")
+    void getIfPresent_shouldNotLoad_whenNoSnapshotExists() {
+        DirectorSnapshotCache<Void> cache = new DirectorSnapshotCache<>(Duration.ofMinutes(5),
+                () -> Mono.fromSupplier(() -> index(loads.incrementAndGet())), clock);
+
+        StepVerifier.create(cache.getIfPresent()).verifyComplete();
+        assertEquals(0, loads.get());
+
+        cache.get().block();
+
+        StepVerifier.create(cache.getIfPresent())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1)
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("should crawl with foreground priority for waiting callers and background priority for refreshes")
+    void get_shouldTagLoadsWithRequestPriority() {
+        List<RequestPriority> priorities = new ArrayList<>();
+        DirectorSnapshotCache<Void> cache = new DirectorSnapshotCache<>(Duration.ofMinutes(5),
+                () -> Mono.deferContextual(context -> {
+                    priorities.add(RequestPriority.of(context));
+                    return Mono.just(index(loads.incrementAndGet()));
+                }), clock);
+
+        cache.get().block();
+        now.set(now.get().plus(Duration.ofMinutes(10)));
+        cache.get().block();
+
+        assertEquals(List.of(RequestPriority.FOREGROUND, RequestPriority.BACKGROUND), priorities);
+    }
+
+    @Test
+    @DisplayName("load should hand every joiner of a load the progress captured when that load started")
+    void load_shouldPairEachLoadWithItsOwnProgress() {
+        AtomicInteger progress = new AtomicInteger();
+        Sinks.One<DirectorIndex> pendingLoad = Sinks.one();
+        DirectorSnapshotCache<Integer> cache = new DirectorSnapshotCache<>(Duration.ofMinutes(5), () -> {
+            loads.incrementAndGet();
+            return pendingLoad.asMono();
+        }, clock, snapshot -> { }, () -> null, progress::incrementAndGet);
+
+        DirectorSnapshotCache.Load<Integer> first = cache.load();
+        DirectorSnapshotCache.Load<Integer> joined = cache.load();
+        assertSame(first, joined);
+        assertEquals(1, first.getProgress());
+
+        pendingLoad.tryEmitValue(index(3));
+        StepVerifier.create(first.getSnapshot())
+                .expectNextMatches(snapshot -> snapshot.getVersion() == 1)
+                .verifyComplete();
+
+        assertEquals(2, cache.load().getProgress());
+        assertEquals(2, loads.get());
+    }
+
+    private static DirectorIndex index(long moviesOfDirectorA) {
+        return DirectorIndex.of(Map.of("Director A", moviesOfDirectorA));
+    }
+}
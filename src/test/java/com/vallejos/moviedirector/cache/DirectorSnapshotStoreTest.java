@@ -0,0 +1,104 @@
+package com.vallejos.moviedirector.cache;
+
+import com.vallejos.moviedirector.configuration.DirectorSnapshotProperties;
+import com.vallejos.moviedirector.domain.DirectorSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("DirectorSnapshotStore Unit Tests")
+class DirectorSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private DirectorSnapshotProperties properties;
+    private DirectorSnapshotStore store;
+
+    private final DirectorSnapshot snapshot = new DirectorSnapshot(7,
+            Map.of("Pedro Almodóvar", 4L, "Woody Allen", 6L, "Bong Joon-ho", 1L),
+            Instant.parse("2024-01-01T10:15:30Z"));
+
+    @BeforeEach
+    void setUp() {
+        properties = new DirectorSnapshotProperties();
+        properties.setEnabled(true);
+        properties.setFile(directory.resolve("snapshots").resolve("director-snapshot.bin"));
+        store = new DirectorSnapshotStore(properties);
+    }
+
+    @Test
+    @DisplayName("should restore exactly the persisted director counts and creation time")
+    void load_shouldRoundTripSavedSnapshot() {
+        store.save(snapshot);
+
+        Optional<DirectorSnapshot> restored = store.load();
+
+        assertTrue(restored.isPresent());
+        assertEquals(snapshot.getIndex().toMap(), restored.get().getIndex().toMap());
+        assertEquals(snapshot.getCreatedAt(), restored.get().getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("should ignore a missing file or disabled persistence")
+    void load_shouldReturnEmpty_whenFileIsMissingOrDisabled() {
+        assertTrue(store.load().isEmpty());
+
+        store.save(snapshot);
+        properties.setEnabled(false);
+
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should ignore a file whose checksum does not match")
+    void load_shouldReturnEmpty_whenFileIsCorrupt() throws IOException {
+        store.save(snapshot);
+        byte[] bytes = Files.readAllBytes(properties.getFile());
+        bytes[30] ^= 0x5A;
+        Files.write(properties.getFile(), bytes);
+
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should ignore a file written with an incompatible format version")
+    void load_shouldReturnEmpty_whenFormatVersionIsIncompatible() throws IOException {
+        store.save(snapshot);
+        byte[] bytes = Files.readAllBytes(properties.getFile());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.putShort(4, (short) (DirectorSnapshotStore.FORMAT_VERSION + 1));
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes, 0, bytes.length - 4);
+        buffer.putInt(bytes.length - 4, (int) checksum.getValue());
+        Files.write(properties.getFile(), bytes);
+
+        assertTrue(store.load().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should delete the temporary file when the snapshot cannot be moved into place")
+    void save_shouldDeleteTemporaryFile_whenWriteFails() throws IOException {
+        Files.createDirectories(properties.getFile().resolve("occupied"));
+
+        assertThrows(IllegalStateException.class, () -> store.save(snapshot));
+
+        try (var files = Files.list(properties.getFile().getParent())) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+}
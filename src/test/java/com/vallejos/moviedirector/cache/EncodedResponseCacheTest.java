@@ -0,0 +1,82 @@
+package com.vallejos.moviedirector.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vallejos.moviedirector.dto.DirectorResponseDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("EncodedResponseCache Unit Tests")
+class EncodedResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DirectorResponseDto body = new DirectorResponseDto(List.of("Ang Lee", "Woody Allen"));
+
+    @Test
+    @DisplayName("should encode a body once and reuse the bytes for the same tag and version")
+    void encode_shouldReuseBytes() {
+        EncodedResponseCache cache = new EncodedResponseCache(4096, objectMapper);
+
+        byte[] first = cache.encode("\"h-directors-1\"", 1, () -> body);
+        byte[] second = cache.encode("\"h-directors-1\"", 1, () -> {
+            throw new AssertionError("a cached body must not be computed again");
+        });
+
+        assertEquals("{\"directors\":[\"Ang Lee\",\"Woody Allen\"]}", new String(first, StandardCharsets.UTF_8));
+        assertSame(first, second);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("should drop every entry when a newer snapshot version is seen and never cache older ones")
+    void encode_shouldInvalidateOnVersionChange() {
+        EncodedResponseCache cache = new EncodedResponseCache(4096, objectMapper);
+        cache.encode("\"h-directors-1\"", 1, () -> body);
+        cache.encode("\"h-directors-2\"", 1, () -> body);
+
+        byte[] newer = cache.encode("\"g-directors-1\"", 2, () -> body);
+        assertEquals(1, cache.size());
+        assertSame(newer, cache.encode("\"g-directors-1\"", 2, () -> body));
+
+        byte[] older = cache.encode("\"h-directors-1\"", 1, () -> body);
+        assertNotSame(older, cache.encode("\"h-directors-1\"", 1, () -> body));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used bodies to stay within the size cap")
+    void encode_shouldEvictLeastRecentlyUsed() {
+        byte[] encoded = new EncodedResponseCache(0, objectMapper).encode("\"a\"", 1, () -> body);
+        long entryCost = encoded.length + 2L * "\"a\"".length() + 96;
+        EncodedResponseCache cache = new EncodedResponseCache(2 * entryCost, objectMapper);
+
+        byte[] a = cache.encode("\"a\"", 1, () -> body);
+        cache.encode("\"b\"", 1, () -> body);
+        cache.encode("\"a\"", 1, () -> body);
+        cache.encode("\"c\"", 1, () -> body);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.sizeInBytes() <= 2 * entryCost);
+        assertSame(a, cache.encode("\"a\"", 1, () -> body));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("should encode without caching when disabled or when the body has no tag")
+    void encode_shouldNotCache_whenDisabledOrUntagged() {
+        EncodedResponseCache disabled = new EncodedResponseCache(0, objectMapper);
+        EncodedResponseCache enabled = new EncodedResponseCache(4096, objectMapper);
+
+        assertArrayEquals(disabled.encode("\"a\"", 1, () -> body), enabled.encode(null, 0, () -> body));
+        assertEquals(0, disabled.size());
+        assertEquals(0, enabled.size());
+    }
+}
@@ -0,0 +1,123 @@
+package com.vallejos.moviedirector.client.codec;
+
+import com.vallejos.moviedirector.dto.MovieApiResponseDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("MovieApiResponseProjectionDecoder Unit Tests")
+class MovieApiResponseProjectionDecoderTest {
+
+    private static final String PAGE = """
+            {"page":2,"per_page":10,"total":25,"total_pages":3,"data":[
+              {"Title":"Midnight in Paris","Year":"2011","Rated":"PG-13","Released":"10 Jun 2011",
+               "Runtime":"94 min","Genre":"Comedy, Fantasy, Romance","Director":"Woody Allen",
+               "Writer":"Woody Allen","Actors":"Owen Wilson, Rachel McAdams, Kathy Bates"},
+              {"Title":"Hugo","Extra":{"nested":[1,2,{"Director":"Not Me"}]},"Director":"Martin Scorsese"},
+              {"Title":"Untitled","Director":null}
+            ],"links":{"next":"?page=3"}}
+            """;
+
+    private final ResolvableType type = ResolvableType.forClass(MovieApiResponseDto.class);
+
+    @Test
+    @DisplayName("should decode page metadata and only the projected movie fields")
+    void decodeToMono_shouldKeepOnlyProjectedFields() {
+        MovieApiResponseProjectionDecoder decoder = new MovieApiResponseProjectionDecoder(Set.of("Director"));
+
+        StepVerifier.create(decoder.decodeToMono(chunked(PAGE, 7), type, MediaType.APPLICATION_JSON, null))
+                .assertNext(response -> {
+                    assertEquals(2, response.getPage());
+                    assertEquals(10, response.getPerPage());
+                    assertEquals(25, response.getTotal());
+                    assertEquals(3, response.getTotalPages());
+                    assertEquals(3, response.getData().size());
+                    assertEquals("Woody Allen", response.getData().get(0).getDirector());
+                    assertNull(response.getData().get(0).getTitle());
+                    assertNull(response.getData().get(0).getActors());
+                    assertEquals("Martin Scorsese", response.getData().get(1).getDirector());
+                    assertNull(response.getData().get(2).getDirector());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should decode every configured movie field")
+    void decodeToMono_shouldDecodeConfiguredFieldSet() {
+        MovieApiResponseProjectionDecoder decoder = new MovieApiResponseProjectionDecoder(Set.of("Title", "Year", "Director"));
+
+        StepVerifier.create(decoder.decodeToMono(chunked(PAGE, 64), type, MediaType.APPLICATION_JSON, null))
+                .assertNext(response -> {
+                    assertEquals("Midnight in Paris", response.getData().get(0).getTitle());
+                    assertEquals("2011", response.getData().get(0).getYear());
+                    assertEquals("Woody Allen", response.getData().get(0).getDirector());
+                    assertNull(response.getData().get(0).getGenre());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should default to an empty data list when the page has no data array")
+    void decodeToMono_shouldReturnEmptyData_whenDataIsMissing() {
+        MovieApiResponseProjectionDecoder decoder = new MovieApiResponseProjectionDecoder(Set.of("Director"));
+
+        StepVerifier.create(decoder.decodeToMono(chunked("{\"page\":1,\"total_pages\":1}", 4), type, null, null))
+                .assertNext(response -> assertTrue(response.getData().isEmpty()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should signal a DecodingException for a truncated body")
+    void decodeToMono_shouldFail_whenBodyIsTruncated() {
+        MovieApiResponseProjectionDecoder decoder = new MovieApiResponseProjectionDecoder(Set.of("Director"));
+
+        StepVerifier.create(decoder.decodeToMono(chunked("{\"page\":1,\"data\":[{\"Director\":\"A\"", 8), type, null, null))
+                .expectError(DecodingException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("should only decode MovieApiResponseDto as JSON")
+    void canDecode_shouldOnlyAcceptMovieApiResponseAsJson() {
+        MovieApiResponseProjectionDecoder decoder = new MovieApiResponseProjectionDecoder(Set.of("Director"));
+
+        assertTrue(decoder.canDecode(type, MediaType.APPLICATION_JSON));
+        assertTrue(decoder.canDecode(type, MediaType.parseMediaType("application/json;charset=UTF-8")));
+        assertFalse(decoder.canDecode(type, MediaType.TEXT_PLAIN));
+        assertFalse(decoder.canDecode(ResolvableType.forClass(Object.class), MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("should reject unknown projected fields")
+    void constructor_shouldRejectUnknownField() {
+        assertThrows(IllegalArgumentException.class, () -> new MovieApiResponseProjectionDecoder(Set.of("Budget")));
+    }
+
+    private Flux<DataBuffer> chunked(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - offset);
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, offset, offset + length)));
+        }
+        return Flux.fromIterable(buffers);
+    }
+}
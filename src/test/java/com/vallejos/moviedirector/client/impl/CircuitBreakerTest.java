@@ -0,0 +1,141 @@
+package com.vallejos.moviedirector.client.impl;
+
+import com.vallejos.moviedirector.configuration.MovieApiResilienceProperties;
+import com.vallejos.moviedirector.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("CircuitBreaker Unit Tests")
+class CircuitBreakerTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-01-01T00:00:00Z"));
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    };
+
+    private final MovieApiResilienceProperties.CircuitBreaker properties = new MovieApiResilienceProperties.CircuitBreaker();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setOpenDuration(Duration.ofSeconds(30));
+        circuitBreaker = new CircuitBreaker("http://mirror-a", properties, clock);
+    }
+
+    private Mono<String> upstream(boolean fail) {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            return fail
+                    ? Mono.error(WebClientResponseException.create(503, "Service Unavailable", HttpHeaders.EMPTY,
+                            new byte[0], StandardCharsets.UTF_8))
+                    : Mono.just("page");
+        });
+    }
+
+    private void call(boolean fail) {
+        circuitBreaker.protect(upstream(fail)).onErrorResume(error -> Mono.empty()).block();
+    }
+
+    @Test
+    @DisplayName("should open once the failure rate reaches the threshold and then fail fast without calling upstream")
+    void protect_shouldOpenAndFailFast_whenFailureRateIsReached() {
+        call(false);
+        call(false);
+        call(true);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        call(true);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+
+        StepVerifier.create(circuitBreaker.protect(upstream(false)))
+                .expectErrorMatches(error -> error instanceof UpstreamUnavailableException unavailable
+                        && unavailable.getRetryAfter().equals(Duration.ofSeconds(30)))
+                .verify();
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    @DisplayName("should let a probe through after the open duration and close again when it succeeds")
+    void protect_shouldCloseAfterSuccessfulProbe() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        now.set(now.get().plus(Duration.ofSeconds(31)));
+
+        StepVerifier.create(circuitBreaker.protect(upstream(false)))
+                .expectNext("page")
+                .verifyComplete();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    @DisplayName("should open again when the half-open probe fails")
+    void protect_shouldReopen_whenProbeFails() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        now.set(now.get().plus(Duration.ofSeconds(31)));
+
+        call(true);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    @DisplayName("should not count client errors as upstream failures")
+    void protect_shouldIgnoreClientErrors() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.protect(Mono.error(WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY,
+                    new byte[0], StandardCharsets.UTF_8))).onErrorResume(error -> Mono.empty()).block();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    @DisplayName("should count requests cancelled after the slow call threshold, e.g. by the page timeout, as slow")
+    void protect_shouldCountSlowCancelledRequests() {
+        properties.setSlowCallThreshold(Duration.ofMillis(10));
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.protect(Mono.never()).timeout(Duration.ofMillis(50))
+                    .onErrorResume(error -> Mono.empty())
+                    .block();
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+    }
+}
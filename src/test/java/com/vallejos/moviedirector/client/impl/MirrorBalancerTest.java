@@ -0,0 +1,162 @@
+package com.vallejos.moviedirector.client.impl;
+
+import com.vallejos.moviedirector.configuration.MovieApiProperties;
+import com.vallejos.moviedirector.configuration.MovieApiResilienceProperties;
+import com.vallejos.moviedirector.exception.UpstreamUnavailableException;
+import com.vallejos.moviedirector.metrics.MovieApiMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("MirrorBalancer Unit Tests")
+class MirrorBalancerTest {
+
+    private static final String FAST = "http://fast.mirror";
+    private static final String SLOW = "http://slow.mirror";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Map<WebClient, String> baseUrlOf = new HashMap<>();
+    private final MovieApiProperties.LoadBalancer properties = new MovieApiProperties.LoadBalancer();
+    private final MovieApiResilienceProperties.CircuitBreaker circuitBreaker =
+            new MovieApiResilienceProperties.CircuitBreaker();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private MirrorBalancer balancer() {
+        return new MirrorBalancer(List.of(FAST, SLOW), baseUrl -> {
+            WebClient webClient = mock(WebClient.class);
+            baseUrlOf.put(webClient, baseUrl);
+            return webClient;
+        }, baseUrl -> new CircuitBreaker(baseUrl, circuitBreaker, Clock.systemUTC()), properties,
+                new MovieApiMetrics(registry), nanos::get);
+    }
+
+    private static WebClientResponseException status(int code) {
+        return WebClientResponseException.create(code, "status " + code, HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("should send each request to the mirror with the fewest requests in flight")
+    void fetch_shouldBalanceByOutstandingRequests() {
+        properties.setStrategy(MovieApiProperties.LoadBalancer.Strategy.LEAST_OUTSTANDING);
+        MirrorBalancer balancer = balancer();
+        List<String> chosen = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            balancer.fetch(mirror -> {
+                chosen.add(baseUrlOf.get(mirror.webClient()));
+                return Mono.never();
+            }).subscribe();
+        }
+
+        assertEquals(2, chosen.stream().filter(FAST::equals).count());
+        assertEquals(2, chosen.stream().filter(SLOW::equals).count());
+        assertEquals(2.0, registry.get("movie.api.mirror.outstanding").tag("mirror", FAST).gauge().value());
+    }
+
+    @Test
+    @DisplayName("should prefer the mirror with the lower moving average latency")
+    void fetch_shouldPreferFasterMirror() {
+        MirrorBalancer balancer = balancer();
+        Map<String, Sinks.One<String>> responses = new HashMap<>();
+        for (int i = 0; i < 2; i++) {
+            balancer.fetch(mirror -> {
+                Sinks.One<String> response = Sinks.one();
+                responses.put(mirror.baseUrl(), response);
+                return response.asMono();
+            }).subscribe();
+        }
+        nanos.addAndGet(Duration.ofMillis(10).toNanos());
+        responses.get(FAST).tryEmitValue("page");
+        nanos.addAndGet(Duration.ofMillis(190).toNanos());
+        responses.get(SLOW).tryEmitValue("page");
+
+        List<String> chosen = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            balancer.fetch(mirror -> {
+                chosen.add(mirror.baseUrl());
+                return Mono.never();
+            }).subscribe();
+        }
+
+        assertEquals(List.of(FAST, FAST, FAST, FAST, FAST), chosen);
+    }
+
+    @Test
+    @DisplayName("should eject a failing mirror, keep the last one in rotation and re-admit it after the ejection")
+    void fetch_shouldEjectAndReadmitFailingMirror() {
+        properties.setStrategy(MovieApiProperties.LoadBalancer.Strategy.LEAST_OUTSTANDING);
+        properties.setEjectionFailures(2);
+        properties.setEjectionDuration(Duration.ofSeconds(30));
+        MirrorBalancer balancer = balancer();
+
+        for (int i = 0; i < 4; i++) {
+            balancer.fetch(mirror -> Mono.error(status(SLOW.equals(mirror.baseUrl()) ? 503 : 404)))
+                    .subscribe(value -> { }, error -> { });
+        }
+        assertEquals(1.0, registry.get("movie.api.mirror.ejected").tag("mirror", SLOW).gauge().value());
+        assertEquals(FAST, balancer.select().baseUrl());
+        assertEquals(FAST, balancer.select().baseUrl());
+
+        for (int i = 0; i < 5; i++) {
+            balancer.fetch(mirror -> Mono.error(status(503))).subscribe(value -> { }, error -> { });
+        }
+        assertEquals(0.0, registry.get("movie.api.mirror.ejected").tag("mirror", FAST).gauge().value());
+
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertEquals(0.0, registry.get("movie.api.mirror.ejected").tag("mirror", SLOW).gauge().value());
+    }
+
+    @Test
+    @DisplayName("should route around a mirror whose circuit is open and fail fast once every circuit is open")
+    void fetch_shouldRouteAroundOpenCircuits() {
+        properties.setStrategy(MovieApiProperties.LoadBalancer.Strategy.LEAST_OUTSTANDING);
+        properties.setEjectionFailures(100);
+        circuitBreaker.setSlidingWindowSize(2);
+        circuitBreaker.setMinimumCalls(2);
+        MirrorBalancer balancer = balancer();
+
+        for (int i = 0; i < 4; i++) {
+            balancer.fetch(mirror -> SLOW.equals(mirror.baseUrl()) ? Mono.error(status(503)) : Mono.just("page"))
+                    .subscribe(value -> { }, error -> { });
+        }
+        assertEquals(2.0, registry.get("movie.api.circuit.state").tag("mirror", SLOW).gauge().value());
+        assertEquals(0.0, registry.get("movie.api.circuit.state").tag("mirror", FAST).gauge().value());
+
+        List<String> chosen = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            balancer.fetch(mirror -> {
+                chosen.add(mirror.baseUrl());
+                return Mono.error(status(503));
+            }).subscribe(value -> { }, error -> { });
+        }
+        assertEquals(List.of(FAST, FAST), chosen);
+
+        AtomicInteger requests = new AtomicInteger();
+        StepVerifier.create(balancer.fetch(mirror -> {
+                    requests.incrementAndGet();
+                    return Mono.just("page");
+                }))
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+        assertEquals(0, requests.get());
+    }
+}
@@ -0,0 +1,123 @@
+package com.vallejos.moviedirector.client.impl;
+
+import com.vallejos.moviedirector.configuration.MovieApiResilienceProperties;
+import com.vallejos.moviedirector.metrics.MovieApiMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("PageFetchPolicy Unit Tests")
+class PageFetchPolicyTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MovieApiResilienceProperties properties = new MovieApiResilienceProperties();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private PageFetchPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(5));
+        MovieApiMetrics metrics = new MovieApiMetrics(registry);
+        policy = new PageFetchPolicy(properties, metrics, new UpstreamRateLimiter(properties.getRateLimit(), metrics));
+    }
+
+    private static WebClientResponseException status(int code) {
+        return WebClientResponseException.create(code, "status " + code, HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("should retry 5xx responses with backoff until a request succeeds")
+    void apply_shouldRetryServerErrors() {
+        Mono<String> fetch = Mono.defer(() -> attempts.incrementAndGet() < 3
+                ? Mono.error(status(503))
+                : Mono.just("page"));
+
+        StepVerifier.create(policy.apply(fetch))
+                .expectNext("page")
+                .verifyComplete();
+
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, registry.get("movie.api.page.retries").counter().count());
+    }
+
+    @Test
+    @DisplayName("should not retry 4xx responses and surface the original error once retries are exhausted")
+    void apply_shouldNotRetryClientErrors() {
+        StepVerifier.create(policy.apply(Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.error(status(404));
+                })))
+                .expectErrorMatches(error -> error instanceof WebClientResponseException.NotFound)
+                .verify();
+        assertEquals(1, attempts.get());
+
+        attempts.set(0);
+        StepVerifier.create(policy.apply(Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.error(status(502));
+                })))
+                .expectErrorMatches(error -> error instanceof WebClientResponseException.BadGateway)
+                .verify();
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("should retry 429 responses after the pause requested by Retry-After")
+    void apply_shouldRetryThrottledRequests() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "0");
+        Mono<String> fetch = Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.error(WebClientResponseException.create(429, "Too Many Requests", headers, new byte[0],
+                        StandardCharsets.UTF_8))
+                : Mono.just("page"));
+
+        StepVerifier.create(policy.apply(fetch))
+                .expectNext("page")
+                .verifyComplete();
+
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, registry.get("movie.api.throttled").counter().count());
+    }
+
+    @Test
+    @DisplayName("should time out a slow request and retry it")
+    void apply_shouldRetryTimedOutRequests() {
+        properties.setPageTimeout(Duration.ofMillis(50));
+        Mono<String> fetch = Mono.defer(() -> attempts.incrementAndGet() == 1 ? Mono.never() : Mono.just("page"));
+
+        StepVerifier.create(policy.apply(fetch))
+                .expectNext("page")
+                .verifyComplete();
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("should send a hedged request for a slow page and keep the first response")
+    void apply_shouldHedgeSlowRequests() {
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMinDelay(Duration.ofMillis(20));
+        Mono<String> fetch = Mono.defer(() -> attempts.incrementAndGet() == 1 ? Mono.never() : Mono.just("hedged"));
+
+        StepVerifier.create(policy.apply(fetch))
+                .expectNext("hedged")
+                .verifyComplete();
+
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, registry.get("movie.api.page.hedges").counter().count());
+        assertEquals(0.0, registry.get("movie.api.page.retries").counter().count());
+    }
+}
@@ -0,0 +1,47 @@
+package com.vallejos.moviedirector.client.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("PageFingerprints Unit Tests")
+class PageFingerprintsTest {
+
+    private static final String MIRROR = "http://mirror-1.test";
+    private static final String OTHER_MIRROR = "http://mirror-2.test";
+
+    @Test
+    @DisplayName("should send a known ETag to every mirror")
+    void applyAsValidator_shouldSendEtagToEveryMirror() {
+        HttpHeaders response = new HttpHeaders();
+        response.setETag("\"v1\"");
+        String fingerprint = PageFingerprints.of(response, List.of(), MIRROR);
+
+        HttpHeaders request = new HttpHeaders();
+        PageFingerprints.applyAsValidator(fingerprint, OTHER_MIRROR, request);
+
+        assertEquals(List.of("\"v1\""), request.getIfNoneMatch());
+    }
+
+    @Test
+    @DisplayName("should only send a known Last-Modified date back to the mirror that sent it")
+    void applyAsValidator_shouldSendLastModifiedOnlyToItsMirror() {
+        HttpHeaders response = new HttpHeaders();
+        response.setLastModified(1_700_000_000_000L);
+        String fingerprint = PageFingerprints.of(response, List.of(), MIRROR);
+
+        HttpHeaders sameMirror = new HttpHeaders();
+        PageFingerprints.applyAsValidator(fingerprint, MIRROR, sameMirror);
+        HttpHeaders otherMirror = new HttpHeaders();
+        PageFingerprints.applyAsValidator(fingerprint, OTHER_MIRROR, otherMirror);
+
+        assertEquals(1_700_000_000_000L, sameMirror.getIfModifiedSince());
+        assertEquals(-1, otherMirror.getIfModifiedSince());
+        assertNull(otherMirror.getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+}
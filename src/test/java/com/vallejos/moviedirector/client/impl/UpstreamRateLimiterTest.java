@@ -0,0 +1,125 @@
+package com.vallejos.moviedirector.client.impl;
+
+import com.vallejos.moviedirector.client.RequestPriority;
+import com.vallejos.moviedirector.configuration.MovieApiResilienceProperties;
+import com.vallejos.moviedirector.metrics.MovieApiMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("UpstreamRateLimiter Unit Tests")
+class UpstreamRateLimiterTest {
+
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MovieApiResilienceProperties.RateLimit properties = new MovieApiResilienceProperties.RateLimit();
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties.setRequestsPerSecond(10);
+        properties.setBurst(2);
+        properties.setMaxConcurrent(10);
+    }
+
+    private UpstreamRateLimiter limiter() {
+        return new UpstreamRateLimiter(properties, new MovieApiMetrics(registry),
+                () -> scheduler.now(TimeUnit.NANOSECONDS), scheduler);
+    }
+
+    private Mono<String> call() {
+        return Mono.fromCallable(() -> "request " + sent.incrementAndGet());
+    }
+
+    @Test
+    @DisplayName("should send a burst right away and pace the following requests at the configured rate")
+    void protect_shouldPaceRequests() {
+        UpstreamRateLimiter limiter = limiter();
+        for (int i = 0; i < 4; i++) {
+            limiter.protect(call()).subscribe();
+        }
+        assertEquals(2, sent.get());
+        assertEquals(2, limiter.queued());
+
+        scheduler.advanceTimeBy(Duration.ofMillis(100));
+        assertEquals(3, sent.get());
+
+        scheduler.advanceTimeBy(Duration.ofMillis(100));
+        assertEquals(4, sent.get());
+        assertEquals(0, limiter.queued());
+    }
+
+    @Test
+    @DisplayName("should cap the number of requests in flight")
+    void protect_shouldCapConcurrency() {
+        properties.setMaxConcurrent(1);
+        UpstreamRateLimiter limiter = limiter();
+        Sinks.One<String> response = Sinks.one();
+
+        limiter.protect(response.asMono()).subscribe();
+        limiter.protect(call()).subscribe();
+        assertEquals(1, limiter.inFlight());
+        assertEquals(0, sent.get());
+
+        response.tryEmitValue("done");
+        assertEquals(1, sent.get());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("should serve waiting foreground requests before background ones")
+    void protect_shouldPrioritizeForegroundRequests() {
+        properties.setMaxConcurrent(1);
+        properties.setBurst(3);
+        UpstreamRateLimiter limiter = limiter();
+        Sinks.One<String> response = Sinks.one();
+        List<String> order = new ArrayList<>();
+
+        limiter.protect(response.asMono()).subscribe();
+        limiter.protect(Mono.fromRunnable(() -> order.add("background")))
+                .contextWrite(context -> context.put(RequestPriority.CONTEXT_KEY, RequestPriority.BACKGROUND))
+                .subscribe();
+        limiter.protect(Mono.fromRunnable(() -> order.add("foreground"))).subscribe();
+
+        response.tryEmitValue("done");
+
+        assertEquals(List.of("foreground", "background"), order);
+    }
+
+    @Test
+    @DisplayName("should pause for Retry-After and lower the rate on 429, then recover on success")
+    void protect_shouldBackOffWhenThrottled() {
+        UpstreamRateLimiter limiter = limiter();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "2");
+        WebClientResponseException tooManyRequests = WebClientResponseException.create(429, "Too Many Requests",
+                headers, new byte[0], StandardCharsets.UTF_8);
+
+        limiter.protect(Mono.error(tooManyRequests)).subscribe(value -> { }, error -> { });
+        assertEquals(5.0, limiter.rate());
+        assertEquals(1.0, registry.get("movie.api.throttled").counter().count());
+
+        limiter.protect(call()).subscribe();
+        scheduler.advanceTimeBy(Duration.ofMillis(1999));
+        assertEquals(0, sent.get());
+
+        scheduler.advanceTimeBy(Duration.ofMillis(1));
+        assertEquals(1, sent.get());
+        assertEquals(5.5, limiter.rate());
+    }
+}
@@ -1,14 +1,21 @@
 package com.vallejos.moviedirector.client.impl;
 
 import com.vallejos.moviedirector.configuration.MovieApiProperties;
+import com.vallejos.moviedirector.configuration.MovieApiResilienceProperties;
 import com.vallejos.moviedirector.dto.MovieApiResponseDto;
 import com.vallejos.moviedirector.dto.MovieDto;
+import com.vallejos.moviedirector.metrics.MovieApiMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -16,7 +23,10 @@ import reactor.test.StepVerifier;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -38,6 +48,9 @@ class WebClientMovieApiClientTest {
     @Mock
     private MovieApiProperties movieApiProperties;
 
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MovieApiResilienceProperties resilienceProperties = new MovieApiResilienceProperties();
+
     private WebClientMovieApiClient webClientMovieApiClient;
 
     private final String baseUrl = "http://test.api";
@@ -46,11 +59,12 @@ class WebClientMovieApiClientTest {
     void setUp() {
 
         when(movieApiProperties.getBaseUrl()).thenReturn(baseUrl);
+        lenient().when(movieApiProperties.getLoadBalancer()).thenReturn(new MovieApiProperties.LoadBalancer());
 
         when(webClientBuilder.baseUrl(anyString())).thenReturn(webClientBuilder);
         when(webClientBuilder.build()).thenReturn(webClient);
 
-        webClientMovieApiClient = new WebClientMovieApiClient(webClientBuilder, movieApiProperties);
+        webClientMovieApiClient = new WebClientMovieApiClient(webClientBuilder, movieApiProperties, resilienceProperties, new MovieApiMetrics(registry));
 
     }
 
@@ -69,6 +83,19 @@ class WebClientMovieApiClientTest {
 
     }
 
+    @Test
+    @DisplayName("Constructor should register the projection decoder when enabled")
+    void constructor_shouldRegisterProjectionDecoder_whenEnabled() {
+        when(movieApiProperties.isProjectionDecoderEnabled()).thenReturn(true);
+        when(movieApiProperties.getProjectedFields()).thenReturn(Set.of("Director"));
+        when(webClientBuilder.codecs(any())).thenReturn(webClientBuilder);
+
+        new WebClientMovieApiClient(webClientBuilder, movieApiProperties, resilienceProperties, new MovieApiMetrics(registry));
+
+        verify(webClientBuilder).codecs(any());
+        verify(webClientBuilder, times(2)).build();
+    }
+
     @Test
     @DisplayName("fetchAllMovies should return movies from a single page response")
     void fetchAllMovies_shouldReturnMoviesFromSinglePage() {
@@ -139,6 +166,70 @@ class WebClientMovieApiClientTest {
         verify(requestHeadersUriSpec, times(2)).uri(any(java.util.function.Function.class));
         verify(requestHeadersSpec, times(2)).retrieve();
         verify(responseSpec, times(2)).bodyToMono(MovieApiResponseDto.class);
+        assertEquals(1L, registry.get("movie.api.page.fetch").tags("page", "2", "outcome", "SUCCESS").timer().count());
+        assertEquals(0.0, registry.get("movie.api.pages.in.flight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("fetchAllMovies should fan out remaining pages concurrently and preserve page order")
+    void fetchAllMovies_shouldFanOutPagesConcurrently() {
+        setupWebClientMockChain();
+        when(movieApiProperties.getPageConcurrency()).thenReturn(4);
+        when(movieApiProperties.isPreservePageOrder()).thenReturn(true);
+
+        MovieDto movie1 = new MovieDto(); movie1.setTitle("Movie 1");
+        MovieDto movie2 = new MovieDto(); movie2.setTitle("Movie 2");
+        MovieDto movie3 = new MovieDto(); movie3.setTitle("Movie 3");
+
+        MovieApiResponseDto apiResponsePage1 = new MovieApiResponseDto();
+        apiResponsePage1.setPage(1);
+        apiResponsePage1.setTotalPages(3);
+        apiResponsePage1.setData(Collections.singletonList(movie1));
+
+        MovieApiResponseDto apiResponsePage2 = new MovieApiResponseDto();
+        apiResponsePage2.setPage(2);
+        apiResponsePage2.setTotalPages(3);
+        apiResponsePage2.setData(Collections.singletonList(movie2));
+
+        MovieApiResponseDto apiResponsePage3 = new MovieApiResponseDto();
+        apiResponsePage3.setPage(3);
+        apiResponsePage3.setTotalPages(3);
+        apiResponsePage3.setData(Collections.singletonList(movie3));
+
+        when(responseSpec.bodyToMono(MovieApiResponseDto.class))
+                .thenReturn(Mono.just(apiResponsePage1))
+                .thenReturn(Mono.just(apiResponsePage2))
+                .thenReturn(Mono.just(apiResponsePage3));
+
+        StepVerifier.create(webClientMovieApiClient.fetchAllMovies())
+                .expectNext(movie1, movie2, movie3)
+                .verifyComplete();
+
+        verify(webClient, times(3)).get();
+        verify(responseSpec, times(3)).bodyToMono(MovieApiResponseDto.class);
+    }
+
+    @Test
+    @DisplayName("fetchAllMovies in fan-out mode should only fetch the first page when there is a single page")
+    void fetchAllMovies_fanOutShouldFetchOnlyFirstPage_whenSinglePage() {
+        setupWebClientMockChain();
+        when(movieApiProperties.getPageConcurrency()).thenReturn(4);
+
+        MovieDto movie1 = new MovieDto(); movie1.setTitle("Movie 1");
+
+        MovieApiResponseDto apiResponsePage1 = new MovieApiResponseDto();
+        apiResponsePage1.setPage(1);
+        apiResponsePage1.setTotalPages(1);
+        apiResponsePage1.setData(Collections.singletonList(movie1));
+
+        when(responseSpec.bodyToMono(MovieApiResponseDto.class))
+                .thenReturn(Mono.just(apiResponsePage1));
+
+        StepVerifier.create(webClientMovieApiClient.fetchAllMovies())
+                .expectNext(movie1)
+                .verifyComplete();
+
+        verify(webClient, times(1)).get();
     }
 
     @Test
@@ -185,10 +276,59 @@ class WebClientMovieApiClientTest {
                         throwable.getMessage().equals("API error"))
                 .verify();
 
+        assertEquals(1L, registry.get("movie.api.page.fetch").tags("page", "1", "outcome", "ERROR").timer().count());
+
 
         verify(webClient, times(1)).get();
         verify(requestHeadersUriSpec, times(1)).uri(any(java.util.function.Function.class));
         verify(requestHeadersSpec, times(1)).retrieve();
         verify(responseSpec, times(1)).bodyToMono(MovieApiResponseDto.class);
     }
+
+    @Test
+    @DisplayName("fetchAllPages should fingerprint pages by ETag and report 304 responses as not modified")
+    void fetchAllPages_shouldUseEtagsAndReportNotModifiedPages() {
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(any(java.util.function.Function.class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.headers(any())).thenReturn(requestHeadersSpec);
+
+        ClientResponse notModifiedResponse = mock(ClientResponse.class);
+        when(notModifiedResponse.statusCode()).thenReturn(HttpStatus.NOT_MODIFIED);
+        when(notModifiedResponse.releaseBody()).thenReturn(Mono.empty());
+
+        MovieDto movie = new MovieDto(); movie.setDirector("Director A");
+        MovieApiResponseDto apiResponsePage2 = new MovieApiResponseDto();
+        apiResponsePage2.setPage(2);
+        apiResponsePage2.setTotalPages(2);
+        apiResponsePage2.setData(Collections.singletonList(movie));
+
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setETag("\"v2\"");
+        ClientResponse.Headers responseHeaders = mock(ClientResponse.Headers.class);
+        when(responseHeaders.asHttpHeaders()).thenReturn(httpHeaders);
+        ClientResponse okResponse = mock(ClientResponse.class);
+        when(okResponse.statusCode()).thenReturn(HttpStatus.OK);
+        when(okResponse.headers()).thenReturn(responseHeaders);
+        when(okResponse.bodyToMono(MovieApiResponseDto.class)).thenReturn(Mono.just(apiResponsePage2));
+
+        when(requestHeadersSpec.exchangeToMono(any()))
+                .thenAnswer(respondWith(notModifiedResponse))
+                .thenAnswer(respondWith(okResponse));
+
+        Map<Integer, String> knownFingerprints = Map.of(1, "etag:\"v1\"", 2, "etag:\"v1\"");
+
+        StepVerifier.create(webClientMovieApiClient.fetchAllPages(knownFingerprints))
+                .expectNextMatches(page -> page.getPage() == 1 && page.isNotModified()
+                        && page.getTotalPages() == 2 && page.getMovies().isEmpty())
+                .expectNextMatches(page -> page.getPage() == 2 && !page.isNotModified()
+                        && page.getFingerprint().equals("etag:\"v2\"")
+                        && page.getMovies().equals(List.of(movie)))
+                .verifyComplete();
+
+        verify(requestHeadersSpec, times(2)).exchangeToMono(any());
+    }
+
+    private Answer<Mono<?>> respondWith(ClientResponse response) {
+        return invocation -> invocation.<java.util.function.Function<ClientResponse, Mono<?>>>getArgument(0).apply(response);
+    }
 }
@@ -5,21 +5,32 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 
-@SpringBootTest(classes = WebClientConfig.class)
+@SpringBootTest(classes = {WebClientConfig.class, MovieApiHttpProperties.class})
 @DisplayName("WebClientConfig Unit Tests")
 class WebClientConfigTest {
 
     @Autowired
     private WebClient.Builder webClientBuilder;
 
+    @Autowired
+    private ConnectionProvider movieApiConnectionProvider;
+
     @Test
     @DisplayName("WebClient.Builder bean should be injected and not null")
     void webClientBuilder_shouldBeInjected() {
         assertNotNull(webClientBuilder, "WebClient.Builder should be injected by Spring context.");
 
     }
+
+    @Test
+    @DisplayName("ConnectionProvider bean should be the named, bounded upstream pool")
+    void movieApiConnectionProvider_shouldUseConfiguredPool() {
+        assertEquals("movie-api", movieApiConnectionProvider.name());
+        assertEquals(50, movieApiConnectionProvider.maxConnections());
+    }
 }
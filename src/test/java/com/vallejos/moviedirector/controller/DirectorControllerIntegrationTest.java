@@ -1,24 +1,56 @@
 package com.vallejos.moviedirector.controller;
 
+import com.vallejos.moviedirector.configuration.DirectorAdmissionProperties;
+import com.vallejos.moviedirector.configuration.DirectorHttpProperties;
+import com.vallejos.moviedirector.dto.DirectorBatchResponseDto;
+import com.vallejos.moviedirector.dto.DirectorCountDto;
+import com.vallejos.moviedirector.dto.DirectorFilterDto;
+import com.vallejos.moviedirector.dto.DirectorHistogramDto;
 import com.vallejos.moviedirector.dto.DirectorResponseDto;
+import com.vallejos.moviedirector.dto.DirectorStreamRecordDto;
+import com.vallejos.moviedirector.dto.TopDirectorsResponseDto;
+import com.vallejos.moviedirector.metrics.DirectorMetrics;
+import com.vallejos.moviedirector.service.AdaptiveConcurrencyLimiter;
 import com.vallejos.moviedirector.service.DirectorService;
+import com.vallejos.moviedirector.service.SnapshotResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(DirectorController.class)
+@Import({SnapshotResponses.class, DirectorHttpProperties.class, AdaptiveConcurrencyLimiter.class,
+        DirectorAdmissionProperties.class, DirectorMetrics.class})
 @DisplayName("DirectorController Integration Tests")
 class DirectorControllerIntegrationTest {
 
@@ -34,6 +66,11 @@ class DirectorControllerIntegrationTest {
         public DirectorService directorService() {
             return mock(DirectorService.class);
         }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
     }
 
     @Test
@@ -41,8 +78,8 @@ class DirectorControllerIntegrationTest {
     void getDirectors_shouldReturnDirectors() {
 
         DirectorResponseDto expectedResponse = new DirectorResponseDto(Arrays.asList("Director A", "Director B"));
-        when(directorServiceMock.getDirectorsWithMoreMoviesThan(anyString()))
-                .thenReturn(Mono.just(expectedResponse));
+        when(directorServiceMock.getDirectorsWithMoreMoviesThan(anyString(), any(DirectorFilterDto.class)))
+                .thenReturn(Mono.just(SnapshotResult.unversioned(expectedResponse)));
 
         webTestClient.get()
                 .uri("/api/directors?threshold=1")
@@ -53,11 +90,29 @@ class DirectorControllerIntegrationTest {
                 .jsonPath("$.directors[1]").isEqualTo("Director B");
     }
 
+    @Test
+    @DisplayName("should bind the optional movie filters from the query string")
+    void getDirectors_shouldPassMovieFilters() {
+
+        when(directorServiceMock.getDirectorsWithMoreMoviesThan(eq("2"), argThat(filter -> filter != null
+                && "Drama".equals(filter.getGenre()) && "2012".equals(filter.getYearFrom())
+                && "2015".equals(filter.getYearTo()) && "PG-13".equals(filter.getRated())
+                && filter.getRuntimeMin() == null && "120".equals(filter.getRuntimeMax()))))
+                .thenReturn(Mono.just(SnapshotResult.unversioned(new DirectorResponseDto(List.of("Director A")))));
+
+        webTestClient.get()
+                .uri("/api/directors?threshold=2&genre=Drama&yearFrom=2012&yearTo=2015&rated=PG-13&runtimeMax=120")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.directors[0]").isEqualTo("Director A");
+    }
+
     @Test
     @DisplayName("should return bad request when threshold is not a number")
     void getDirectors_shouldReturnBadRequest_whenThresholdIsNotNumber() {
 
-        when(directorServiceMock.getDirectorsWithMoreMoviesThan("abc"))
+        when(directorServiceMock.getDirectorsWithMoreMoviesThan(eq("abc"), any(DirectorFilterDto.class)))
                 .thenThrow(new IllegalArgumentException("Threshold must be a number"));
 
         webTestClient.get()
@@ -73,8 +128,8 @@ class DirectorControllerIntegrationTest {
     void getDirectors_shouldReturnEmptyList_whenThresholdIsNegative() {
 
         DirectorResponseDto expectedResponse = new DirectorResponseDto(Collections.emptyList());
-        when(directorServiceMock.getDirectorsWithMoreMoviesThan(anyString()))
-                .thenReturn(Mono.just(expectedResponse));
+        when(directorServiceMock.getDirectorsWithMoreMoviesThan(anyString(), any(DirectorFilterDto.class)))
+                .thenReturn(Mono.just(SnapshotResult.unversioned(expectedResponse)));
 
         webTestClient.get()
                 .uri("/api/directors?threshold=-1")
@@ -83,4 +138,187 @@ class DirectorControllerIntegrationTest {
                 .expectBody()
                 .jsonPath("$.directors").isEmpty();
     }
+
+    @Test
+    @DisplayName("should return the director histogram keyed by movie count")
+    void getDirectorHistogram_shouldReturnHistogram() {
+
+        TreeMap<Long, Integer> histogram = new TreeMap<>();
+        histogram.put(1L, 4);
+        histogram.put(3L, 2);
+        when(directorServiceMock.getDirectorHistogram())
+                .thenReturn(Mono.just(SnapshotResult.unversioned(new DirectorHistogramDto(histogram))));
+
+        webTestClient.get()
+                .uri("/api/directors/histogram")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.histogram['1']").isEqualTo(4)
+                .jsonPath("$.histogram['3']").isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should answer a batch of thresholds with shared director names")
+    void getDirectorsBatch_shouldReturnResultsPerThreshold() {
+
+        when(directorServiceMock.getDirectorsForThresholds(List.of(0, 2)))
+                .thenReturn(Mono.just(SnapshotResult.unversioned(new DirectorBatchResponseDto(
+                        List.of("Director A", "Director B"), Map.of(0, List.of(0, 1), 2, List.of(1))))));
+
+        webTestClient.post()
+                .uri("/api/directors/batch")
+                .bodyValue(Map.of("thresholds", List.of(0, 2)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.directors[1]").isEqualTo("Director B")
+                .jsonPath("$.results['0'].length()").isEqualTo(2)
+                .jsonPath("$.results['2'][0]").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should return bad request when the batch has no thresholds")
+    void getDirectorsBatch_shouldReturnBadRequest_whenThresholdsAreEmpty() {
+
+        webTestClient.post()
+                .uri("/api/directors/batch")
+                .bodyValue(Map.of("thresholds", List.of()))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(directorServiceMock, never()).getDirectorsForThresholds(List.of());
+    }
+
+    @Test
+    @DisplayName("should stream director records as NDJSON when requested through the Accept header")
+    void streamDirectors_shouldStreamNdjson_whenAccepted() {
+
+        when(directorServiceMock.streamDirectorsWithMoreMoviesThan("1"))
+                .thenReturn(Flux.just(
+                        DirectorStreamRecordDto.director("Director B"),
+                        DirectorStreamRecordDto.summary(List.of("Director B"))));
+
+        Flux<DirectorStreamRecordDto> records = webTestClient.get()
+                .uri("/api/directors?threshold=1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(DirectorStreamRecordDto.class)
+                .getResponseBody();
+
+        StepVerifier.create(records)
+                .expectNext(DirectorStreamRecordDto.director("Director B"))
+                .expectNext(DirectorStreamRecordDto.summary(List.of("Director B")))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should return the top directors with their movie counts")
+    void getTopDirectors_shouldReturnDirectorsWithCounts() {
+
+        when(directorServiceMock.getTopDirectors("2"))
+                .thenReturn(Mono.just(SnapshotResult.unversioned(new TopDirectorsResponseDto(List.of(
+                        new DirectorCountDto("Woody Allen", 7), new DirectorCountDto("Martin Scorsese", 5))))));
+
+        webTestClient.get()
+                .uri("/api/directors/top?k=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.directors[0].director").isEqualTo("Woody Allen")
+                .jsonPath("$.directors[0].movies").isEqualTo(7)
+                .jsonPath("$.directors[1].director").isEqualTo("Martin Scorsese");
+    }
+
+    @Test
+    @DisplayName("should mark responses served from an expired snapshot as stale")
+    void getDirectors_shouldAddStalenessHeaders_whenSnapshotIsStale() {
+
+        when(directorServiceMock.getDirectorsWithMoreMoviesThan(eq("2"), any(DirectorFilterDto.class)))
+                .thenReturn(Mono.just(new SnapshotResult<>(() -> new DirectorResponseDto(List.of("Director A")), 3,
+                        "\"abc-directors-2\"", Instant.now().minusSeconds(600), true)));
+
+        webTestClient.get()
+                .uri("/api/directors?threshold=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.AGE, age -> assertTrue(Long.parseLong(age) >= 600))
+                .expectHeader().valueEquals(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                .expectBody()
+                .jsonPath("$.directors[0]").isEqualTo("Director A");
+    }
+
+    @Test
+    @DisplayName("should tag responses with an ETag and answer a matching If-None-Match with 304")
+    void getDirectors_shouldReturnNotModified_whenEtagMatches() {
+
+        when(directorServiceMock.getDirectorsWithMoreMoviesThan(eq("4"), any(DirectorFilterDto.class)))
+                .thenReturn(Mono.just(new SnapshotResult<>(() -> new DirectorResponseDto(List.of("Director A")), 1,
+                        "\"abc-directors-4\"", Instant.now(), false)));
+
+        webTestClient.get()
+                .uri("/api/directors?threshold=4")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"abc-directors-4\"")
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        webTestClient.get()
+                .uri("/api/directors?threshold=4")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"abc-directors-4\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"abc-directors-4\"")
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    @DisplayName("should write the same JSON for repeated requests served from the encoded response cache")
+    void getDirectors_shouldServeEncodedJson_whenRequestedRepeatedly() {
+
+        when(directorServiceMock.getDirectorsWithMoreMoviesThan(eq("5"), any(DirectorFilterDto.class)))
+                .thenReturn(Mono.just(new SnapshotResult<>(() -> new DirectorResponseDto(List.of("Director A", "Director B")),
+                        1, "\"abc-directors-5\"", Instant.now(), false)));
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/api/directors?threshold=5")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                    .expectBody().json("{\"directors\":[\"Director A\",\"Director B\"]}");
+        }
+    }
+
+    @Test
+    @DisplayName("should compute the body neither for a 304 nor when its encoding is cached")
+    void getDirectors_shouldNotComputeBody_whenNotModifiedOrEncoded() {
+
+        AtomicInteger computed = new AtomicInteger();
+        // Newer than the snapshot versions of the other tests, which share the encoded response cache.
+        long version = 1_000;
+        when(directorServiceMock.getDirectorsWithMoreMoviesThan(eq("6"), any(DirectorFilterDto.class)))
+                .thenReturn(Mono.just(new SnapshotResult<>(() -> {
+                    computed.incrementAndGet();
+                    return new DirectorResponseDto(List.of("Director A"));
+                }, version, "\"abc-directors-6\"", Instant.now(), false)));
+
+        webTestClient.get()
+                .uri("/api/directors?threshold=6")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"abc-directors-6\"")
+                .exchange()
+                .expectStatus().isNotModified();
+        assertEquals(0, computed.get());
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/api/directors?threshold=6")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().json("{\"directors\":[\"Director A\"]}");
+        }
+        assertEquals(1, computed.get());
+    }
 }
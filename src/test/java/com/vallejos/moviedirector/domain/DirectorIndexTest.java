@@ -0,0 +1,113 @@
+package com.vallejos.moviedirector.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("DirectorIndex Domain Unit Tests")
+class DirectorIndexTest {
+
+    private final DirectorIndex index = DirectorIndex.of(Map.of(
+            "Woody Allen", 5L,
+            "Clint Eastwood", 3L,
+            "Martin Scorsese", 5L,
+            "Pedro Almodóvar", 2L,
+            "Ang Lee", 3L,
+            "Bong Joon-ho", 1L));
+
+    @Test
+    @DisplayName("directorsWithMoreMoviesThan should merge qualifying buckets alphabetically")
+    void directorsWithMoreMoviesThan_shouldReturnAlphabeticalDirectorsAboveThreshold() {
+
+        assertEquals(List.of("Ang Lee", "Clint Eastwood", "Martin Scorsese", "Woody Allen"),
+                index.directorsWithMoreMoviesThan(2));
+        assertEquals(List.of("Martin Scorsese", "Woody Allen"), index.directorsWithMoreMoviesThan(4));
+        assertEquals(List.of("Ang Lee", "Bong Joon-ho", "Clint Eastwood", "Martin Scorsese", "Pedro Almodóvar", "Woody Allen"),
+                index.directorsWithMoreMoviesThan(0));
+    }
+
+    @Test
+    @DisplayName("directorsWithMoreMoviesThan should return an empty list when no bucket qualifies")
+    void directorsWithMoreMoviesThan_shouldReturnEmptyList_whenNoDirectorQualifies() {
+
+        assertTrue(index.directorsWithMoreMoviesThan(5).isEmpty());
+        assertTrue(DirectorIndex.of(Map.of()).directorsWithMoreMoviesThan(0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("directorsWithMoreMoviesThan should reuse the result for thresholds in the same bucket range")
+    void directorsWithMoreMoviesThan_shouldMemoizeResultPerBucketPrefix() {
+
+        assertSame(index.directorsWithMoreMoviesThan(3), index.directorsWithMoreMoviesThan(4));
+    }
+
+    @Test
+    @DisplayName("directorsWithMoreMoviesThan should stop memoizing once the memo holds its budget of names")
+    void directorsWithMoreMoviesThan_shouldCapTheMemo() {
+        Map<String, Long> counts = new HashMap<>();
+        for (long movies = 1; movies <= 20; movies++) {
+            counts.put("Director " + movies, movies);
+        }
+        DirectorIndex manyBuckets = DirectorIndex.of(counts);
+
+        for (long threshold = 19; threshold >= 0; threshold--) {
+            assertEquals(20 - threshold, manyBuckets.directorsWithMoreMoviesThan(threshold).size());
+        }
+
+        assertSame(manyBuckets.directorsWithMoreMoviesThan(19), manyBuckets.directorsWithMoreMoviesThan(19));
+        assertSame(manyBuckets.directorsWithMoreMoviesThan(8), manyBuckets.directorsWithMoreMoviesThan(8));
+        assertNotSame(manyBuckets.directorsWithMoreMoviesThan(7), manyBuckets.directorsWithMoreMoviesThan(7));
+        assertEquals(manyBuckets.directorsWithMoreMoviesThan(0), manyBuckets.directorsWithMoreMoviesThan(0));
+        assertEquals(counts.keySet().stream().sorted().toList(), manyBuckets.directorsWithMoreMoviesThan(0));
+    }
+
+    @Test
+    @DisplayName("histogram should count directors per exact number of movies")
+    void histogram_shouldCountDirectorsPerMovieCount() {
+
+        assertEquals(Map.of(1L, 1, 2L, 1, 3L, 2, 5L, 2), index.histogram());
+        assertEquals(List.of(1L, 2L, 3L, 5L), List.copyOf(index.histogram().keySet()));
+    }
+
+    @Test
+    @DisplayName("ranking should order directors by count descending and then by name")
+    void ranking_shouldOrderByCountThenName() {
+
+        assertEquals(6, index.size());
+        assertEquals("Martin Scorsese", index.directorAt(0));
+        assertEquals("Woody Allen", index.directorAt(1));
+        assertEquals("Ang Lee", index.directorAt(2));
+        assertEquals(3L, index.countAt(2));
+    }
+
+    @Test
+    @DisplayName("countsOfDirectorsWithMoreMoviesThan should align the counts with the alphabetical directors")
+    void countsOfDirectorsWithMoreMoviesThan_shouldAlignWithDirectors() {
+
+        assertArrayEquals(new long[]{3, 3, 5, 5}, index.countsOfDirectorsWithMoreMoviesThan(2));
+        assertArrayEquals(new long[0], index.countsOfDirectorsWithMoreMoviesThan(5));
+    }
+
+    @Test
+    @DisplayName("of should build the same index from counts per director id, leaving out ids without movies")
+    void of_shouldBuildIndexFromCountsPerDirectorId() {
+
+        DirectorIndex fromIds = DirectorIndex.of(
+                new String[]{"Woody Allen", "Ang Lee", "Bong Joon-ho", "Clint Eastwood", "Martin Scorsese",
+                        "Pedro Almodóvar", "Orson Welles"},
+                new int[]{5, 3, 1, 3, 5, 2, 0, 0});
+
+        assertEquals(index.toMap(), fromIds.toMap());
+        assertEquals(index.directorsWithMoreMoviesThan(0), fromIds.directorsWithMoreMoviesThan(0));
+        assertEquals(index.histogram(), fromIds.histogram());
+    }
+}
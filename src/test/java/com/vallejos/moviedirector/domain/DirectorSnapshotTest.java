@@ -0,0 +1,25 @@
+package com.vallejos.moviedirector.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@DisplayName("DirectorSnapshot Domain Unit Tests")
+class DirectorSnapshotTest {
+
+    @Test
+    @DisplayName("contentHash should depend on the director counts only, not on version or creation time")
+    void contentHash_shouldIdentifyTheData() {
+        DirectorSnapshot snapshot = new DirectorSnapshot(1, Map.of("Woody Allen", 5L, "Ang Lee", 3L), Instant.EPOCH);
+        DirectorSnapshot sameData = new DirectorSnapshot(7, Map.of("Ang Lee", 3L, "Woody Allen", 5L), Instant.now());
+        DirectorSnapshot otherData = new DirectorSnapshot(1, Map.of("Woody Allen", 5L, "Ang Lee", 4L), Instant.EPOCH);
+
+        assertEquals(snapshot.getContentHash(), sameData.getContentHash());
+        assertNotEquals(snapshot.getContentHash(), otherData.getContentHash());
+    }
+}
@@ -0,0 +1,90 @@
+package com.vallejos.moviedirector.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("MovieIndex Unit Tests")
+class MovieIndexTest {
+
+    private static final String[] DIRECTORS = {"Director A", "Director B", "Director C"};
+    private static final String[] GENRES = {"Drama", "Comedy", "Sci-Fi", "drama"};
+    private static final String[] RATINGS = {"PG-13", "R"};
+
+    @Test
+    @DisplayName("select should intersect genre, rating, year and runtime conditions across segments")
+    void select_shouldIntersectConditionsAcrossSegments() {
+        MovieSegment first = MovieSegment.builder(2)
+                .add((short) 2013, (short) 120, 0, 0, 0, new int[]{0, 2}, 2)
+                .add((short) 2014, (short) 95, 0, 0, 1, new int[]{3}, 1)
+                .build(false);
+        MovieSegment second = MovieSegment.builder(3)
+                .add((short) 2016, (short) 120, 0, 0, 0, new int[]{0}, 1)
+                .add((short) 2013, MovieSegment.UNKNOWN_SHORT, 0, 1, 0, new int[]{0}, 1)
+                .add((short) 2012, (short) 150, 0, 0, MovieSegment.UNKNOWN_ID, new int[]{0}, 1)
+                .build(true);
+        MovieIndex index = new MovieTable(List.of(first, second), DIRECTORS, GENRES, RATINGS).index();
+
+        MovieBitmap dramaPg13 = index.select(new MovieFilter("DRAMA", 2012, 2015, "pg-13", null, null));
+        assertEquals(3, dramaPg13.cardinality());
+        assertArrayEquals(new int[]{1, 1, 0}, index.countByDirector(dramaPg13));
+
+        MovieBitmap longMovies = index.select(new MovieFilter(null, null, 2015, null, 100, null));
+        assertArrayEquals(new int[]{1, 0, 0}, index.countByDirector(longMovies));
+        assertEquals(2, longMovies.cardinality());
+
+        assertEquals(0, index.select(new MovieFilter("Western", null, null, null, null, null)).cardinality());
+        assertEquals(5, index.select(MovieFilter.NONE).cardinality());
+    }
+
+    @Test
+    @DisplayName("select should match a brute-force scan on a catalog large enough for dense bitmaps")
+    void select_shouldMatchScan_withDenseBitmaps() {
+        Random random = new Random(42);
+        int size = 20_000;
+        MovieSegment.Builder builder = MovieSegment.builder(size);
+        short[] years = new short[size];
+        short[] runtimes = new short[size];
+        int[] genres = new int[size];
+        int[] directors = new int[size];
+        for (int row = 0; row < size; row++) {
+            years[row] = (short) (1980 + random.nextInt(40));
+            runtimes[row] = (short) (60 + random.nextInt(120));
+            genres[row] = random.nextInt(3);
+            directors[row] = random.nextInt(DIRECTORS.length);
+            builder.add(years[row], runtimes[row], 0, 0, directors[row], new int[]{genres[row]}, 1);
+        }
+        MovieIndex index = new MovieTable(List.of(builder.build(false)), DIRECTORS, GENRES, RATINGS).index();
+
+        int[] expected = new int[DIRECTORS.length];
+        for (int row = 0; row < size; row++) {
+            if (genres[row] != 1 && years[row] >= 1990 && years[row] <= 2005 && runtimes[row] >= 90) {
+                expected[directors[row]]++;
+            }
+        }
+        int[] drama = index.countByDirector(index.select(new MovieFilter("Drama", 1990, 2005, null, 90, null)));
+        int[] sciFi = index.countByDirector(index.select(new MovieFilter("Sci-Fi", 1990, 2005, null, 90, null)));
+        for (int director = 0; director < DIRECTORS.length; director++) {
+            assertEquals(expected[director], drama[director] + sciFi[director]);
+        }
+    }
+
+    @Test
+    @DisplayName("index should be built on first use and kept with the table")
+    void index_shouldBeMemoizedPerTable() {
+        MovieTable table = new MovieTable(List.of(), DIRECTORS, GENRES, RATINGS);
+        assertFalse(table.isIndexBuilt());
+        assertEquals(0, table.indexSizeInBytes());
+
+        assertSame(table.index(), table.index());
+        assertTrue(table.isIndexBuilt());
+    }
+}
@@ -0,0 +1,44 @@
+package com.vallejos.moviedirector.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@DisplayName("MovieTable Unit Tests")
+class MovieTableTest {
+
+    private static final String[] DIRECTORS = {"Director A", "Director B"};
+    private static final String[] GENRES = {"Drama", "Comedy"};
+    private static final String[] RATINGS = {"PG-13"};
+
+    @Test
+    @DisplayName("contentHash should combine the segment hashes, on or off heap, and change with any page")
+    void contentHash_shouldIdentifyTheCatalog() {
+        MovieTable onHeap = new MovieTable(List.of(segment(2010, false), segment(2012, false)),
+                DIRECTORS, GENRES, RATINGS);
+        MovieTable offHeap = new MovieTable(List.of(segment(2010, true), segment(2012, true)),
+                DIRECTORS, GENRES, RATINGS);
+        MovieTable changedPage = new MovieTable(List.of(segment(2010, false), segment(2013, false)),
+                DIRECTORS, GENRES, RATINGS);
+        MovieTable reordered = new MovieTable(List.of(segment(2012, false), segment(2010, false)),
+                DIRECTORS, GENRES, RATINGS);
+        MovieTable renamed = new MovieTable(List.of(segment(2010, false), segment(2012, false)),
+                new String[]{"Director A", "Director C"}, GENRES, RATINGS);
+
+        assertEquals(onHeap.contentHash(), offHeap.contentHash());
+        assertNotEquals(onHeap.contentHash(), changedPage.contentHash());
+        assertNotEquals(onHeap.contentHash(), reordered.contentHash());
+        assertNotEquals(onHeap.contentHash(), renamed.contentHash());
+    }
+
+    private static MovieSegment segment(int year, boolean offHeap) {
+        return MovieSegment.builder(2)
+                .add((short) year, (short) 120, MovieSegment.UNKNOWN_DAY, 0, 0, new int[]{0, 1}, 2)
+                .add((short) year, MovieSegment.UNKNOWN_SHORT, 14806, MovieSegment.UNKNOWN_ID, 1, new int[]{1}, 1)
+                .build(offHeap);
+    }
+}
@@ -2,9 +2,11 @@ package com.vallejos.moviedirector.exception;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Duration;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -34,4 +36,34 @@ class GlobalExceptionHandlerTest {
         assertTrue(responseBody.containsKey("error"), "Response body should contain an 'error' key");
         assertEquals(errorMessage, responseBody.get("error"), "Error message should match the exception message");
     }
+
+    @Test
+    @DisplayName("should handle UpstreamUnavailableException and return 503 with Retry-After")
+    void handleUpstreamUnavailableException_shouldReturnServiceUnavailable() {
+
+        UpstreamUnavailableException exception =
+                new UpstreamUnavailableException("Movie API circuit breaker is open", Duration.ofMillis(12_300));
+
+        ResponseEntity<Map<String, String>> responseEntity =
+                globalExceptionHandler.handleUpstreamUnavailableException(exception);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("13", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Movie API circuit breaker is open", responseEntity.getBody().get("error"));
+    }
+
+    @Test
+    @DisplayName("should handle ServiceOverloadedException and return 503 with Retry-After")
+    void handleServiceOverloadedException_shouldReturnServiceUnavailable() {
+
+        ServiceOverloadedException exception =
+                new ServiceOverloadedException("Too many concurrent requests", Duration.ofMillis(200));
+
+        ResponseEntity<Map<String, String>> responseEntity =
+                globalExceptionHandler.handleServiceOverloadedException(exception);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("1", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Too many concurrent requests", responseEntity.getBody().get("error"));
+    }
 }
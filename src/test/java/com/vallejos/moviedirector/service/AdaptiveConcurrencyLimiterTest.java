@@ -0,0 +1,138 @@
+package com.vallejos.moviedirector.service;
+
+import com.vallejos.moviedirector.configuration.DirectorAdmissionProperties;
+import com.vallejos.moviedirector.exception.ServiceOverloadedException;
+import com.vallejos.moviedirector.metrics.DirectorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("AdaptiveConcurrencyLimiter Unit Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+    private DirectorAdmissionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DirectorAdmissionProperties();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+        properties.setMaxLimit(100);
+        properties.setMaxQueueSize(1);
+        properties.setMaxQueueWait(Duration.ofMillis(500));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter() {
+        return new AdaptiveConcurrencyLimiter(properties, new DirectorMetrics(new SimpleMeterRegistry()),
+                nanos::get, scheduler);
+    }
+
+    @Test
+    @DisplayName("should run requests up to the limit, queue the next ones and shed the rest")
+    void protect_shouldQueueAndShedExcessRequests() {
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        Sinks.One<String> first = Sinks.one();
+        AtomicBoolean queuedStarted = new AtomicBoolean();
+        AtomicReference<Throwable> shed = new AtomicReference<>();
+
+        limiter.protect(first.asMono()).subscribe();
+        limiter.protect(Mono.<String>never()).subscribe();
+        limiter.protect(Mono.fromRunnable(() -> queuedStarted.set(true))).subscribe();
+        limiter.protect(Mono.just("shed")).subscribe(value -> { }, shed::set);
+
+        assertEquals(2, limiter.inFlight());
+        assertEquals(1, limiter.queued());
+        assertFalse(queuedStarted.get());
+        assertInstanceOf(ServiceOverloadedException.class, shed.get());
+        assertEquals(Duration.ofSeconds(1), ((ServiceOverloadedException) shed.get()).getRetryAfter());
+
+        first.tryEmitValue("done");
+
+        assertTrue(queuedStarted.get());
+        assertEquals(0, limiter.queued());
+        assertEquals(1, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("should shed a queued request once it has waited longer than the maximum queue wait")
+    void protect_shouldShedQueuedRequest_whenWaitExpires() {
+        properties.setInitialLimit(1);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        limiter.protect(Mono.never()).subscribe();
+        limiter.protect(Mono.just("late")).subscribe(value -> { }, error::set);
+        scheduler.advanceTimeBy(Duration.ofMillis(499));
+        assertEquals(1, limiter.queued());
+
+        scheduler.advanceTimeBy(Duration.ofMillis(1));
+
+        assertInstanceOf(ServiceOverloadedException.class, error.get());
+        assertEquals(0, limiter.queued());
+    }
+
+    @Test
+    @DisplayName("should free the slot of a cancelled request")
+    void protect_shouldReleaseSlot_whenCancelled() {
+        properties.setInitialLimit(1);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        AtomicBoolean queuedStarted = new AtomicBoolean();
+
+        Disposable running = limiter.protect(Mono.never()).subscribe();
+        limiter.protect(Mono.fromRunnable(() -> queuedStarted.set(true))).subscribe();
+        running.dispose();
+
+        assertTrue(queuedStarted.get());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    @DisplayName("should raise the limit while latency is steady and lower it once requests slow down")
+    void protect_shouldAdaptLimitToLatency() {
+        properties.setInitialLimit(4);
+        properties.setMaxQueueSize(100);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        for (int round = 0; round < 30; round++) {
+            runBatch(limiter, limiter.limit(), Duration.ofMillis(10));
+        }
+        int grown = limiter.limit();
+        assertTrue(grown > 4, "limit should grow, was " + grown);
+
+        for (int round = 0; round < 10; round++) {
+            runBatch(limiter, limiter.limit(), Duration.ofMillis(100));
+        }
+        int shrunk = limiter.limit();
+        assertTrue(shrunk < grown, "limit should shrink from " + grown + ", was " + shrunk);
+    }
+
+    private void runBatch(AdaptiveConcurrencyLimiter limiter, int requests, Duration latency) {
+        List<Sinks.One<String>> responses = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            Sinks.One<String> response = Sinks.one();
+            responses.add(response);
+            limiter.protect(response.asMono()).subscribe();
+        }
+        nanos.addAndGet(latency.toNanos());
+        responses.forEach(response -> response.tryEmitValue("ok"));
+    }
+}
@@ -1,19 +1,41 @@
 package com.vallejos.moviedirector.service;
 
+import com.vallejos.moviedirector.cache.DirectorSnapshotStore;
 import com.vallejos.moviedirector.client.MovieApiClient;
+import com.vallejos.moviedirector.configuration.DirectorCacheProperties;
+import com.vallejos.moviedirector.configuration.DirectorSnapshotProperties;
+import com.vallejos.moviedirector.configuration.MovieStoreProperties;
 import com.vallejos.moviedirector.domain.Movie;
+import com.vallejos.moviedirector.dto.DirectorCountDto;
+import com.vallejos.moviedirector.dto.DirectorFilterDto;
+import com.vallejos.moviedirector.dto.DirectorResponseDto;
+import com.vallejos.moviedirector.dto.DirectorStreamRecordDto;
 
 import com.vallejos.moviedirector.dto.MovieDto;
+import com.vallejos.moviedirector.dto.MoviePageDto;
 import com.vallejos.moviedirector.mapper.MovieMapper;
+import com.vallejos.moviedirector.metrics.DirectorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,9 +48,19 @@ class DirectorServiceTest {
     @Mock
     private MovieMapper movieMapper;
 
-    @InjectMocks
     private DirectorService directorService;
 
+    @BeforeEach
+    void setUp() {
+        directorService = new DirectorService(movieApiClient, movieMapper, new DirectorCacheProperties(),
+                new DirectorSnapshotStore(new DirectorSnapshotProperties()), new DirectorMetrics(new SimpleMeterRegistry()),
+                new MovieStoreProperties());
+    }
+
+    private MoviePageDto page(MovieDto... movies) {
+        return new MoviePageDto(1, 1, "sha256:page-1", false, List.of(movies));
+    }
+
     @Test
     @DisplayName("should return correct directors for a valid threshold")
     void getDirectorsWithMoreMoviesThan_shouldReturnCorrectDirectors() {
@@ -46,7 +78,7 @@ class DirectorServiceTest {
         Movie m5 = new Movie(); m5.setDirector("Director C");
         Movie m6 = new Movie(); m6.setDirector("Director C");
 
-        when(movieApiClient.fetchAllMovies()).thenReturn(Flux.just(dto1, dto2, dto3, dto4, dto5, dto6));
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(page(dto1, dto2, dto3, dto4, dto5, dto6)));
         
 
         when(movieMapper.toDomain(dto1)).thenReturn(m1);
@@ -58,10 +90,10 @@ class DirectorServiceTest {
 
         StepVerifier.create(directorService.getDirectorsWithMoreMoviesThan("1"))
                 .expectNextMatches(response -> 
-                    response.getDirectors().size() == 2 &&
-                    response.getDirectors().contains("Director A") &&
-                    response.getDirectors().contains("Director C") &&
-                    !response.getDirectors().contains("Director B")
+                    response.getBody().getDirectors().size() == 2 &&
+                    response.getBody().getDirectors().contains("Director A") &&
+                    response.getBody().getDirectors().contains("Director C") &&
+                    !response.getBody().getDirectors().contains("Director B")
                 )
                 .verifyComplete();
     }
@@ -72,11 +104,11 @@ class DirectorServiceTest {
          MovieDto dto1 = new MovieDto(); dto1.setDirector("Director A");
          Movie m1 = new Movie(); m1.setDirector("Director A");
          
-         when(movieApiClient.fetchAllMovies()).thenReturn(Flux.just(dto1));
+         when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(page(dto1)));
          when(movieMapper.toDomain(dto1)).thenReturn(m1);
          
          StepVerifier.create(directorService.getDirectorsWithMoreMoviesThan("5"))
-                .expectNextMatches(response -> response.getDirectors().isEmpty())
+                .expectNextMatches(response -> response.getBody().getDirectors().isEmpty())
                 .verifyComplete();
     }
 
@@ -84,7 +116,316 @@ class DirectorServiceTest {
     @DisplayName("should return empty list when threshold is negative")
     void getDirectorsWithMoreMoviesThan_shouldReturnEmptyList_whenThresholdIsNegative() {
         StepVerifier.create(directorService.getDirectorsWithMoreMoviesThan("-1"))
-                .expectNextMatches(response -> response.getDirectors().isEmpty())
+                .expectNextMatches(response -> response.getBody().getDirectors().isEmpty())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should serve repeated requests from the cached snapshot without crawling again")
+    void getDirectorsWithMoreMoviesThan_shouldServeFromSnapshot_onRepeatedRequests() {
+        MovieDto dto1 = new MovieDto(); dto1.setDirector("Director A");
+        MovieDto dto2 = new MovieDto(); dto2.setDirector("Director A");
+        Movie m1 = new Movie(); m1.setDirector("Director A");
+        Movie m2 = new Movie(); m2.setDirector("Director A");
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(page(dto1, dto2)));
+        when(movieMapper.toDomain(dto1)).thenReturn(m1);
+        when(movieMapper.toDomain(dto2)).thenReturn(m2);
+
+        StepVerifier.create(directorService.getDirectorsWithMoreMoviesThan("1"))
+                .expectNextMatches(response -> response.getBody().getDirectors().equals(List.of("Director A"))
+                        && response.getVersion() == 1 && response.getEtag().endsWith("-directors-1\""))
+                .verifyComplete();
+        StepVerifier.create(directorService.getDirectorsWithMoreMoviesThan("2"))
+                .expectNextMatches(response -> response.getBody().getDirectors().isEmpty()
+                        && response.getEtag().endsWith("-directors-2\""))
+                .verifyComplete();
+
+        verify(movieApiClient, times(1)).fetchAllPages(anyMap());
+    }
+
+    @Test
+    @DisplayName("should return how many directors have exactly k movies")
+    void getDirectorHistogram_shouldCountDirectorsPerMovieCount() {
+        MovieDto dto1 = new MovieDto(); dto1.setDirector("Director A");
+        MovieDto dto2 = new MovieDto(); dto2.setDirector("Director A");
+        MovieDto dto3 = new MovieDto(); dto3.setDirector("Director B");
+        Movie m1 = new Movie(); m1.setDirector("Director A");
+        Movie m2 = new Movie(); m2.setDirector("Director A");
+        Movie m3 = new Movie(); m3.setDirector("Director B");
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(page(dto1, dto2, dto3)));
+        when(movieMapper.toDomain(dto1)).thenReturn(m1);
+        when(movieMapper.toDomain(dto2)).thenReturn(m2);
+        when(movieMapper.toDomain(dto3)).thenReturn(m3);
+
+        StepVerifier.create(directorService.getDirectorHistogram())
+                .expectNextMatches(response -> response.getBody().getHistogram().equals(Map.of(1L, 1, 2L, 1)))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should ignore movies without a director while folding the stream")
+    void getDirectorsWithMoreMoviesThan_shouldIgnoreMoviesWithoutDirector() {
+        MovieDto dto1 = new MovieDto(); dto1.setDirector("Director A");
+        MovieDto dto2 = new MovieDto(); dto2.setDirector(" ");
+        MovieDto dto3 = new MovieDto();
+        Movie m1 = new Movie(); m1.setDirector("Director A");
+        Movie m2 = new Movie(); m2.setDirector(" ");
+        Movie m3 = new Movie();
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(page(dto1, dto2, dto3)));
+        when(movieMapper.toDomain(dto1)).thenReturn(m1);
+        when(movieMapper.toDomain(dto2)).thenReturn(m2);
+        when(movieMapper.toDomain(dto3)).thenReturn(m3);
+
+        StepVerifier.create(directorService.getDirectorsWithMoreMoviesThan("0"))
+                .expectNextMatches(response -> response.getBody().getDirectors().equals(List.of("Director A")))
                 .verifyComplete();
     }
+
+    @Test
+    @DisplayName("should count only the movies meeting every filter, with the filters in the entity tag")
+    void getDirectorsWithMoreMoviesThan_shouldCountOnlyFilteredMovies() {
+        Movie m1 = movie("Director A", "Drama, Romance", "2013", "PG-13");
+        Movie m2 = movie("Director A", "drama", "2014", "PG-13");
+        Movie m3 = movie("Director A", "Drama", "2016", "PG-13");
+        Movie m4 = movie("Director B", "Comedy", "2013", "PG-13");
+        Movie m5 = movie("Director B", "Drama", "2012", "R");
+        MovieDto dto1 = new MovieDto(); dto1.setTitle("1");
+        MovieDto dto2 = new MovieDto(); dto2.setTitle("2");
+        MovieDto dto3 = new MovieDto(); dto3.setTitle("3");
+        MovieDto dto4 = new MovieDto(); dto4.setTitle("4");
+        MovieDto dto5 = new MovieDto(); dto5.setTitle("5");
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(page(dto1, dto2, dto3, dto4, dto5)));
+        when(movieMapper.toDomain(dto1)).thenReturn(m1);
+        when(movieMapper.toDomain(dto2)).thenReturn(m2);
+        when(movieMapper.toDomain(dto3)).thenReturn(m3);
+        when(movieMapper.toDomain(dto4)).thenReturn(m4);
+        when(movieMapper.toDomain(dto5)).thenReturn(m5);
+
+        StepVerifier.create(directorService.getDirectorsWithMoreMoviesThan("1",
+                        new DirectorFilterDto("Drama", "2012", "2015", "pg-13", null, " ")))
+                .expectNextMatches(response -> response.getBody().getDirectors().equals(List.of("Director A"))
+                        && response.getEtag().endsWith("-directors-1;genre=drama;year=2012-2015;rated=pg-13\""))
+                .verifyComplete();
+        StepVerifier.create(directorService.getDirectorsWithMoreMoviesThan("0",
+                        new DirectorFilterDto(null, "2013", null, null, null, null)))
+                .expectNextMatches(response ->
+                        response.getBody().getDirectors().equals(List.of("Director A", "Director B")))
+                .verifyComplete();
+
+        verify(movieApiClient, times(1)).fetchAllPages(anyMap());
+    }
+
+    @Test
+    @DisplayName("should change the entity tag of a filtered query when only a genre changes")
+    void getDirectorsWithMoreMoviesThan_shouldChangeFilteredEtag_whenOnlyTheTableChanges() {
+        DirectorCacheProperties uncached = new DirectorCacheProperties();
+        uncached.setTtl(Duration.ZERO);
+        DirectorService service = new DirectorService(movieApiClient, movieMapper, uncached,
+                new DirectorSnapshotStore(new DirectorSnapshotProperties()), new DirectorMetrics(new SimpleMeterRegistry()),
+                new MovieStoreProperties());
+        MovieDto drama = new MovieDto(); drama.setTitle("drama");
+        MovieDto comedy = new MovieDto(); comedy.setTitle("comedy");
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(
+                Flux.just(new MoviePageDto(1, 1, "sha256:drama", false, List.of(drama))),
+                Flux.just(new MoviePageDto(1, 1, "sha256:comedy", false, List.of(comedy))));
+        when(movieMapper.toDomain(drama)).thenReturn(movie("Director A", "Drama", "2013", "PG-13"));
+        when(movieMapper.toDomain(comedy)).thenReturn(movie("Director A", "Comedy", "2013", "PG-13"));
+        DirectorFilterDto comedies = new DirectorFilterDto("Comedy", null, null, null, null, null);
+
+        SnapshotResult<DirectorResponseDto> before = service.getDirectorsWithMoreMoviesThan("0", comedies).block();
+        SnapshotResult<DirectorResponseDto> after = service.getDirectorsWithMoreMoviesThan("0", comedies).block();
+
+        assertEquals(List.of(), before.getBody().getDirectors());
+        assertEquals(List.of("Director A"), after.getBody().getDirectors());
+        assertNotEquals(before.getEtag(), after.getEtag());
+    }
+
+    @Test
+    @DisplayName("should throw IllegalArgumentException for a non-numeric or inverted filter range")
+    void getDirectorsWithMoreMoviesThan_shouldThrow_whenFilterIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> directorService.getDirectorsWithMoreMoviesThan("1",
+                new DirectorFilterDto(null, "abc", null, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> directorService.getDirectorsWithMoreMoviesThan("1",
+                new DirectorFilterDto(null, "2015", "2012", null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> directorService.getDirectorsWithMoreMoviesThan("1",
+                new DirectorFilterDto(null, null, null, null, "-5", null)));
+    }
+
+    private static Movie movie(String director, String genre, String year, String rated) {
+        Movie movie = new Movie();
+        movie.setDirector(director);
+        movie.setGenre(genre);
+        movie.setYear(year);
+        movie.setRated(rated);
+        return movie;
+    }
+
+    @Test
+    @DisplayName("should answer several thresholds from one crawl with shared director names")
+    void getDirectorsForThresholds_shouldAnswerEveryThresholdFromOneSnapshot() {
+        MovieDto dto1 = new MovieDto(); dto1.setDirector("Director B");
+        MovieDto dto2 = new MovieDto(); dto2.setDirector("Director B");
+        MovieDto dto3 = new MovieDto(); dto3.setDirector("Director A");
+        Movie m1 = new Movie(); m1.setDirector("Director B");
+        Movie m2 = new Movie(); m2.setDirector("Director B");
+        Movie m3 = new Movie(); m3.setDirector("Director A");
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(page(dto1, dto2, dto3)));
+        when(movieMapper.toDomain(dto1)).thenReturn(m1);
+        when(movieMapper.toDomain(dto2)).thenReturn(m2);
+        when(movieMapper.toDomain(dto3)).thenReturn(m3);
+
+        StepVerifier.create(directorService.getDirectorsForThresholds(List.of(1, 0, 5, -1, 0)))
+                .expectNextMatches(response ->
+                        response.getBody().getDirectors().equals(List.of("Director A", "Director B"))
+                                && response.getBody().getResults().equals(Map.of(
+                                        0, List.of(0, 1),
+                                        1, List.of(1),
+                                        5, List.of(),
+                                        -1, List.of())))
+                .verifyComplete();
+
+        verify(movieApiClient, times(1)).fetchAllPages(anyMap());
+    }
+
+    @Test
+    @DisplayName("should stream each director as soon as their running count exceeds the threshold while crawling")
+    void streamDirectorsWithMoreMoviesThan_shouldEmitDirectorsEarly_whenNoSnapshotIsCached() {
+        MovieDto dto1 = new MovieDto(); dto1.setDirector("Director B");
+        MovieDto dto2 = new MovieDto(); dto2.setDirector("Director A");
+        MovieDto dto3 = new MovieDto(); dto3.setDirector("Director B");
+        MovieDto dto4 = new MovieDto(); dto4.setDirector("Director A");
+        Movie m1 = new Movie(); m1.setDirector("Director B");
+        Movie m2 = new Movie(); m2.setDirector("Director A");
+        Movie m3 = new Movie(); m3.setDirector("Director B");
+        Movie m4 = new Movie(); m4.setDirector("Director A");
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(
+                new MoviePageDto(1, 2, "sha256:page-1", false, List.of(dto1, dto2, dto3)),
+                new MoviePageDto(2, 2, "sha256:page-2", false, List.of(dto4))));
+        when(movieMapper.toDomain(dto1)).thenReturn(m1);
+        when(movieMapper.toDomain(dto2)).thenReturn(m2);
+        when(movieMapper.toDomain(dto3)).thenReturn(m3);
+        when(movieMapper.toDomain(dto4)).thenReturn(m4);
+
+        StepVerifier.create(directorService.streamDirectorsWithMoreMoviesThan("1"))
+                .expectNext(DirectorStreamRecordDto.director("Director B"))
+                .expectNext(DirectorStreamRecordDto.director("Director A"))
+                .expectNext(DirectorStreamRecordDto.summary(List.of("Director A", "Director B")))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should share one crawl between streams and seed the snapshot with it")
+    void streamDirectorsWithMoreMoviesThan_shouldShareTheSnapshotLoad() {
+        MovieDto dto1 = new MovieDto(); dto1.setDirector("Director A");
+        MovieDto dto2 = new MovieDto(); dto2.setDirector("Director A");
+        Movie m1 = new Movie(); m1.setDirector("Director A");
+        Movie m2 = new Movie(); m2.setDirector("Director A");
+        Sinks.Many<MoviePageDto> pages = Sinks.many().unicast().onBackpressureBuffer();
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(pages.asFlux());
+        when(movieMapper.toDomain(dto1)).thenReturn(m1);
+        when(movieMapper.toDomain(dto2)).thenReturn(m2);
+
+        StepVerifier first = StepVerifier.create(directorService.streamDirectorsWithMoreMoviesThan("1"))
+                .expectNext(DirectorStreamRecordDto.director("Director A"))
+                .expectNext(DirectorStreamRecordDto.summary(List.of("Director A")))
+                .expectComplete()
+                .verifyLater();
+        pages.tryEmitNext(new MoviePageDto(1, 2, "sha256:page-1", false, List.of(dto1)));
+        StepVerifier second = StepVerifier.create(directorService.streamDirectorsWithMoreMoviesThan("1"))
+                .expectNext(DirectorStreamRecordDto.director("Director A"))
+                .expectNext(DirectorStreamRecordDto.summary(List.of("Director A")))
+                .expectComplete()
+                .verifyLater();
+        pages.tryEmitNext(new MoviePageDto(2, 2, "sha256:page-2", false, List.of(dto2)));
+        pages.tryEmitComplete();
+
+        first.verify();
+        second.verify();
+        StepVerifier.create(directorService.getDirectorsWithMoreMoviesThan("1"))
+                .expectNextMatches(response -> response.getBody().getDirectors().equals(List.of("Director A")))
+                .verifyComplete();
+        verify(movieApiClient, times(1)).fetchAllPages(anyMap());
+    }
+
+    @Test
+    @DisplayName("should stream from the snapshot of a load that completed between assembly and subscription")
+    void streamDirectorsWithMoreMoviesThan_shouldNotCrawlAgain_whenALoadCompletesBeforeSubscription() {
+        MovieDto dto1 = new MovieDto(); dto1.setDirector("Director A");
+        MovieDto dto2 = new MovieDto(); dto2.setDirector("Director A");
+        Movie m1 = new Movie(); m1.setDirector("Director A");
+        Movie m2 = new Movie(); m2.setDirector("Director A");
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(page(dto1, dto2)));
+        when(movieMapper.toDomain(dto1)).thenReturn(m1);
+        when(movieMapper.toDomain(dto2)).thenReturn(m2);
+
+        Flux<DirectorStreamRecordDto> stream = directorService.streamDirectorsWithMoreMoviesThan("1");
+        directorService.getDirectorsWithMoreMoviesThan("1").block();
+
+        StepVerifier.create(stream)
+                .expectNext(DirectorStreamRecordDto.director("Director A"))
+                .expectNext(DirectorStreamRecordDto.summary(List.of("Director A")))
+                .verifyComplete();
+        verify(movieApiClient, times(1)).fetchAllPages(anyMap());
+    }
+
+    @Test
+    @DisplayName("should stream from the cached snapshot without crawling when one is available")
+    void streamDirectorsWithMoreMoviesThan_shouldStreamFromSnapshot_whenCached() {
+        MovieDto dto1 = new MovieDto(); dto1.setDirector("Director A");
+        Movie m1 = new Movie(); m1.setDirector("Director A");
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(page(dto1)));
+        when(movieMapper.toDomain(dto1)).thenReturn(m1);
+        directorService.getDirectorsWithMoreMoviesThan("0").block();
+
+        StepVerifier.create(directorService.streamDirectorsWithMoreMoviesThan("0"))
+                .expectNext(DirectorStreamRecordDto.director("Director A"))
+                .expectNext(DirectorStreamRecordDto.summary(List.of("Director A")))
+                .verifyComplete();
+
+        verify(movieApiClient, times(1)).fetchAllPages(anyMap());
+    }
+
+    @Test
+    @DisplayName("should return the k most prolific directors with ties broken by name")
+    void getTopDirectors_shouldRankByCountThenName() {
+        MovieDto dto1 = new MovieDto(); dto1.setDirector("Director C");
+        MovieDto dto2 = new MovieDto(); dto2.setDirector("Director C");
+        MovieDto dto3 = new MovieDto(); dto3.setDirector("Director B");
+        MovieDto dto4 = new MovieDto(); dto4.setDirector("Director A");
+        Movie m1 = new Movie(); m1.setDirector("Director C");
+        Movie m2 = new Movie(); m2.setDirector("Director C");
+        Movie m3 = new Movie(); m3.setDirector("Director B");
+        Movie m4 = new Movie(); m4.setDirector("Director A");
+
+        when(movieApiClient.fetchAllPages(anyMap())).thenReturn(Flux.just(page(dto1, dto2, dto3, dto4)));
+        when(movieMapper.toDomain(dto1)).thenReturn(m1);
+        when(movieMapper.toDomain(dto2)).thenReturn(m2);
+        when(movieMapper.toDomain(dto3)).thenReturn(m3);
+        when(movieMapper.toDomain(dto4)).thenReturn(m4);
+
+        StepVerifier.create(directorService.getTopDirectors("2"))
+                .expectNextMatches(response -> response.getBody().getDirectors().equals(List.of(
+                        new DirectorCountDto("Director C", 2), new DirectorCountDto("Director A", 1))))
+                .verifyComplete();
+        StepVerifier.create(directorService.getTopDirectors("10"))
+                .expectNextMatches(response -> response.getBody().getDirectors().size() == 3)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should reject a k that is not a positive number")
+    void getTopDirectors_shouldThrow_whenKIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> directorService.getTopDirectors("0"));
+        assertThrows(IllegalArgumentException.class, () -> directorService.getTopDirectors("ten"));
+    }
 }
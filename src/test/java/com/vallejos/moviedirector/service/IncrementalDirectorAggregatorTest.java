@@ -0,0 +1,186 @@
+package com.vallejos.moviedirector.service;
+
+import com.vallejos.moviedirector.client.MovieApiClient;
+import com.vallejos.moviedirector.configuration.MovieStoreProperties;
+import com.vallejos.moviedirector.domain.DirectorIndex;
+import com.vallejos.moviedirector.domain.MovieSegment;
+import com.vallejos.moviedirector.domain.MovieTable;
+import com.vallejos.moviedirector.dto.MovieDto;
+import com.vallejos.moviedirector.dto.MoviePageDto;
+import com.vallejos.moviedirector.mapper.MovieMapper;
+import com.vallejos.moviedirector.metrics.DirectorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IncrementalDirectorAggregator Unit Tests")
+class IncrementalDirectorAggregatorTest {
+
+    @Mock
+    private MovieApiClient movieApiClient;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private IncrementalDirectorAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new IncrementalDirectorAggregator(movieApiClient, Mappers.getMapper(MovieMapper.class),
+                new DirectorMetrics(registry));
+    }
+
+    private MoviePageDto page(int page, int totalPages, String fingerprint, String... directors) {
+        List<MovieDto> movies = Arrays.stream(directors).map(director -> {
+            MovieDto dto = new MovieDto();
+            dto.setDirector(director);
+            return dto;
+        }).toList();
+        return new MoviePageDto(page, totalPages, fingerprint, false, movies);
+    }
+
+    @Test
+    @DisplayName("refresh should only re-aggregate changed pages by subtracting their old contribution")
+    void refresh_shouldReplaceContributionOfChangedPagesOnly() {
+        when(movieApiClient.fetchAllPages(anyMap()))
+                .thenReturn(Flux.just(
+                        page(1, 2, "etag:a", "Director A", "Director A", "Director B"),
+                        page(2, 2, "etag:b", "Director C")))
+                .thenReturn(Flux.just(
+                        MoviePageDto.notModified(1, 2, "etag:a"),
+                        page(2, 2, "etag:b2", "Director C", "Director D")));
+
+        StepVerifier.create(aggregator.refresh().map(DirectorIndex::toMap))
+                .expectNext(Map.of("Director A", 2L, "Director B", 1L, "Director C", 1L))
+                .verifyComplete();
+        StepVerifier.create(aggregator.refresh().map(DirectorIndex::toMap))
+                .expectNext(Map.of("Director A", 2L, "Director B", 1L, "Director C", 1L, "Director D", 1L))
+                .verifyComplete();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Integer, String>> fingerprints = ArgumentCaptor.forClass(Map.class);
+        verify(movieApiClient, times(2)).fetchAllPages(fingerprints.capture());
+        assertEquals(Map.of(), fingerprints.getAllValues().get(0));
+        assertEquals(Map.of(1, "etag:a", 2, "etag:b"), fingerprints.getAllValues().get(1));
+    }
+
+    @Test
+    @DisplayName("refresh should skip pages whose content fingerprint is unchanged and drop pages that disappeared")
+    void refresh_shouldSkipUnchangedPagesAndSubtractRemovedPages() {
+        when(movieApiClient.fetchAllPages(anyMap()))
+                .thenReturn(Flux.just(
+                        page(1, 2, "sha256:1", "Director A"),
+                        page(2, 2, "sha256:2", "Director A", "Director B")))
+                .thenReturn(Flux.just(
+                        page(1, 1, "sha256:1", "Director A")));
+
+        aggregator.refresh().block();
+
+        StepVerifier.create(aggregator.refresh().map(DirectorIndex::toMap))
+                .expectNext(Map.of("Director A", 1L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("refresh should keep the previous state when the crawl fails")
+    void refresh_shouldKeepPreviousState_whenCrawlFails() {
+        when(movieApiClient.fetchAllPages(anyMap()))
+                .thenReturn(Flux.just(page(1, 1, "etag:a", "Director A")))
+                .thenReturn(Flux.concat(
+                        Flux.just(page(1, 1, "etag:a2", "Director B")),
+                        Flux.error(new RuntimeException("API error"))))
+                .thenReturn(Flux.just(MoviePageDto.notModified(1, 1, "etag:a")));
+
+        aggregator.refresh().block();
+        StepVerifier.create(aggregator.refresh())
+                .expectErrorMessage("API error")
+                .verify();
+        StepVerifier.create(aggregator.refresh().map(DirectorIndex::toMap))
+                .expectNext(Map.of("Director A", 1L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("refresh should record ingested and skipped movies, distinct directors and aggregation time")
+    void refresh_shouldRecordAggregationMetrics() {
+        when(movieApiClient.fetchAllPages(anyMap()))
+                .thenReturn(Flux.just(page(1, 1, "etag:a", "Director A", "Director B", " ")));
+
+        aggregator.refresh().block();
+
+        assertEquals(3.0, registry.get("directors.movies.ingested").counter().count());
+        assertEquals(1.0, registry.get("directors.movies.skipped").counter().count());
+        assertEquals(2.0, registry.get("directors.distinct").gauge().value());
+        assertEquals(1L, registry.get("directors.aggregation").timer().count());
+    }
+
+    @Test
+    @DisplayName("refresh should keep the catalog in a columnar table, in page order, re-encoding changed pages only")
+    void refresh_shouldBuildColumnarMovieTable() {
+        MovieStoreProperties storeProperties = new MovieStoreProperties();
+        storeProperties.setOffHeap(true);
+        SimpleMeterRegistry storeRegistry = new SimpleMeterRegistry();
+        aggregator = new IncrementalDirectorAggregator(movieApiClient, Mappers.getMapper(MovieMapper.class),
+                new DirectorMetrics(storeRegistry), storeProperties);
+        MoviePageDto first = page(1, 2, "etag:a", "Director A", " ");
+        first.getMovies().forEach(movie -> {
+            movie.setYear("1999");
+            movie.setRuntime("136 min");
+            movie.setGenre("Action, Sci-Fi");
+        });
+        when(movieApiClient.fetchAllPages(anyMap()))
+                .thenReturn(Flux.just(page(2, 2, "etag:b", "Director B"), first))
+                .thenReturn(Flux.just(
+                        MoviePageDto.notModified(1, 2, "etag:a"),
+                        page(2, 2, "etag:b2", "Director C")))
+                .thenReturn(Flux.just(
+                        MoviePageDto.notModified(1, 2, "etag:a"),
+                        MoviePageDto.notModified(2, 2, "etag:b2")));
+
+        aggregator.refresh().block();
+        MovieTable table = aggregator.table();
+
+        assertEquals(3, table.size());
+        MovieSegment pageOne = table.segments().get(0);
+        assertTrue(pageOne.isOffHeap());
+        assertEquals("Director A", table.directorName(pageOne.directorId(0)));
+        assertEquals(MovieSegment.UNKNOWN_ID, pageOne.directorId(1));
+        assertEquals(1999, pageOne.year(1));
+        assertEquals(136, pageOne.runtime(1));
+        assertEquals("Sci-Fi", table.genreName(pageOne.genreId(pageOne.genreStart(0) + 1)));
+        assertEquals(MovieSegment.UNKNOWN_SHORT, table.segments().get(1).year(0));
+        assertEquals(3.0, storeRegistry.get("directors.store.movies").gauge().value());
+        assertEquals(0.0, storeRegistry.get("directors.store.index.bytes").gauge().value());
+        assertEquals(table.index().sizeInBytes(), storeRegistry.get("directors.store.index.bytes").gauge().value());
+
+        aggregator.refresh().block();
+        MovieTable refreshed = aggregator.table();
+
+        assertSame(pageOne, refreshed.segments().get(0));
+        assertEquals("Director C", refreshed.directorName(refreshed.segments().get(1).directorId(0)));
+
+        aggregator.refresh().block();
+
+        assertSame(refreshed, aggregator.table());
+    }
+}
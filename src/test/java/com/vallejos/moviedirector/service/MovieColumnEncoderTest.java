@@ -0,0 +1,64 @@
+package com.vallejos.moviedirector.service;
+
+import com.vallejos.moviedirector.domain.Movie;
+import com.vallejos.moviedirector.domain.MovieSegment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("MovieColumnEncoder Unit Tests")
+class MovieColumnEncoderTest {
+
+    private final MovieColumnEncoder encoder = new MovieColumnEncoder();
+
+    @Test
+    @DisplayName("parse helpers should turn year, runtime and release date into primitives, or unknown markers")
+    void parse_shouldReturnPrimitives_orUnknownMarkers() {
+
+        assertEquals(2010, MovieColumnEncoder.parseYear("2010"));
+        assertEquals(2011, MovieColumnEncoder.parseYear("2011–2013"));
+        assertEquals(MovieSegment.UNKNOWN_SHORT, MovieColumnEncoder.parseYear("N/A"));
+        assertEquals(148, MovieColumnEncoder.parseRuntime("148 min"));
+        assertEquals(MovieSegment.UNKNOWN_SHORT, MovieColumnEncoder.parseRuntime("N/A"));
+        assertEquals(MovieSegment.UNKNOWN_SHORT, MovieColumnEncoder.parseRuntime("99999 min"));
+        assertEquals(LocalDate.of(2010, 7, 16).toEpochDay(), MovieColumnEncoder.parseReleased("16 Jul 2010"));
+        assertEquals(MovieSegment.UNKNOWN_DAY, MovieColumnEncoder.parseReleased("N/A"));
+        assertEquals(MovieSegment.UNKNOWN_DAY, MovieColumnEncoder.parseReleased("sometime in 2010"));
+    }
+
+    @Test
+    @DisplayName("append should dictionary-encode rating and every genre of a movie")
+    void append_shouldDictionaryEncodeCategoricalFields() {
+        MovieSegment.Builder builder = MovieSegment.builder(1);
+
+        encoder.append(movie("PG-13", "Action, Sci-Fi"), 7, builder);
+        encoder.append(movie("R", "Sci-Fi"), MovieSegment.UNKNOWN_ID, builder);
+        encoder.append(movie("N/A", "N/A"), 3, builder);
+        MovieSegment segment = builder.build(false);
+
+        assertEquals(3, segment.size());
+        assertEquals(2010, segment.year(0));
+        assertEquals(148, segment.runtime(0));
+        assertEquals(7, segment.directorId(0));
+        assertEquals(MovieSegment.UNKNOWN_ID, segment.directorId(1));
+        assertEquals("PG-13", encoder.ratings().nameOf(segment.ratedId(0)));
+        assertEquals(MovieSegment.UNKNOWN_ID, segment.ratedId(2));
+        assertEquals(2, segment.genreEnd(0) - segment.genreStart(0));
+        assertEquals("Action", encoder.genres().nameOf(segment.genreId(segment.genreStart(0))));
+        assertEquals(segment.genreId(segment.genreStart(0) + 1), segment.genreId(segment.genreStart(1)));
+        assertEquals(segment.genreStart(2), segment.genreEnd(2));
+    }
+
+    private static Movie movie(String rated, String genre) {
+        Movie movie = new Movie();
+        movie.setYear("2010");
+        movie.setRuntime("148 min");
+        movie.setReleased("16 Jul 2010");
+        movie.setRated(rated);
+        movie.setGenre(genre);
+        return movie;
+    }
+}
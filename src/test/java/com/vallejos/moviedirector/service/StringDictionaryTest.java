@@ -0,0 +1,37 @@
+package com.vallejos.moviedirector.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("StringDictionary Unit Tests")
+class StringDictionaryTest {
+
+    private final StringDictionary dictionary = new StringDictionary();
+
+    @Test
+    @DisplayName("idOf should assign dense ids in first-seen order and return the same id for equal names")
+    void idOf_shouldAssignDenseStableIds() {
+
+        assertEquals(0, dictionary.idOf("Woody Allen"));
+        assertEquals(1, dictionary.idOf("Martin Scorsese"));
+        assertEquals(0, dictionary.idOf(new String("Woody Allen")));
+        assertEquals(2, dictionary.size());
+        assertEquals("Martin Scorsese", dictionary.nameOf(1));
+    }
+
+    @Test
+    @DisplayName("idOf should keep every id resolvable after the table grows")
+    void idOf_shouldKeepIds_whenTableGrows() {
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, dictionary.idOf("Director " + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, dictionary.idOf("Director " + i));
+            assertEquals("Director " + i, dictionary.nameOf(i));
+        }
+        assertEquals(10_000, dictionary.size());
+    }
+}